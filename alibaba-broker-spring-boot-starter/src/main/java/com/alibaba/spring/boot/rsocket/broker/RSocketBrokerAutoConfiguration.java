@@ -4,12 +4,19 @@ import com.alibaba.rsocket.discovery.DiscoveryService;
 import com.alibaba.rsocket.health.RSocketServiceHealth;
 import com.alibaba.rsocket.listen.RSocketListener;
 import com.alibaba.rsocket.listen.RSocketListenerCustomizer;
+import com.alibaba.rsocket.metadata.AppMetadata;
+import com.alibaba.rsocket.metadata.BearerTokenMetadata;
+import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
 import com.alibaba.rsocket.route.RSocketFilter;
 import com.alibaba.rsocket.route.RSocketFilterChain;
 import com.alibaba.rsocket.rpc.LocalReactiveServiceCaller;
+import com.alibaba.rsocket.transport.NetworkUtil;
 import com.alibaba.spring.boot.rsocket.broker.cluster.DefaultRSocketBrokerManager;
 import com.alibaba.spring.boot.rsocket.broker.cluster.RSocketBrokerManager;
+import com.alibaba.spring.boot.rsocket.broker.cluster.RSocketBroker;
 import com.alibaba.spring.boot.rsocket.broker.cluster.RSocketBrokerManagerGossipImpl;
+import com.alibaba.spring.boot.rsocket.broker.cluster.RSocketBrokerPeerLinkManager;
+import com.alibaba.spring.boot.rsocket.broker.cluster.ServiceRegistrationLog;
 import com.alibaba.spring.boot.rsocket.broker.impl.BrokerRSocketServiceHealthImpl;
 import com.alibaba.spring.boot.rsocket.broker.impl.DiscoveryServiceImpl;
 import com.alibaba.spring.boot.rsocket.broker.responder.AppStatusCloudEventProcessor;
@@ -30,7 +37,9 @@ import com.alibaba.spring.boot.rsocket.broker.smi.impl.TrafficAccessControlImpl;
 import com.alibaba.spring.boot.rsocket.broker.smi.impl.TrafficSplitImpl;
 import com.alibaba.spring.boot.rsocket.broker.supporting.RSocketLocalServiceAnnotationProcessor;
 import io.cloudevents.v1.CloudEventImpl;
+import io.netty.buffer.Unpooled;
 import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.util.ByteBufPayload;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -48,6 +57,7 @@ import reactor.extra.processor.TopicProcessor;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 
@@ -71,8 +81,13 @@ public class RSocketBrokerAutoConfiguration {
     }
 
     @Bean
-    public ServiceRoutingSelector serviceRoutingSelector() {
-        return new ServiceRoutingSelectorImpl();
+    public ServiceRegistrationLog serviceRegistrationLog() {
+        return new ServiceRegistrationLog();
+    }
+
+    @Bean
+    public ServiceRoutingSelector serviceRoutingSelector(@Autowired ServiceRegistrationLog serviceRegistrationLog) {
+        return new ServiceRoutingSelectorImpl(serviceRegistrationLog);
     }
 
     @Bean
@@ -118,6 +133,7 @@ public class RSocketBrokerAutoConfiguration {
             builder.acceptor(registry);
             builder.listen("tcp", properties.getPort());
             builder.payloadDecoder(PayloadDecoder.ZERO_COPY);
+            builder.fragment(properties.getFragmentMtu());
         };
     }
 
@@ -173,6 +189,39 @@ public class RSocketBrokerAutoConfiguration {
         return new RSocketBrokerManagerGossipImpl();
     }
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("'${rsocket.broker.topology}'=='gossip'")
+    public RSocketBrokerPeerLinkManager rsocketBrokerPeerLinkManager(@Autowired RSocketBrokerManager brokerManager,
+                                                                     @Autowired AuthenticationService authenticationService,
+                                                                     @Autowired RSocketBrokerProperties properties) {
+        String localIp = NetworkUtil.getLocalIP();
+        RSocketBrokerPeerLinkManager peerLinkManager = new RSocketBrokerPeerLinkManager(properties.getPeerLinks(), () -> {
+            AppMetadata appMetadata = new AppMetadata();
+            appMetadata.setUuid(UUID.randomUUID().toString());
+            appMetadata.setName("rsocket-broker");
+            appMetadata.setIp(localIp);
+            appMetadata.setPort(properties.getPort());
+            RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(appMetadata);
+            if (properties.isAuthRequired()) {
+                try {
+                    String credentials = authenticationService.generateCredentials(new String[]{"default"}, new String[]{"default"},
+                            new String[]{"internal"}, null, "rsocket-broker", new String[]{"rsocket-broker"});
+                    compositeMetadata.addMetadata(new BearerTokenMetadata(credentials.toCharArray()));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return ByteBufPayload.create(Unpooled.EMPTY_BUFFER, compositeMetadata.getContent());
+        });
+        peerLinkManager.setMaxHops(properties.getMaxHops());
+        peerLinkManager.setFragmentMtu(properties.getFragmentMtu());
+        brokerManager.requestAll().subscribe(brokers -> peerLinkManager.refreshPeers(brokers.stream()
+                .filter(broker -> !localIp.equals(broker.getIp()))
+                .map(RSocketBroker::getUrl)
+                .collect(Collectors.toList())));
+        return peerLinkManager;
+    }
+
     @Bean
     public TopicProcessor<CloudEventImpl> reactiveCloudEventProcessor() {
         return TopicProcessor.<CloudEventImpl>builder().name("cloud-events-processor").build();
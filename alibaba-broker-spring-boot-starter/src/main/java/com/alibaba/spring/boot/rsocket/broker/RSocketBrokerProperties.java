@@ -24,6 +24,18 @@ public class RSocketBrokerProperties {
      * auth required
      */
     private boolean authRequired = true;
+    /**
+     * forwarding links per peer broker
+     */
+    private int peerLinks = 2;
+    /**
+     * max forward hops between peer brokers, and the message is refused if reached
+     */
+    private int maxHops = 1;
+    /**
+     * fragmentation mtu in bytes for large payload, and 0 means fragmentation disabled
+     */
+    private int fragmentMtu = 0;
     @NestedConfigurationProperty
     private RSocketSSL ssl;
 
@@ -43,6 +55,30 @@ public class RSocketBrokerProperties {
         this.authRequired = authRequired;
     }
 
+    public int getPeerLinks() {
+        return peerLinks;
+    }
+
+    public void setPeerLinks(int peerLinks) {
+        this.peerLinks = peerLinks;
+    }
+
+    public int getMaxHops() {
+        return maxHops;
+    }
+
+    public void setMaxHops(int maxHops) {
+        this.maxHops = maxHops;
+    }
+
+    public int getFragmentMtu() {
+        return fragmentMtu;
+    }
+
+    public void setFragmentMtu(int fragmentMtu) {
+        this.fragmentMtu = fragmentMtu;
+    }
+
     public String getTopology() {
         return topology;
     }
@@ -12,16 +12,17 @@ import io.scalecube.cluster.transport.api.Message;
 import io.scalecube.net.Address;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import reactor.core.Disposable;
 import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.PostConstruct;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,6 +37,14 @@ public class RSocketBrokerManagerGossipImpl implements RSocketBrokerManager, Clu
      * Gossip listen port
      */
     private static int gossipListenPort = 42254;
+    /**
+     * sync interval for membership and service registrations
+     */
+    private static int syncIntervalMillis = 5_000;
+    /**
+     * qualifier for service registrations sync message
+     */
+    private static final String REGISTRATION_SYNC_QUALIFIER = "rsocket-broker/registration-sync";
     /**
      * seed members
      */
@@ -50,18 +59,77 @@ public class RSocketBrokerManagerGossipImpl implements RSocketBrokerManager, Clu
      * brokers changes emitter processor
      */
     private EmitterProcessor<Collection<RSocketBroker>> brokersEmitterProcessor = EmitterProcessor.create();
+    /**
+     * local service registration log
+     */
+    @Autowired
+    private ServiceRegistrationLog registrationLog;
+    /**
+     * service registrations replicas of peer brokers, key is ip address
+     */
+    private Map<String, ServiceRegistrationReplica> registrationReplicas = new ConcurrentHashMap<>();
+    /**
+     * peer brokers with registration sync in flight, and slow peer is skipped until its last sync finished
+     */
+    private Set<String> syncingPeers = ConcurrentHashMap.newKeySet();
+    private Disposable registrationSync;
 
     @PostConstruct
     public void init() {
         final String localIp = NetworkUtil.getLocalIP();
         cluster = new ClusterImpl()
                 .config(clusterConfig -> clusterConfig.containerHost(localIp).containerPort(gossipListenPort))
-                .membership(membershipConfig -> membershipConfig.seedMembers(seedMembers()).syncInterval(5_000))
+                .membership(membershipConfig -> membershipConfig.seedMembers(seedMembers()).syncInterval(syncIntervalMillis))
                 .transport(transportConfig -> transportConfig.host(localIp).port(gossipListenPort))
                 .handler(cluster1 -> this)
                 .startAwait();
         brokers.put(localIp, new RSocketBroker(localIp));
         log.info("Start cluster with Gossip support!");
+        this.registrationSync = Flux.interval(Duration.ofMillis(syncIntervalMillis))
+                .flatMap(timestamp -> Flux.fromIterable(cluster.otherMembers()))
+                .filter(member -> syncingPeers.add(member.address().host()))
+                .flatMap(member -> syncRegistrations(member).doFinally(signalType -> syncingPeers.remove(member.address().host())))
+                .subscribe();
+    }
+
+    /**
+     * fetch service registration deltas since last known sequence from peer broker
+     *
+     * @param member peer broker
+     * @return void
+     */
+    private Mono<Void> syncRegistrations(Member member) {
+        String ip = member.address().host();
+        ServiceRegistrationReplica replica = registrationReplicas.computeIfAbsent(ip, key -> new ServiceRegistrationReplica());
+        Message request = Message.builder()
+                .qualifier(REGISTRATION_SYNC_QUALIFIER)
+                .correlationId(UUID.randomUUID().toString())
+                .data(replica.getEpoch() + ":" + replica.getSequence())
+                .build();
+        return cluster.requestResponse(member, request)
+                .timeout(Duration.ofMillis(syncIntervalMillis * 2L))
+                .doOnNext(response -> {
+                    try {
+                        replica.apply(Base64.getDecoder().decode((String) response.data()));
+                    } catch (Exception e) {
+                        log.error(RsocketErrorCode.message("RST-300501", ip), e);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error(RsocketErrorCode.message("RST-300501", ip), e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * service registrations replica of peer broker
+     *
+     * @param ip broker ip
+     * @return replica
+     */
+    public ServiceRegistrationReplica getRegistrationReplica(String ip) {
+        return registrationReplicas.get(ip);
     }
 
     @Override
@@ -101,7 +169,16 @@ public class RSocketBrokerManagerGossipImpl implements RSocketBrokerManager, Clu
 
     @Override
     public void onMessage(Message message) {
-
+        if (REGISTRATION_SYNC_QUALIFIER.equals(message.qualifier())) {
+            String[] parts = ((String) message.data()).split(":");
+            byte[] syncResponse = registrationLog.sync(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            Message response = Message.builder()
+                    .qualifier(REGISTRATION_SYNC_QUALIFIER)
+                    .correlationId(message.correlationId())
+                    .data(Base64.getEncoder().encodeToString(syncResponse))
+                    .build();
+            cluster.send(message.sender(), response).subscribe();
+        }
     }
 
     @Override
@@ -117,9 +194,11 @@ public class RSocketBrokerManagerGossipImpl implements RSocketBrokerManager, Clu
             log.info(RsocketErrorCode.message("RST-300001", broker.getIp(), "added"));
         } else if (event.isRemoved()) {
             brokers.remove(broker.getIp());
+            registrationReplicas.remove(broker.getIp());
             log.info(RsocketErrorCode.message("RST-300001", broker.getIp(), "removed"));
         } else if (event.isLeaving()) {
             brokers.remove(broker.getIp());
+            registrationReplicas.remove(broker.getIp());
             log.info(RsocketErrorCode.message("RST-300001", broker.getIp(), "left"));
         }
         brokersEmitterProcessor.onNext(brokers.values());
@@ -133,6 +212,9 @@ public class RSocketBrokerManagerGossipImpl implements RSocketBrokerManager, Clu
 
     @Override
     public void stopLocalBroker() {
+        if (this.registrationSync != null) {
+            this.registrationSync.dispose();
+        }
         this.cluster.shutdown();
     }
 }
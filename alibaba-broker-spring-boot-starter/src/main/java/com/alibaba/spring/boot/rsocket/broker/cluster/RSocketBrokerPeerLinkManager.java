@@ -0,0 +1,306 @@
+package com.alibaba.spring.boot.rsocket.broker.cluster;
+
+import com.alibaba.rsocket.loadbalance.NoAvailableConnectionException;
+import com.alibaba.rsocket.loadbalance.ReconnectBackoff;
+import com.alibaba.rsocket.metadata.MessageHopsMetadata;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.alibaba.rsocket.observability.RsocketErrorCode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.exceptions.InvalidException;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.uri.UriTransportRegistry;
+import io.rsocket.util.ByteBufPayload;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * broker to broker forwarding links: a fixed number of long-lived multiplexed RSocket connections per peer broker,
+ * and requests are forwarded on the least busy link with original metadata and data untouched, only hops entry appended.
+ * Every link is a separated TCP connection and assigned to different event loop by reactor-netty,
+ * and a failed or closed link is reconnected with backoff until the peer removed.
+ *
+ * @author leijuan
+ */
+public class RSocketBrokerPeerLinkManager implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(RSocketBrokerPeerLinkManager.class);
+    /**
+     * links per peer broker
+     */
+    private final int linksPerPeer;
+    /**
+     * max forward hops, and the message is refused if reached
+     */
+    private int maxHops = 1;
+    /**
+     * fragmentation mtu for links, 0 if disabled
+     */
+    private int fragmentMtu = 0;
+    /**
+     * setup payload supplier for link
+     */
+    private final Supplier<Payload> setupPayloadSupplier;
+    /**
+     * peer links: peer broker uri to links
+     */
+    private final Map<String, List<PeerLink>> peers = new ConcurrentHashMap<>();
+    /**
+     * reconnect backoff for failed or closed links
+     */
+    private final ReconnectBackoff reconnectBackoff = new ReconnectBackoff(Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+    public RSocketBrokerPeerLinkManager(int linksPerPeer, Supplier<Payload> setupPayloadSupplier) {
+        this.linksPerPeer = Math.max(1, linksPerPeer);
+        this.setupPayloadSupplier = setupPayloadSupplier;
+    }
+
+    public int getMaxHops() {
+        return maxHops;
+    }
+
+    public void setMaxHops(int maxHops) {
+        this.maxHops = maxHops;
+    }
+
+    public void setFragmentMtu(int fragmentMtu) {
+        this.fragmentMtu = fragmentMtu;
+    }
+
+    public Set<String> getPeers() {
+        return peers.keySet();
+    }
+
+    /**
+     * refresh peer brokers: connect new peers and dispose links of removed peers
+     *
+     * @param uris peer broker uris
+     */
+    public void refreshPeers(Collection<String> uris) {
+        Set<String> latest = new HashSet<>(uris);
+        for (String uri : latest) {
+            if (!peers.containsKey(uri)) {
+                List<PeerLink> links = new ArrayList<>(linksPerPeer);
+                for (int i = 0; i < linksPerPeer; i++) {
+                    links.add(new PeerLink(uri));
+                }
+                peers.put(uri, links);
+                for (PeerLink link : links) {
+                    connectLink(link, 0);
+                }
+            }
+        }
+        for (String uri : new ArrayList<>(peers.keySet())) {
+            if (!latest.contains(uri)) {
+                disposeLinks(peers.remove(uri));
+            }
+        }
+    }
+
+    /**
+     * connect link, and reconnect with backoff if failed or closed until the link disposed
+     *
+     * @param link    peer link
+     * @param attempt failed attempts
+     */
+    private void connectLink(PeerLink link, int attempt) {
+        Mono.delay(attempt == 0 ? Duration.ZERO : reconnectBackoff.delay(attempt))
+                .filter(tick -> !link.disposed)
+                .flatMap(tick -> connect(link.uri))
+                .subscribe(rsocket -> {
+                    if (link.disposed) {
+                        rsocket.dispose();
+                        return;
+                    }
+                    link.rsocket = rsocket;
+                    rsocket.onClose().doFinally(signalType -> {
+                        link.rsocket = null;
+                        if (!link.disposed) {
+                            log.error(RsocketErrorCode.message("RST-500407", link.uri));
+                            connectLink(link, 1);
+                        }
+                    }).subscribe();
+                }, error -> {
+                    log.error(RsocketErrorCode.message("RST-300503", link.uri), error);
+                    connectLink(link, attempt + 1);
+                });
+    }
+
+    /**
+     * find the least in-flight link of peer
+     *
+     * @param uri peer broker uri
+     * @return link, null if no available link
+     */
+    @Nullable
+    PeerLink findLink(String uri) {
+        List<PeerLink> links = peers.get(uri);
+        if (links == null) {
+            return null;
+        }
+        PeerLink selected = null;
+        for (PeerLink link : links) {
+            if (link.rsocket != null && !link.rsocket.isDisposed()) {
+                if (selected == null || link.inFlight.get() < selected.inFlight.get()) {
+                    selected = link;
+                }
+            }
+        }
+        return selected;
+    }
+
+    public Mono<Payload> forwardRequestResponse(String uri, Payload payload) {
+        PeerLink link = findLink(uri);
+        Exception error = checkForward(uri, link, payload);
+        if (error != null) {
+            ReferenceCountUtil.safeRelease(payload);
+            return Mono.error(error);
+        }
+        link.inFlight.incrementAndGet();
+        //noinspection ConstantConditions
+        return link.rsocket.requestResponse(stamp(payload)).doFinally(signalType -> link.inFlight.decrementAndGet());
+    }
+
+    public Mono<Void> forwardFireAndForget(String uri, Payload payload) {
+        PeerLink link = findLink(uri);
+        Exception error = checkForward(uri, link, payload);
+        if (error != null) {
+            ReferenceCountUtil.safeRelease(payload);
+            return Mono.error(error);
+        }
+        //noinspection ConstantConditions
+        return link.rsocket.fireAndForget(stamp(payload));
+    }
+
+    public Flux<Payload> forwardRequestStream(String uri, Payload payload) {
+        PeerLink link = findLink(uri);
+        Exception error = checkForward(uri, link, payload);
+        if (error != null) {
+            ReferenceCountUtil.safeRelease(payload);
+            return Flux.error(error);
+        }
+        link.inFlight.incrementAndGet();
+        //noinspection ConstantConditions
+        return link.rsocket.requestStream(stamp(payload)).doFinally(signalType -> link.inFlight.decrementAndGet());
+    }
+
+    /**
+     * forward request channel, and hops entry is appended to the first payload only
+     *
+     * @param uri      peer broker uri
+     * @param signal   first payload
+     * @param payloads payloads
+     * @return response payloads
+     */
+    public Flux<Payload> forwardRequestChannel(String uri, Payload signal, Publisher<Payload> payloads) {
+        PeerLink link = findLink(uri);
+        Exception error = checkForward(uri, link, signal);
+        if (error != null) {
+            ReferenceCountUtil.safeRelease(signal);
+            return Flux.error(error);
+        }
+        RSocket rsocket = link.rsocket;
+        //noinspection ConstantConditions
+        return Flux.defer(() -> {
+            link.inFlight.incrementAndGet();
+            Flux<Payload> stamped = Flux.from(payloads).skip(1).startWith(stamp(signal));
+            return rsocket.requestChannel(stamped).doFinally(signalType -> link.inFlight.decrementAndGet());
+        });
+    }
+
+    @Nullable
+    private Exception checkForward(String uri, @Nullable PeerLink link, Payload payload) {
+        if (link == null) {
+            return new NoAvailableConnectionException(RsocketErrorCode.message("RST-200404", uri));
+        }
+        if (payload.hasMetadata() && MessageHopsMetadata.hops(payload.metadata()) >= maxHops) {
+            return new InvalidException(RsocketErrorCode.message("RST-300502", uri));
+        }
+        return null;
+    }
+
+    /**
+     * append hops entry to original composite metadata without re-encoding, and data is shared
+     *
+     * @param payload original payload
+     * @return forward payload
+     */
+    Payload stamp(Payload payload) {
+        try {
+            ByteBuf metadata = payload.metadata();
+            int hops = MessageHopsMetadata.hops(metadata);
+            CompositeByteBuf compositeMetadata = new CompositeByteBuf(PooledByteBufAllocator.DEFAULT, true, 2,
+                    metadata.retain(), MessageHopsMetadata.encodeEntry(PooledByteBufAllocator.DEFAULT, hops + 1));
+            return ByteBufPayload.create(payload.data().retain(), compositeMetadata);
+        } finally {
+            ReferenceCountUtil.safeRelease(payload);
+        }
+    }
+
+    Mono<RSocket> connect(String uri) {
+        Payload payload = setupPayloadSupplier.get();
+        RSocketFactory.ClientRSocketFactory clientRSocketFactory = RSocketFactory.connect();
+        if (fragmentMtu > 0) {
+            clientRSocketFactory = clientRSocketFactory.fragment(fragmentMtu);
+        }
+        return clientRSocketFactory
+                .keepAliveMissedAcks(12)
+                .setupPayload(payload)
+                .metadataMimeType(RSocketMimeType.CompositeMetadata.getType())
+                .dataMimeType(RSocketMimeType.Hessian.getType())
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .transport(UriTransportRegistry.clientForUri(uri))
+                .start()
+                .doFinally(signalType -> ReferenceCountUtil.safeRelease(payload));
+    }
+
+    private void disposeLinks(@Nullable List<PeerLink> links) {
+        if (links != null) {
+            for (PeerLink link : links) {
+                link.disposed = true;
+                RSocket rsocket = link.rsocket;
+                if (rsocket != null) {
+                    rsocket.dispose();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (String uri : new ArrayList<>(peers.keySet())) {
+            disposeLinks(peers.remove(uri));
+        }
+    }
+
+    static class PeerLink {
+        final String uri;
+        volatile RSocket rsocket;
+        volatile boolean disposed = false;
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        PeerLink(String uri) {
+            this.uri = uri;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.alibaba.spring.boot.rsocket.broker.cluster;
+
+/**
+ * service registration delta: add or remove of app instance with service ids
+ *
+ * @author leijuan
+ */
+public class ServiceRegistrationDelta {
+    public static final byte OP_ADD = 1;
+    public static final byte OP_REMOVE = 2;
+    private static final int[] EMPTY_SERVICE_IDS = new int[0];
+    /**
+     * sequence number in registration log
+     */
+    private long sequence;
+    /**
+     * operation: 1 add, 2 remove
+     */
+    private byte op;
+    /**
+     * app instance id
+     */
+    private int instanceId;
+    /**
+     * service ids, empty for remove
+     */
+    private int[] serviceIds;
+
+    public ServiceRegistrationDelta(long sequence, byte op, int instanceId, int[] serviceIds) {
+        this.sequence = sequence;
+        this.op = op;
+        this.instanceId = instanceId;
+        this.serviceIds = serviceIds == null ? EMPTY_SERVICE_IDS : serviceIds;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public byte getOp() {
+        return op;
+    }
+
+    public boolean isAdded() {
+        return op == OP_ADD;
+    }
+
+    public int getInstanceId() {
+        return instanceId;
+    }
+
+    public int[] getServiceIds() {
+        return serviceIds;
+    }
+
+    /**
+     * encoded bytes length: op(1) + instanceId(4) + count(2) + serviceIds
+     *
+     * @return bytes length
+     */
+    public int encodedLength() {
+        return 7 + serviceIds.length * 4;
+    }
+}
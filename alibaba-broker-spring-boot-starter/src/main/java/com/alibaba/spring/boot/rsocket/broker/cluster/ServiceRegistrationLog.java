@@ -0,0 +1,180 @@
+package com.alibaba.spring.boot.rsocket.broker.cluster;
+
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * versioned service registration log of local broker: every add/remove of (instanceId, serviceIds) gets a sequence number.
+ * Peers fetch deltas since last known sequence, and compressed snapshot is returned if peer is too far behind.
+ *
+ * @author leijuan
+ */
+public class ServiceRegistrationLog {
+    public static final byte SYNC_TYPE_DELTAS = 0;
+    public static final byte SYNC_TYPE_SNAPSHOT = 1;
+    /**
+     * sync response header: type(1) + epoch(8) + sequence(8)
+     */
+    static final int SYNC_HEADER_LENGTH = 17;
+    /**
+     * epoch of the log, changed after broker restart and peers should reload snapshot
+     */
+    private final long epoch;
+    /**
+     * retained deltas ring
+     */
+    private final ServiceRegistrationDelta[] ring;
+    /**
+     * latest sequence
+     */
+    private long sequence = 0;
+    /**
+     * current registrations: instance id to service ids
+     */
+    private IntObjectHashMap<int[]> registrations = new IntObjectHashMap<>();
+    /**
+     * cached snapshot for the sequence
+     */
+    private byte[] snapshot;
+    private long snapshotSequence = -1;
+
+    public ServiceRegistrationLog() {
+        this(65536);
+    }
+
+    public ServiceRegistrationLog(int capacity) {
+        this.ring = new ServiceRegistrationDelta[capacity];
+        this.epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public synchronized int getInstanceCount() {
+        return registrations.size();
+    }
+
+    public synchronized long add(int instanceId, int[] serviceIds) {
+        registrations.put(instanceId, serviceIds);
+        return append(ServiceRegistrationDelta.OP_ADD, instanceId, serviceIds);
+    }
+
+    public synchronized long remove(int instanceId) {
+        if (registrations.remove(instanceId) == null) {
+            return sequence;
+        }
+        return append(ServiceRegistrationDelta.OP_REMOVE, instanceId, null);
+    }
+
+    private long append(byte op, int instanceId, int[] serviceIds) {
+        sequence++;
+        ring[(int) (sequence % ring.length)] = new ServiceRegistrationDelta(sequence, op, instanceId, serviceIds);
+        return sequence;
+    }
+
+    /**
+     * deltas after the sequence
+     *
+     * @param lastSequence last known sequence from peer
+     * @return deltas, null if the sequence is out of the retained range
+     */
+    @Nullable
+    public synchronized List<ServiceRegistrationDelta> deltasSince(long lastSequence) {
+        if (lastSequence > sequence || sequence - lastSequence > ring.length) {
+            return null;
+        }
+        List<ServiceRegistrationDelta> deltas = new ArrayList<>((int) (sequence - lastSequence));
+        for (long seq = lastSequence + 1; seq <= sequence; seq++) {
+            deltas.add(ring[(int) (seq % ring.length)]);
+        }
+        return deltas;
+    }
+
+    /**
+     * build sync response for peer
+     *
+     * @param peerEpoch    epoch known by peer
+     * @param lastSequence last sequence known by peer
+     * @return encoded deltas or compressed snapshot
+     */
+    public synchronized byte[] sync(long peerEpoch, long lastSequence) {
+        if (peerEpoch == epoch) {
+            List<ServiceRegistrationDelta> deltas = deltasSince(lastSequence);
+            // snapshot is cheaper if there are more deltas than instances
+            if (deltas != null && deltas.size() <= registrations.size()) {
+                return encodeDeltas(deltas);
+            }
+        }
+        return snapshot();
+    }
+
+    private byte[] encodeDeltas(List<ServiceRegistrationDelta> deltas) {
+        int length = SYNC_HEADER_LENGTH + 4;
+        for (ServiceRegistrationDelta delta : deltas) {
+            length += delta.encodedLength();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(SYNC_TYPE_DELTAS).putLong(epoch).putLong(sequence);
+        buffer.putInt(deltas.size());
+        for (ServiceRegistrationDelta delta : deltas) {
+            buffer.put(delta.getOp());
+            writeServiceIds(buffer, delta.getInstanceId(), delta.getServiceIds());
+        }
+        return buffer.array();
+    }
+
+    private byte[] snapshot() {
+        if (snapshotSequence != sequence) {
+            int length = 4;
+            for (int[] serviceIds : registrations.values()) {
+                length += 6 + serviceIds.length * 4;
+            }
+            ByteBuffer content = ByteBuffer.allocate(length);
+            content.putInt(registrations.size());
+            registrations.forEachKeyValue((instanceId, serviceIds) -> writeServiceIds(content, instanceId, serviceIds));
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(length / 4 + SYNC_HEADER_LENGTH);
+            bos.write(SYNC_TYPE_SNAPSHOT);
+            bos.write(ByteBuffer.allocate(16).putLong(epoch).putLong(sequence).array(), 0, 16);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream dos = new DeflaterOutputStream(bos, deflater)) {
+                dos.write(content.array());
+            } catch (Exception ignore) {
+                //ByteArrayOutputStream without IO exception
+            } finally {
+                deflater.end();
+            }
+            this.snapshot = bos.toByteArray();
+            this.snapshotSequence = sequence;
+        }
+        return snapshot;
+    }
+
+    static void writeServiceIds(ByteBuffer buffer, int instanceId, int[] serviceIds) {
+        buffer.putInt(instanceId);
+        buffer.putShort((short) serviceIds.length);
+        for (int serviceId : serviceIds) {
+            buffer.putInt(serviceId);
+        }
+    }
+
+    static int[] readServiceIds(ByteBuffer buffer) {
+        int[] serviceIds = new int[buffer.getShort() & 0xFFFF];
+        for (int i = 0; i < serviceIds.length; i++) {
+            serviceIds[i] = buffer.getInt();
+        }
+        return serviceIds;
+    }
+}
@@ -0,0 +1,90 @@
+package com.alibaba.spring.boot.rsocket.broker.cluster;
+
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * replica of peer broker's service registration log, and kept with epoch & sequence for delta sync
+ *
+ * @author leijuan
+ */
+public class ServiceRegistrationReplica {
+    private long epoch = 0;
+    private long sequence = 0;
+    private IntObjectHashMap<int[]> registrations = new IntObjectHashMap<>();
+
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public synchronized int getInstanceCount() {
+        return registrations.size();
+    }
+
+    public synchronized int[] getServiceIds(int instanceId) {
+        return registrations.get(instanceId);
+    }
+
+    /**
+     * apply sync response from peer's registration log
+     *
+     * @param syncResponse encoded deltas or compressed snapshot
+     * @throws IOException failed to decompress snapshot
+     */
+    public synchronized void apply(byte[] syncResponse) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(syncResponse);
+        byte type = buffer.get();
+        long peerEpoch = buffer.getLong();
+        long peerSequence = buffer.getLong();
+        if (type == ServiceRegistrationLog.SYNC_TYPE_SNAPSHOT) {
+            ByteBuffer content = ByteBuffer.wrap(inflate(syncResponse, ServiceRegistrationLog.SYNC_HEADER_LENGTH));
+            IntObjectHashMap<int[]> temp = new IntObjectHashMap<>();
+            int instanceCount = content.getInt();
+            for (int i = 0; i < instanceCount; i++) {
+                int instanceId = content.getInt();
+                temp.put(instanceId, ServiceRegistrationLog.readServiceIds(content));
+            }
+            this.registrations = temp;
+        } else if (peerEpoch == this.epoch) {
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                byte op = buffer.get();
+                int instanceId = buffer.getInt();
+                int[] serviceIds = ServiceRegistrationLog.readServiceIds(buffer);
+                if (op == ServiceRegistrationDelta.OP_ADD) {
+                    registrations.put(instanceId, serviceIds);
+                } else {
+                    registrations.remove(instanceId);
+                }
+            }
+        } else {
+            //stale deltas for another epoch, and reload snapshot next time
+            this.epoch = 0;
+            this.sequence = 0;
+            return;
+        }
+        this.epoch = peerEpoch;
+        this.sequence = peerSequence;
+    }
+
+    private static byte[] inflate(byte[] data, int offset) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length * 4);
+        try (InflaterInputStream iis = new InflaterInputStream(new ByteArrayInputStream(data, offset, data.length - offset))) {
+            byte[] buf = new byte[4096];
+            int len;
+            while ((len = iis.read(buf)) > 0) {
+                bos.write(buf, 0, len);
+            }
+        }
+        return bos.toByteArray();
+    }
+}
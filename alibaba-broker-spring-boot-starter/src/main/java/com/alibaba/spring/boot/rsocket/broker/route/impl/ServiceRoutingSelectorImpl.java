@@ -2,6 +2,7 @@ package com.alibaba.spring.boot.rsocket.broker.route.impl;
 
 import com.alibaba.rsocket.ServiceLocator;
 import com.alibaba.rsocket.utils.MurmurHash3;
+import com.alibaba.spring.boot.rsocket.broker.cluster.ServiceRegistrationLog;
 import com.alibaba.spring.boot.rsocket.broker.route.ServiceRoutingSelector;
 import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
 import org.eclipse.collections.impl.multimap.set.UnifiedSetMultimap;
@@ -31,14 +32,29 @@ public class ServiceRoutingSelectorImpl implements ServiceRoutingSelector {
      * instance to services
      */
     private UnifiedSetMultimap<Integer, Integer> instanceServices = new UnifiedSetMultimap<>();
+    /**
+     * registration log for delta sync between brokers
+     */
+    @Nullable
+    private ServiceRegistrationLog registrationLog;
+
+    public ServiceRoutingSelectorImpl() {
+    }
+
+    public ServiceRoutingSelectorImpl(@Nullable ServiceRegistrationLog registrationLog) {
+        this.registrationLog = registrationLog;
+    }
 
     @Override
     public void register(Integer instanceId, Set<ServiceLocator> services) {
         if (instanceServices.containsKey(instanceId)) {
             return;
         }
+        int[] serviceIds = new int[services.size()];
+        int i = 0;
         for (ServiceLocator serviceLocator : services) {
             int serviceId = serviceLocator.getId();
+            serviceIds[i++] = serviceId;
             instanceServices.put(instanceId, serviceId);
             if (!servicesBitmap.containsKey(serviceId)) {
                 servicesBitmap.put(serviceId, new RoaringBitmap());
@@ -46,6 +62,9 @@ public class ServiceRoutingSelectorImpl implements ServiceRoutingSelector {
             servicesBitmap.get(serviceId).add(instanceId);
             distinctServices.put(serviceId, serviceLocator);
         }
+        if (registrationLog != null) {
+            registrationLog.add(instanceId, serviceIds);
+        }
     }
 
     @Override
@@ -61,6 +80,10 @@ public class ServiceRoutingSelectorImpl implements ServiceRoutingSelector {
                     }
                 }
             }
+            instanceServices.removeAll(instanceId);
+            if (registrationLog != null) {
+                registrationLog.remove(instanceId);
+            }
         }
     }
 
@@ -0,0 +1,131 @@
+package com.alibaba.spring.boot.rsocket.broker.cluster;
+
+import com.alibaba.rsocket.metadata.MessageHopsMetadata;
+import com.alibaba.rsocket.metadata.MessageMimeTypeMetadata;
+import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.exceptions.InvalidException;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import io.rsocket.util.ByteBufPayload;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * broker peer link manager test: peer broker is an echo server, so throughput is for forwarding links only,
+ * without routing on the peer broker
+ *
+ * @author leijuan
+ */
+public class RSocketBrokerPeerLinkManagerTest {
+    private static CloseableChannel peerBroker;
+    private static String peerUri;
+
+    @BeforeAll
+    public static void setUp() {
+        peerBroker = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> Mono.just(new AbstractRSocket() {
+                    @Override
+                    public Mono<Payload> requestResponse(Payload payload) {
+                        int hops = MessageHopsMetadata.hops(payload.metadata());
+                        payload.release();
+                        return Mono.just(ByteBufPayload.create(Unpooled.wrappedBuffer(new byte[]{(byte) hops})));
+                    }
+                }))
+                .transport(TcpServerTransport.create("127.0.0.1", 0))
+                .start()
+                .block();
+        //noinspection ConstantConditions
+        peerUri = "tcp://127.0.0.1:" + peerBroker.address().getPort();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        peerBroker.dispose();
+    }
+
+    @Test
+    public void testHopsStamp() throws Exception {
+        RSocketBrokerPeerLinkManager peerLinkManager = linkManager(1);
+        Payload response = peerLinkManager.forwardRequestResponse(peerUri, requestPayload()).block();
+        //noinspection ConstantConditions
+        Assertions.assertEquals(1, response.data().getByte(0));
+        response.release();
+        //forwarded message refused
+        Payload forwarded = peerLinkManager.stamp(requestPayload());
+        Assertions.assertEquals(1, MessageHopsMetadata.hops(forwarded.metadata()));
+        Assertions.assertThrows(InvalidException.class, () -> peerLinkManager.forwardRequestResponse(peerUri, forwarded).block());
+        //forwarded again with more hops allowed
+        peerLinkManager.setMaxHops(2);
+        Payload twice = peerLinkManager.forwardRequestResponse(peerUri, peerLinkManager.stamp(requestPayload())).block();
+        //noinspection ConstantConditions
+        Assertions.assertEquals(2, twice.data().getByte(0));
+        twice.release();
+        peerLinkManager.close();
+    }
+
+    @Test
+    public void testReconnect() throws Exception {
+        RSocketBrokerPeerLinkManager peerLinkManager = linkManager(1);
+        RSocketBrokerPeerLinkManager.PeerLink link = peerLinkManager.findLink(peerUri);
+        Assertions.assertNotNull(link);
+        RSocket closed = link.rsocket;
+        closed.dispose();
+        for (int i = 0; i < 30 && (link.rsocket == null || link.rsocket == closed); i++) {
+            Thread.sleep(100);
+        }
+        Assertions.assertNotNull(link.rsocket);
+        Assertions.assertNotSame(closed, link.rsocket);
+        Assertions.assertNotNull(peerLinkManager.forwardRequestResponse(peerUri, requestPayload()).block());
+        peerLinkManager.close();
+        Assertions.assertTrue(link.disposed);
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        for (int links : new int[]{1, 4}) {
+            RSocketBrokerPeerLinkManager peerLinkManager = linkManager(links);
+            int count = 200_000;
+            long start = System.currentTimeMillis();
+            Flux.range(0, count)
+                    .flatMap(i -> peerLinkManager.forwardRequestResponse(peerUri, requestPayload()), 256)
+                    .doOnNext(Payload::release)
+                    .blockLast();
+            long elapsed = System.currentTimeMillis() - start;
+            //link only benchmark: echo peer, no routing on peer broker
+            System.out.println("Links: " + links + ", forwarded requests per second: " + (count * 1000L / Math.max(elapsed, 1)));
+            peerLinkManager.close();
+        }
+    }
+
+    private RSocketBrokerPeerLinkManager linkManager(int links) throws Exception {
+        RSocketBrokerPeerLinkManager peerLinkManager = new RSocketBrokerPeerLinkManager(links, () -> ByteBufPayload.create(Unpooled.EMPTY_BUFFER));
+        peerLinkManager.refreshPeers(Collections.singletonList(peerUri));
+        for (int i = 0; i < 50 && peerLinkManager.findLink(peerUri) == null; i++) {
+            Thread.sleep(100);
+        }
+        //wait all links connected
+        Thread.sleep(Duration.ofMillis(200).toMillis());
+        return peerLinkManager;
+    }
+
+    private Payload requestPayload() {
+        ByteBuf metadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(RSocketMimeType.Hessian)).getContent();
+        return ByteBufPayload.create(Unpooled.wrappedBuffer(new byte[]{1, 2, 3}), metadata);
+    }
+}
@@ -0,0 +1,84 @@
+package com.alibaba.spring.boot.rsocket.broker.cluster;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * service registration log test
+ *
+ * @author leijuan
+ */
+public class ServiceRegistrationLogTest {
+
+    @Test
+    public void testDeltaSync() throws Exception {
+        ServiceRegistrationLog registrationLog = new ServiceRegistrationLog(16);
+        ServiceRegistrationReplica replica = new ServiceRegistrationReplica();
+        for (int i = 1; i <= 10; i++) {
+            registrationLog.add(i, new int[]{100 + i, 200 + i});
+        }
+        //first sync with snapshot
+        replica.apply(registrationLog.sync(replica.getEpoch(), replica.getSequence()));
+        Assertions.assertEquals(10, replica.getInstanceCount());
+        Assertions.assertEquals(registrationLog.getSequence(), replica.getSequence());
+        //deltas only
+        registrationLog.remove(1);
+        registrationLog.add(11, new int[]{111});
+        byte[] deltas = registrationLog.sync(replica.getEpoch(), replica.getSequence());
+        Assertions.assertEquals(ServiceRegistrationLog.SYNC_TYPE_DELTAS, deltas[0]);
+        replica.apply(deltas);
+        Assertions.assertEquals(10, replica.getInstanceCount());
+        Assertions.assertNull(replica.getServiceIds(1));
+        Assertions.assertArrayEquals(new int[]{111}, replica.getServiceIds(11));
+        //too far behind: snapshot
+        for (int i = 0; i < 20; i++) {
+            registrationLog.add(1000 + i, new int[]{1});
+        }
+        Assertions.assertNull(registrationLog.deltasSince(replica.getSequence()));
+        byte[] snapshot = registrationLog.sync(replica.getEpoch(), replica.getSequence());
+        Assertions.assertEquals(ServiceRegistrationLog.SYNC_TYPE_SNAPSHOT, snapshot[0]);
+        replica.apply(snapshot);
+        Assertions.assertEquals(registrationLog.getInstanceCount(), replica.getInstanceCount());
+    }
+
+    /**
+     * bytes exchanged per minute with 10k instances, 5 services per instance, 1% instances restarted per minute and 5s sync interval
+     */
+    @Test
+    public void testBytesPerMinute() throws Exception {
+        int instanceCount = 10_000;
+        int syncCountPerMinute = 12;
+        ServiceRegistrationLog registrationLog = new ServiceRegistrationLog();
+        ServiceRegistrationReplica replica = new ServiceRegistrationReplica();
+        for (int i = 0; i < instanceCount; i++) {
+            registrationLog.add(i, randomServiceIds());
+        }
+        byte[] snapshot = registrationLog.sync(replica.getEpoch(), replica.getSequence());
+        replica.apply(snapshot);
+        long deltaBytes = 0;
+        for (int sync = 0; sync < syncCountPerMinute; sync++) {
+            for (int i = 0; i < instanceCount / 100 / syncCountPerMinute; i++) {
+                int instanceId = ThreadLocalRandom.current().nextInt(instanceCount);
+                registrationLog.remove(instanceId);
+                registrationLog.add(instanceId, randomServiceIds());
+            }
+            byte[] deltas = registrationLog.sync(replica.getEpoch(), replica.getSequence());
+            deltaBytes += deltas.length;
+            replica.apply(deltas);
+        }
+        Assertions.assertEquals(registrationLog.getInstanceCount(), replica.getInstanceCount());
+        System.out.println("Snapshot bytes: " + snapshot.length);
+        System.out.println("Full state sync bytes per minute: " + (long) snapshot.length * syncCountPerMinute);
+        System.out.println("Delta sync bytes per minute: " + deltaBytes);
+    }
+
+    private static int[] randomServiceIds() {
+        int[] serviceIds = new int[5];
+        for (int i = 0; i < serviceIds.length; i++) {
+            serviceIds[i] = ThreadLocalRandom.current().nextInt(500);
+        }
+        return serviceIds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.alibaba.rsocket;
+
+import java.lang.annotation.*;
+
+/**
+ * blocking service method, and it's invoked on blocking method executor instead of the event loop.
+ * Methods with non-reactive return type are treated as blocking automatically.
+ *
+ * @author leijuan
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Blocking {
+}
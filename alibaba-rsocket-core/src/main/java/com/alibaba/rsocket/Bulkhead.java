@@ -0,0 +1,28 @@
+package com.alibaba.rsocket;
+
+import java.lang.annotation.*;
+
+/**
+ * concurrency bulkhead for service method: calls beyond max concurrent wait in a bounded queue,
+ * and calls beyond the queue are rejected immediately with retryable error
+ *
+ * @author leijuan
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+    /**
+     * max concurrent calls
+     *
+     * @return max concurrent calls
+     */
+    int maxConcurrent();
+
+    /**
+     * max queued calls waiting for a permit
+     *
+     * @return max queued calls
+     */
+    int maxQueued() default 0;
+}
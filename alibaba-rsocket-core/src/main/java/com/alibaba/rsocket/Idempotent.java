@@ -0,0 +1,14 @@
+package com.alibaba.rsocket;
+
+import java.lang.annotation.*;
+
+/**
+ * idempotent or read-only remote method, and it's safe to send duplicated request for hedging or retry
+ *
+ * @author leijuan
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+}
@@ -31,4 +31,22 @@ public interface RSocketRequesterSupport {
     List<RSocketInterceptor> responderInterceptors();
 
     List<RSocketInterceptor> requestInterceptors();
+
+    /**
+     * fragment frames larger than mtu for large payload
+     *
+     * @return max transmission unit in bytes, 0 if fragmentation disabled
+     */
+    default int fragmentMtu() {
+        return 0;
+    }
+
+    /**
+     * connections per upstream uri to spread requests over more TCP connections and event loops
+     *
+     * @return connections per uri, 1 by default
+     */
+    default int connectionsPerUri() {
+        return 1;
+    }
 }
@@ -25,6 +25,28 @@ public interface RSocketEncodingFacade {
     @Nullable
     Object decodeResult(RSocketMimeType encodingType, @Nullable ByteBuf data, @Nullable Class<?> targetClass) throws EncodingException;
 
+    /**
+     * compress data with deflate, and the data is not released
+     *
+     * @param data data
+     * @return compressed data
+     * @throws EncodingException encoding exception
+     */
+    @NotNull
+    ByteBuf compress(ByteBuf data) throws EncodingException;
+
+    /**
+     * decompress deflate compressed data, and the data is not released.
+     * Declared length larger than max(rsocket.compression.max-uncompressed-length, 16M by default) or not matched with inflated data is rejected.
+     *
+     * @param data               compressed data
+     * @param uncompressedLength uncompressed length
+     * @return uncompressed data
+     * @throws EncodingException encoding exception
+     */
+    @NotNull
+    ByteBuf decompress(ByteBuf data, int uncompressedLength) throws EncodingException;
+
     /**
      * get RSocket encoding facade singleton
      *
@@ -6,6 +6,9 @@ import com.alibaba.rsocket.encoding.RSocketEncodingFacade;
 import com.alibaba.rsocket.metadata.RSocketMimeType;
 import com.alibaba.rsocket.observability.RsocketErrorCode;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -15,6 +18,9 @@ import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import static com.alibaba.rsocket.encoding.ObjectEncodingHandler.EMPTY_BUFFER;
 
@@ -28,6 +34,15 @@ public class RSocketEncodingFacadeImpl implements RSocketEncodingFacade {
     private Map<RSocketMimeType, ObjectEncodingHandler> handlerMap = new HashMap<>();
 
     public static final RSocketEncodingFacade instance = new RSocketEncodingFacadeImpl();
+    /**
+     * deflater and inflater are reused per thread because of native memory allocated
+     */
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+    /**
+     * max uncompressed length accepted, and larger length from remote peer is rejected before buffer allocated
+     */
+    private static final int MAX_UNCOMPRESSED_LENGTH = Integer.getInteger("rsocket.compression.max-uncompressed-length", 16 * 1024 * 1024);
 
     public RSocketEncodingFacadeImpl() {
         ServiceLoader<ObjectEncodingHandler> serviceLoader = ServiceLoader.load(ObjectEncodingHandler.class);
@@ -40,6 +55,10 @@ public class RSocketEncodingFacadeImpl implements RSocketEncodingFacade {
     @Override
     public ByteBuf encodingParams(@Nullable Object[] args, RSocketMimeType encodingType) {
         try {
+            //raw binary param without encoding, and released after sent
+            if (args != null && args.length == 1 && args[0] instanceof ByteBuf) {
+                return (ByteBuf) args[0];
+            }
             ObjectEncodingHandler handler = handlerMap.get(encodingType);
             return handler.encodingParams(args);
         } catch (Exception e) {
@@ -52,6 +71,10 @@ public class RSocketEncodingFacadeImpl implements RSocketEncodingFacade {
     public @Nullable Object decodeParams(RSocketMimeType encodingType, @Nullable ByteBuf data, @Nullable Class<?>... targetClasses) {
         try {
             if (data == null || data.capacity() == 0) return null;
+            //raw binary param without decoding, and released by service method
+            if (targetClasses != null && targetClasses.length == 1 && targetClasses[0] == ByteBuf.class) {
+                return data.retainedSlice();
+            }
             return handlerMap.get(encodingType).decodeParams(data, targetClasses);
         } catch (Exception e) {
             log.error(RsocketErrorCode.message("RST-700501", encodingType.getName(), "Object[]"), e);
@@ -63,6 +86,10 @@ public class RSocketEncodingFacadeImpl implements RSocketEncodingFacade {
     @Override
     public ByteBuf encodingResult(@Nullable Object result, RSocketMimeType encodingType) throws EncodingException {
         try {
+            //raw binary result without encoding, and released after sent
+            if (result instanceof ByteBuf) {
+                return (ByteBuf) result;
+            }
             return handlerMap.get(encodingType).encodingResult(result);
         } catch (Exception e) {
             log.error(RsocketErrorCode.message("RST-700500", result != null ? result.getClass() : "Null", encodingType.getName()), e);
@@ -78,6 +105,10 @@ public class RSocketEncodingFacadeImpl implements RSocketEncodingFacade {
             if (targetClass == ByteBuffer.class) {
                 return data.nioBuffer();
             }
+            //raw binary without copy, and released by receiver
+            if (targetClass == ByteBuf.class) {
+                return data.retainedSlice();
+            }
             return handlerMap.get(encodingType).decodeResult(data, targetClass);
         } catch (Exception e) {
             log.error(RsocketErrorCode.message("RST-700501", encodingType.getName(), targetClass != null ? targetClass.getName() : "Null"), e);
@@ -85,6 +116,63 @@ public class RSocketEncodingFacadeImpl implements RSocketEncodingFacade {
         }
     }
 
+    @NotNull
+    @Override
+    public ByteBuf compress(ByteBuf data) throws EncodingException {
+        Deflater deflater = DEFLATER.get();
+        try {
+            byte[] input = ByteBufUtil.getBytes(data, data.readerIndex(), data.readableBytes(), false);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteBuf compressed = PooledByteBufAllocator.DEFAULT.buffer(input.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                compressed.writeBytes(chunk, 0, length);
+            }
+            return compressed;
+        } catch (Exception e) {
+            throw new EncodingException(RsocketErrorCode.message("RST-700502", "deflate"), e);
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    @NotNull
+    @Override
+    public ByteBuf decompress(ByteBuf data, int uncompressedLength) throws EncodingException {
+        if (uncompressedLength < 0 || uncompressedLength > MAX_UNCOMPRESSED_LENGTH) {
+            String message = RsocketErrorCode.message("RST-700504", uncompressedLength, MAX_UNCOMPRESSED_LENGTH);
+            throw new EncodingException(message, new Exception(message));
+        }
+        Inflater inflater = INFLATER.get();
+        try {
+            inflater.setInput(ByteBufUtil.getBytes(data, data.readerIndex(), data.readableBytes(), false));
+            byte[] output = new byte[uncompressedLength];
+            int offset = 0;
+            while (offset < uncompressedLength && !inflater.finished()) {
+                int length = inflater.inflate(output, offset, uncompressedLength - offset);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += length;
+            }
+            //output full before end of stream consumed: probe one more byte for data longer than declared
+            if (offset == uncompressedLength && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                offset++;
+            }
+            //truncated or longer data than declared
+            if (offset != uncompressedLength || !inflater.finished()) {
+                throw new DataFormatException("inflated " + offset + " bytes, declared " + uncompressedLength + " bytes");
+            }
+            return Unpooled.wrappedBuffer(output);
+        } catch (Exception e) {
+            throw new EncodingException(RsocketErrorCode.message("RST-700503", "deflate"), e);
+        } finally {
+            inflater.reset();
+        }
+    }
+
     //check encoding type exist or not
     private void checkMimeTypeAvailable(RSocketMimeType encodingType) throws EncodingException {
         if (!handlerMap.containsKey(encodingType)) {
@@ -0,0 +1,149 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.metadata.MessageBatchMetadata;
+import com.alibaba.rsocket.observability.RsocketErrorCode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.exceptions.ConnectionCloseException;
+import io.rsocket.util.ByteBufPayload;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * fire-and-forget batcher for a remote method: pack encoded params of calls into one frame with batch metadata marker,
+ * and the batch is sent when max batch size or max bytes reached, or after max linger.
+ * A call is completed when queued, and pending calls are dropped if upstream closed before batch sent.
+ *
+ * @author leijuan
+ */
+public class FireAndForgetBatcher {
+    private static final Logger log = LoggerFactory.getLogger(FireAndForgetBatcher.class);
+    private final RSocket rsocket;
+    /**
+     * composite metadata of the method
+     */
+    private final ByteBuf compositeMetadataByteBuf;
+    private final int maxBatchSize;
+    private final long maxLingerMillis;
+    private final int maxBatchBytes;
+    /**
+     * pending batch data: length prefixed encoded params
+     */
+    private ByteBuf pending;
+    private int pendingCount = 0;
+    private Disposable lingerTask;
+    private boolean closed = false;
+
+    public FireAndForgetBatcher(RSocket rsocket, ByteBuf compositeMetadataByteBuf, int maxBatchSize, Duration maxLinger, int maxBatchBytes) {
+        this.rsocket = rsocket;
+        this.compositeMetadataByteBuf = compositeMetadataByteBuf;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerMillis = maxLinger.toMillis();
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * add encoded params of a call to batch, and the full batch is sent outside the lock
+     *
+     * @param bodyBuffer encoded params, released after added
+     * @throws ConnectionCloseException batcher closed
+     */
+    public void add(ByteBuf bodyBuffer) {
+        Payload batch = null;
+        synchronized (this) {
+            try {
+                if (closed) {
+                    throw new ConnectionCloseException(RsocketErrorCode.message("RST-200503", 1));
+                }
+                if (pending == null) {
+                    pending = PooledByteBufAllocator.DEFAULT.buffer(Math.min(maxBatchBytes, 4096));
+                    lingerTask = Schedulers.parallel().schedule(this::flush, maxLingerMillis, TimeUnit.MILLISECONDS);
+                }
+                pending.writeInt(bodyBuffer.readableBytes());
+                pending.writeBytes(bodyBuffer);
+                pendingCount++;
+            } finally {
+                ReferenceCountUtil.safeRelease(bodyBuffer);
+            }
+            if (pendingCount >= maxBatchSize || pending.readableBytes() >= maxBatchBytes) {
+                batch = takeBatch();
+            }
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    public void flush() {
+        Payload batch;
+        synchronized (this) {
+            batch = takeBatch();
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    /**
+     * close batcher when upstream closed: linger task cancelled, and pending calls dropped with buffers released
+     */
+    public void close() {
+        int dropped;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (lingerTask != null) {
+                lingerTask.dispose();
+                lingerTask = null;
+            }
+            dropped = pendingCount;
+            if (pending != null) {
+                ReferenceCountUtil.safeRelease(pending);
+                pending = null;
+                pendingCount = 0;
+            }
+        }
+        if (dropped > 0) {
+            log.warn(RsocketErrorCode.message("RST-200503", dropped));
+        }
+    }
+
+    /**
+     * swap pending batch out, and called with lock held
+     *
+     * @return batch payload, null if no pending calls
+     */
+    @Nullable
+    private Payload takeBatch() {
+        if (pending == null) {
+            return null;
+        }
+        if (lingerTask != null) {
+            lingerTask.dispose();
+            lingerTask = null;
+        }
+        CompositeByteBuf metadata = new CompositeByteBuf(PooledByteBufAllocator.DEFAULT, true, 2,
+                compositeMetadataByteBuf.retainedDuplicate(), MessageBatchMetadata.encodeEntry(PooledByteBufAllocator.DEFAULT, pendingCount));
+        ByteBuf data = pending;
+        this.pending = null;
+        this.pendingCount = 0;
+        return ByteBufPayload.create(data, metadata);
+    }
+
+    private void send(Payload batch) {
+        rsocket.fireAndForget(batch)
+                .subscribe(null, error -> log.error(RsocketErrorCode.message("RST-200501"), error));
+    }
+}
@@ -0,0 +1,57 @@
+package com.alibaba.rsocket.invocation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * latency tracker for remote method: keep latest samples in a ring and percentiles are recomputed every 128 samples
+ *
+ * @author leijuan
+ */
+public class MethodLatencyTracker {
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int RECOMPUTE_INTERVAL = 128;
+    /**
+     * latest latency samples in nanos, and racy writes are acceptable for statistics
+     */
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private final AtomicLong count = new AtomicLong();
+    private volatile long p95Nanos = -1;
+    private volatile long p99Nanos = -1;
+
+    public void record(long latencyNanos) {
+        long current = count.getAndIncrement();
+        samples[(int) (current % SAMPLE_SIZE)] = latencyNanos;
+        if ((current + 1) % RECOMPUTE_INTERVAL == 0) {
+            recompute((int) Math.min(current + 1, SAMPLE_SIZE));
+        }
+    }
+
+    private void recompute(int size) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        this.p95Nanos = sorted[(int) (size * 0.95) - 1];
+        this.p99Nanos = sorted[(int) (size * 0.99) - 1];
+    }
+
+    /**
+     * percentiles available or not
+     *
+     * @return ready if enough samples recorded
+     */
+    public boolean isReady() {
+        return p99Nanos >= 0;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getP95Nanos() {
+        return p95Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+}
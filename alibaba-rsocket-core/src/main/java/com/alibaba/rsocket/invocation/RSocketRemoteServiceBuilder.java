@@ -2,8 +2,11 @@ package com.alibaba.rsocket.invocation;
 
 import com.alibaba.rsocket.ServiceLocator;
 import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.alibaba.rsocket.observability.RsocketErrorCode;
 import com.alibaba.rsocket.upstream.UpstreamCluster;
 import com.alibaba.rsocket.upstream.UpstreamManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Proxy;
 import java.time.Duration;
@@ -16,6 +19,7 @@ import java.util.Set;
  * @author leijuan
  */
 public class RSocketRemoteServiceBuilder<T> {
+    private static final Logger log = LoggerFactory.getLogger(RSocketRemoteServiceBuilder.class);
     public static final Set<ServiceLocator> CONSUMED_SERVICES = new HashSet<>();
     private String group;
     private String service;
@@ -26,6 +30,43 @@ public class RSocketRemoteServiceBuilder<T> {
     private RSocketMimeType encodingType = RSocketMimeType.Hessian;
     private RSocketMimeType acceptEncodingType;
     private UpstreamCluster upstreamCluster;
+    /**
+     * use JDK dynamic proxy instead of generated proxy class
+     */
+    private boolean jdkProxy = false;
+    /**
+     * fire-and-forget batch: max calls in a batch, 0 means batch disabled
+     */
+    private int fnfMaxBatchSize = 0;
+    private Duration fnfMaxLinger;
+    private int fnfMaxBatchBytes;
+    /**
+     * hedge delay for idempotent request/response methods, null if disabled
+     */
+    private Duration hedgeDelay;
+    private double hedgeBudgetRatio;
+    /**
+     * adaptive timeout factor for p99 latency, 0 if disabled
+     */
+    private double adaptiveTimeoutFactor = 0;
+    private Duration floorTimeout;
+    /**
+     * max retries for idempotent methods, 0 if disabled
+     */
+    private int maxRetries = 0;
+    private double retryBudgetRatio;
+    /**
+     * request channel with composite metadata on first frame only
+     */
+    private boolean channelMetadataOnFirstFrame = false;
+    /**
+     * compression threshold for params data, 0 if compression disabled
+     */
+    private int compressionThreshold = 0;
+    /**
+     * accept batched elements for request stream methods
+     */
+    private boolean streamBatch = false;
 
     public static <T> RSocketRemoteServiceBuilder<T> client(Class<T> serviceInterface) {
         RSocketRemoteServiceBuilder<T> rSocketServiceBuilder = new RSocketRemoteServiceBuilder<T>();
@@ -92,13 +133,150 @@ public class RSocketRemoteServiceBuilder<T> {
         return this;
     }
 
+    /**
+     * batch fire-and-forget calls of the same method into one frame, and suitable for tiny metrics or events.
+     * Completion of a batched call means queued, not sent, and pending calls are dropped if upstream closed
+     *
+     * @param maxBatchSize    max calls in a batch
+     * @param maxLingerMillis max linger millis before batch sent
+     * @param maxBatchBytes   max bytes of batch data
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> fireAndForgetBatch(int maxBatchSize, int maxLingerMillis, int maxBatchBytes) {
+        this.fnfMaxBatchSize = maxBatchSize;
+        this.fnfMaxLinger = Duration.ofMillis(maxLingerMillis);
+        this.fnfMaxBatchBytes = maxBatchBytes;
+        return this;
+    }
+
+    /**
+     * hedged requests for idempotent request/response methods(@Idempotent or @CacheResult)
+     *
+     * @param hedgeDelayMillis delay millis before duplicated request sent, such as p95 latency of the service
+     * @param hedgeBudgetRatio max ratio of hedged requests to normal requests, such as 0.1
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> hedge(int hedgeDelayMillis, double hedgeBudgetRatio) {
+        this.hedgeDelay = Duration.ofMillis(hedgeDelayMillis);
+        this.hedgeBudgetRatio = hedgeBudgetRatio;
+        return this;
+    }
+
+    /**
+     * adaptive timeout for request/response methods: p99 latency * factor, bounded by floor and the static timeout
+     *
+     * @param factor      factor for p99 latency, such as 3
+     * @param floorMillis min timeout millis
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> adaptiveTimeout(double factor, int floorMillis) {
+        this.adaptiveTimeoutFactor = factor;
+        this.floorTimeout = Duration.ofMillis(floorMillis);
+        return this;
+    }
+
+    /**
+     * retry idempotent request/response methods(@Idempotent or @CacheResult) on timeout or connection errors
+     *
+     * @param maxRetries       max retries for a call
+     * @param retryBudgetRatio max ratio of retried requests to normal requests, such as 0.1
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> retry(int maxRetries, double retryBudgetRatio) {
+        this.maxRetries = maxRetries;
+        this.retryBudgetRatio = retryBudgetRatio;
+        return this;
+    }
+
+    /**
+     * configure result cache for @CacheResult methods with the cache name, and the cache is shared by cache name
+     *
+     * @param cacheName  cache name from @CacheResult
+     * @param maxSize    max entries
+     * @param ttlSeconds time to live after write in seconds
+     * @param offHeap    store encoded response bytes off heap and decode on hit
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> cache(String cacheName, long maxSize, int ttlSeconds, boolean offHeap) {
+        RpcResultCache.configure(cacheName, maxSize, Duration.ofSeconds(ttlSeconds), offHeap);
+        return this;
+    }
+
+    /**
+     * request channel with composite metadata on the initial frame only, and later frames are data-only to save bandwidth.
+     * The responder reads routing and encoding from the initial frame.
+     *
+     * @param metadataOnFirstFrame metadata on first frame only
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> channelMetadataOnFirstFrame(boolean metadataOnFirstFrame) {
+        this.channelMetadataOnFirstFrame = metadataOnFirstFrame;
+        return this;
+    }
+
+    /**
+     * compress params data larger than threshold with deflate, and accept compressed result from responder.
+     * Request compression is not negotiated: enable it only when all responders of the service support message compression.
+     *
+     * @param thresholdBytes params data smaller than threshold stays uncompressed, such as 8192
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> compression(int thresholdBytes) {
+        this.compressionThreshold = thresholdBytes;
+        return this;
+    }
+
+    /**
+     * accept batched elements for request stream methods: responder packs several elements per frame for high-volume streams
+     *
+     * @return builder
+     */
+    public RSocketRemoteServiceBuilder<T> streamBatch() {
+        this.streamBatch = true;
+        return this;
+    }
+
+    public RSocketRemoteServiceBuilder<T> jdkProxy(boolean jdkProxy) {
+        this.jdkProxy = jdkProxy;
+        return this;
+    }
+
     @SuppressWarnings("unchecked")
     public T build() {
         CONSUMED_SERVICES.add(new ServiceLocator(group, service, version));
+        RSocketRequesterRpcProxy rpcProxy = new RSocketRequesterRpcProxy(upstreamCluster, group, serviceInterface, service, version,
+                encodingType, acceptEncodingType, timeout, endpoint);
+        //composite metadata changed with compression, and should be enabled first
+        if (compressionThreshold > 0) {
+            rpcProxy.enableCompression(compressionThreshold);
+        }
+        if (streamBatch) {
+            rpcProxy.enableStreamBatch();
+        }
+        if (fnfMaxBatchSize > 1) {
+            rpcProxy.enableFireAndForgetBatch(fnfMaxBatchSize, fnfMaxLinger, fnfMaxBatchBytes);
+        }
+        if (hedgeDelay != null) {
+            rpcProxy.enableHedge(hedgeDelay, hedgeBudgetRatio);
+        }
+        if (adaptiveTimeoutFactor > 0) {
+            rpcProxy.enableAdaptiveTimeout(adaptiveTimeoutFactor, floorTimeout);
+        }
+        if (maxRetries > 0) {
+            rpcProxy.enableRetry(maxRetries, retryBudgetRatio);
+        }
+        rpcProxy.setChannelMetadataOnFirstFrame(channelMetadataOnFirstFrame);
+        if (!jdkProxy) {
+            try {
+                return RSocketRequesterProxyGenerator.generate(serviceInterface, rpcProxy);
+            } catch (Exception | LinkageError e) {
+                //class generation failed, such as class loader without ByteBuddy
+                log.error(RsocketErrorCode.message("RST-200502", serviceInterface.getCanonicalName()), e);
+            }
+        }
         return (T) Proxy.newProxyInstance(
                 serviceInterface.getClassLoader(),
                 new Class[]{serviceInterface},
-                new RSocketRequesterRpcProxy(upstreamCluster, group, serviceInterface, service, version,
-                        encodingType, acceptEncodingType, timeout, endpoint));
+                rpcProxy);
     }
 }
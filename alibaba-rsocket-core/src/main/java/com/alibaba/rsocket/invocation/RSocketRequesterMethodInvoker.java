@@ -0,0 +1,24 @@
+package com.alibaba.rsocket.invocation;
+
+/**
+ * RSocket requester method invoker: bound to the method of generated proxy class with precomputed method metadata
+ *
+ * @author leijuan
+ */
+public class RSocketRequesterMethodInvoker {
+    private final RSocketRequesterRpcProxy rpcProxy;
+    private final ReactiveMethodMetadata methodMetadata;
+
+    public RSocketRequesterMethodInvoker(RSocketRequesterRpcProxy rpcProxy, ReactiveMethodMetadata methodMetadata) {
+        this.rpcProxy = rpcProxy;
+        this.methodMetadata = methodMetadata;
+    }
+
+    public ReactiveMethodMetadata getMethodMetadata() {
+        return methodMetadata;
+    }
+
+    public Object invoke(Object[] args) {
+        return rpcProxy.invokeRemoteMethod(methodMetadata, args);
+    }
+}
@@ -0,0 +1,51 @@
+package com.alibaba.rsocket.invocation;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.matcher.ElementMatchers;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * RSocket requester proxy class generator: generate implementation class for service interface with ByteBuddy,
+ * and every remote method calls its own invoker directly without InvocationHandler dispatch.
+ * Interface default methods and methods from Object are inherited as normal class.
+ *
+ * @author leijuan
+ */
+public class RSocketRequesterProxyGenerator {
+    private static final Method INVOKE_METHOD;
+
+    static {
+        try {
+            INVOKE_METHOD = RSocketRequesterMethodInvoker.class.getMethod("invoke", Object[].class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T generate(Class<T> serviceInterface, RSocketRequesterRpcProxy rpcProxy) throws Exception {
+        DynamicType.Builder<Object> builder = new ByteBuddy()
+                .subclass(Object.class)
+                .name(serviceInterface.getName() + "$RSocketProxy")
+                .implement(serviceInterface);
+        for (Map.Entry<Method, ReactiveMethodMetadata> entry : rpcProxy.getMethodMetadataMap().entrySet()) {
+            RSocketRequesterMethodInvoker invoker = new RSocketRequesterMethodInvoker(rpcProxy, entry.getValue());
+            builder = builder.method(ElementMatchers.is(entry.getKey()))
+                    .intercept(MethodCall.invoke(INVOKE_METHOD)
+                            .on(invoker, RSocketRequesterMethodInvoker.class)
+                            .withArgumentArray()
+                            .withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC));
+        }
+        return (T) builder.make()
+                .load(serviceInterface.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded()
+                .getDeclaredConstructor()
+                .newInstance();
+    }
+}
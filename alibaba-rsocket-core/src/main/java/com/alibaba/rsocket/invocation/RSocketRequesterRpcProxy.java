@@ -2,40 +2,54 @@ package com.alibaba.rsocket.invocation;
 
 
 import com.alibaba.rsocket.MutableContext;
+import com.alibaba.rsocket.encoding.EncodingException;
 import com.alibaba.rsocket.encoding.RSocketEncodingFacade;
+import com.alibaba.rsocket.loadbalance.LoadBalancedRSocket;
+import com.alibaba.rsocket.loadbalance.NoAvailableConnectionException;
+import com.alibaba.rsocket.metadata.MessageBatchMetadata;
+import com.alibaba.rsocket.metadata.MessageCompressionMetadata;
 import com.alibaba.rsocket.metadata.MessageMimeTypeMetadata;
 import com.alibaba.rsocket.metadata.MessageTagsMetadata;
 import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
 import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.alibaba.rsocket.reactive.ReactiveAdapterKotlin;
 import com.alibaba.rsocket.upstream.UpstreamCluster;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import io.micrometer.core.instrument.Metrics;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.util.ReferenceCountUtil;
 import io.rsocket.Payload;
 import io.rsocket.RSocket;
+import io.rsocket.exceptions.ConnectionErrorException;
+import io.rsocket.exceptions.Retryable;
 import io.rsocket.frame.FrameType;
 import io.rsocket.util.ByteBufPayload;
 import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.SynchronousSink;
+import reactor.util.function.Tuples;
 
-import javax.cache.annotation.CacheResult;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.channels.ClosedChannelException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 /**
@@ -44,15 +58,15 @@ import java.util.concurrent.TimeUnit;
  * @author leijuan
  */
 public class RSocketRequesterRpcProxy implements InvocationHandler {
+    /**
+     * prefetch of batched stream frames, and demand is bounded by frames instead of elements
+     */
+    private static final int STREAM_BATCH_PREFETCH = 8;
     private RSocket rsocket;
     /**
      * service interface
      */
     private Class<?> serviceInterface;
-    /**
-     * cached methods
-     */
-    private Map<Method, CacheResult> cachedMethods = new HashMap<>();
     /**
      * group, such as datacenter name, region name
      */
@@ -87,26 +101,69 @@ public class RSocketRequesterRpcProxy implements InvocationHandler {
      */
     private RSocketEncodingFacade encodingFacade = RSocketEncodingFacade.getInstance();
     /**
-     * cache for Request/Response result
+     * java method metadata map, precomputed for all remote methods of service interface
      */
-    public static final Cache<String, Mono<Object>> rpcCache = Caffeine.newBuilder()
-            .maximumSize(500_000)
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .build();
+    private final Map<Method, ReactiveMethodMetadata> methodMetadataMap = new HashMap<>();
     /**
-     * java method metadata map cache for performance
+     * interface default method handlers
      */
-    private Map<Method, ReactiveMethodMetadata> methodMetadataMap = new ConcurrentHashMap<>();
+    private final Map<Method, MethodHandle> defaultMethodHandles = new ConcurrentHashMap<>();
     /**
-     * interface default method handlers
+     * fire-and-forget batchers, empty if batch disabled
+     */
+    private final Map<ReactiveMethodMetadata, FireAndForgetBatcher> fireAndForgetBatchers = new HashMap<>();
+    /**
+     * result caches for @CacheResult methods
+     */
+    private final Map<ReactiveMethodMetadata, RpcResultCache> resultCaches = new HashMap<>();
+    /**
+     * hedge delay for idempotent request/response methods, null if hedge disabled
+     */
+    @Nullable
+    private Duration hedgeDelay;
+    /**
+     * hedge budget to avoid load amplifying
+     */
+    private RequestBudget hedgeBudget;
+    /**
+     * adaptive timeout factor for p99 latency, 0 if adaptive timeout disabled
+     */
+    private double adaptiveTimeoutFactor = 0;
+    private Duration floorTimeout;
+    /**
+     * max retries for idempotent methods
+     */
+    private int maxRetries = 0;
+    /**
+     * retry budget, null if retry disabled
+     */
+    @Nullable
+    private RequestBudget retryBudget;
+    /**
+     * only the initial frame of request channel carries composite metadata, and later frames are data-only
+     */
+    private boolean channelMetadataOnFirstFrame = false;
+    /**
+     * params data smaller than threshold stays uncompressed, 0 if compression disabled
+     */
+    private int compressionThreshold = 0;
+    /**
+     * batched elements accepted for request stream methods
      */
-    private Map<Method, MethodHandle> defaultMethodHandles = new HashMap<>();
+    private boolean streamBatch = false;
 
     public RSocketRequesterRpcProxy(UpstreamCluster upstream,
                                     String group, Class<?> serviceInterface, @Nullable String service, String version,
                                     RSocketMimeType encodingType, @Nullable RSocketMimeType acceptEncodingType,
                                     Duration timeout, @Nullable String endpoint) {
-        this.rsocket = upstream.getLoadBalancedRSocket();
+        this(upstream.getLoadBalancedRSocket(), group, serviceInterface, service, version, encodingType, acceptEncodingType, timeout, endpoint);
+    }
+
+    RSocketRequesterRpcProxy(RSocket rsocket,
+                             String group, Class<?> serviceInterface, @Nullable String service, String version,
+                             RSocketMimeType encodingType, @Nullable RSocketMimeType acceptEncodingType,
+                             Duration timeout, @Nullable String endpoint) {
+        this.rsocket = rsocket;
         this.serviceInterface = serviceInterface;
         this.service = serviceInterface.getCanonicalName();
         if (service != null && !service.isEmpty()) {
@@ -122,6 +179,16 @@ public class RSocketRequesterRpcProxy implements InvocationHandler {
             this.acceptEncodingTypes = new RSocketMimeType[]{acceptEncodingType};
         }
         this.timeout = timeout;
+        for (Method method : serviceInterface.getMethods()) {
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                ReactiveMethodMetadata methodMetadata = new ReactiveMethodMetadata(group, this.service, version,
+                        method, encodingType, this.acceptEncodingTypes, endpoint);
+                methodMetadataMap.put(method, methodMetadata);
+                if (methodMetadata.getCacheResult() != null && methodMetadata.getRsocketFrameType() == FrameType.REQUEST_RESPONSE) {
+                    resultCaches.put(methodMetadata, RpcResultCache.getOrCreate(methodMetadata.getCacheResult().cacheName()));
+                }
+            }
+        }
     }
 
     @Override
@@ -130,106 +197,299 @@ public class RSocketRequesterRpcProxy implements InvocationHandler {
         if (method.isDefault()) {
             return getMethodHandle(method, serviceInterface).bindTo(proxy).invokeWithArguments(args);
         }
-        MutableContext mutableContext = new MutableContext();
-        if (!methodMetadataMap.containsKey(method)) {
-            methodMetadataMap.put(method, new ReactiveMethodMetadata(group, service, version,
-                    method, encodingType, this.acceptEncodingTypes, endpoint));
-            if (method.getAnnotation(CacheResult.class) != null) {
-                cachedMethods.put(method, method.getAnnotation(CacheResult.class));
+        ReactiveMethodMetadata methodMetadata = methodMetadataMap.get(method);
+        if (methodMetadata == null) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+        return invokeRemoteMethod(methodMetadata, args);
+    }
+
+    /**
+     * methods from Object handled locally with identity of the proxy instead of this handler: equals, hashCode and toString
+     *
+     * @param proxy  proxy instance
+     * @param method method from Object
+     * @param args   arguments
+     * @return result
+     * @throws Exception exception
+     */
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) throws Exception {
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        } else if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        } else if (method.getName().equals("toString") && method.getParameterCount() == 0) {
+            return serviceInterface.getName() + "$RSocketProxy@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+        return method.invoke(this, args);
+    }
+
+    /**
+     * invoke remote method with precomputed method metadata, called by InvocationHandler or generated proxy class directly
+     *
+     * @param methodMetadata method metadata
+     * @param args           method arguments
+     * @return result
+     */
+    public Object invokeRemoteMethod(ReactiveMethodMetadata methodMetadata, Object[] args) {
+        //Kotlin suspend function: remote call without Continuation, and awaited in the coroutine
+        if (methodMetadata.isKotlinSuspend()) {
+            Object continuation = args[args.length - 1];
+            Object[] remoteArgs = args.length == 1 ? null : Arrays.copyOf(args, args.length - 1);
+            Mono<?> result = (Mono<?>) remoteCall(methodMetadata, remoteArgs);
+            return ReactiveAdapterKotlin.getInstance().awaitSuspend(result, methodMetadata.getInferredClassForReturn(), continuation);
+        }
+        return remoteCall(methodMetadata, args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object remoteCall(ReactiveMethodMetadata methodMetadata, Object[] args) {
+        if (!fireAndForgetBatchers.isEmpty()) {
+            FireAndForgetBatcher batcher = fireAndForgetBatchers.get(methodMetadata);
+            if (batcher != null) {
+                metrics(methodMetadata);
+                return Mono.fromRunnable(() -> batcher.add(encodingFacade.encodingParams(args, methodMetadata.getParamEncoding())));
+            }
+        }
+        //request/response with result cache and single flight for @CacheResult method
+        if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_RESPONSE) {
+            metrics(methodMetadata);
+            MutableContext mutableContext = new MutableContext();
+            Mono<Object> result;
+            final RpcResultCache resultCache = resultCaches.isEmpty() ? null : resultCaches.get(methodMetadata);
+            if (resultCache != null) {
+                final RpcCacheKey cacheKey = new RpcCacheKey(methodMetadata.getService() + "." + methodMetadata.getName(), args);
+                Object cachedValue = resultCache.getIfPresent(cacheKey);
+                if (cachedValue != null) {
+                    result = Mono.fromCallable(() -> cachedResult(methodMetadata, cachedValue));
+                } else {
+                    //response context is loaded once by the shared call, and copied into the context of every caller
+                    result = resultCache.singleFlight(cacheKey, Mono.defer(() -> {
+                        MutableContext loadContext = new MutableContext();
+                        return remoteRequestResponse(methodMetadata, args, resultCache, cacheKey, loadContext)
+                                .subscriberContext(context -> loadContext)
+                                .map(value -> Tuples.of(value, loadContext));
+                    })).map(loaded -> {
+                        loaded.getT2().stream().forEach(entry -> mutableContext.put(entry.getKey(), entry.getValue()));
+                        return loaded.getT1();
+                    });
+                }
+            } else {
+                result = remoteRequestResponse(methodMetadata, args, null, null, mutableContext);
             }
+            return methodMetadata.getReactiveAdapter().fromPublisher(result, methodMetadata.getReturnType(), mutableContext);
         }
-        ReactiveMethodMetadata methodMetadata = methodMetadataMap.get(method);
         //metadata data content
         ByteBuf compositeMetadataBuf = methodMetadata.getCompositeMetadataByteBuf().retainedDuplicate();
         //----- return type deal------
         if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_CHANNEL) {
             metrics(methodMetadata);
+            MutableContext mutableContext = new MutableContext();
             Payload routePayload;
             Flux<Object> source;
             //1 param or 2 params
             if (args.length == 1) {
                 routePayload = ByteBufPayload.create(Unpooled.EMPTY_BUFFER, compositeMetadataBuf);
-                source = (Flux<Object>) args[0];
+                source = channelSource(args[0]);
             } else {
                 ByteBuf bodyBuffer = encodingFacade.encodingResult(args[0], methodMetadata.getParamEncoding());
                 routePayload = ByteBufPayload.create(bodyBuffer, compositeMetadataBuf);
-                source = (Flux<Object>) args[1];
+                source = channelSource(args[1]);
+            }
+            Flux<Payload> payloadFlux;
+            if (channelMetadataOnFirstFrame) {
+                payloadFlux = source.map(obj -> ByteBufPayload.create(encodingFacade.encodingResult(obj, encodingType)));
+            } else {
+                payloadFlux = source.map(obj -> ByteBufPayload.create(encodingFacade.encodingResult(obj, encodingType), methodMetadata.getCompositeMetadataByteBuf().retainedDuplicate()));
             }
-            Flux<Payload> payloadFlux = source.startWith(routePayload).map(obj -> ByteBufPayload.create(encodingFacade.encodingResult(obj, encodingType), compositeMetadataBuf));
+            payloadFlux = payloadFlux.startWith(routePayload);
             Flux<Payload> payloads = rsocket.requestChannel(payloadFlux);
-            return payloads.concatMap(payload -> {
-                try {
-                    RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.metadata());
-                    return Mono.justOrEmpty(encodingFacade.decodeResult(extractPayloadDataMimeType(compositeMetadata, encodingType), payload.data(), methodMetadata.getInferredClassForReturn()));
-                } catch (Exception e) {
-                    return Flux.error(e);
-                } finally {
-                    ReferenceCountUtil.safeRelease(payload);
-                }
-            }).subscriberContext(mutableContext::putAll);
+            Flux<Object> result = decodeStream(payloads, methodMetadata).subscriberContext(mutableContext::putAll);
+            if (methodMetadata.getReturnType().equals(Flux.class)) {
+                return result;
+            }
+            return methodMetadata.getReactiveAdapter().fromPublisher(result, methodMetadata.getReturnType(), mutableContext);
         } else {
             //body content
             ByteBuf bodyBuffer = encodingFacade.encodingParams(args, methodMetadata.getParamEncoding());
-            Class<?> returnType = method.getReturnType();
-            if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_RESPONSE) {
+            Class<?> returnType = methodMetadata.getReturnType();
+            if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_FNF) {
                 metrics(methodMetadata);
-                final boolean cachedMethod = cachedMethods.containsKey(method);
-                if (cachedMethod) {
-                    CacheResult cacheResult = cachedMethods.get(method);
-                    String key = cacheResult.cacheName() + ":" + generateCacheKey(args);
-                    Mono<Object> cachedMono = rpcCache.getIfPresent(key);
-                    if (cachedMono != null) {
-                        return cachedMono;
-                    }
-                }
-                Mono<Payload> payloadMono = rsocket.requestResponse(ByteBufPayload.create(bodyBuffer, compositeMetadataBuf)).timeout(timeout);
-                Mono<Object> result = payloadMono.handle((payload, sink) -> {
-                    try {
-                        RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.metadata());
-                        Object obj = encodingFacade.decodeResult(extractPayloadDataMimeType(compositeMetadata, encodingType), payload.data(), methodMetadata.getInferredClassForReturn());
-                        if (obj != null) {
-                            sink.next(obj);
-                            injectContext(compositeMetadata, sink);
-                        }
-                        sink.complete();
-                    } catch (Exception e) {
-                        sink.error(e);
-                    } finally {
-                        ReferenceCountUtil.safeRelease(payload);
-                    }
-                });
-                //cache result
-                if (cachedMethod) {
-                    result = result.doOnNext(obj -> {
-                        CacheResult cacheResult = cachedMethods.get(method);
-                        String key = cacheResult.cacheName() + ":" + generateCacheKey(args);
-                        rpcCache.put(key, Mono.just(obj).cache());
-                    });
-                }
-                return methodMetadata.getReactiveAdapter().fromPublisher(result, returnType, mutableContext);
-            } else if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_FNF) {
-                metrics(methodMetadata);
-                return rsocket.fireAndForget(ByteBufPayload.create(bodyBuffer, compositeMetadataBuf));
+                return rsocket.fireAndForget(requestPayload(methodMetadata, bodyBuffer, compositeMetadataBuf));
             } else if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_STREAM) {
                 metrics(methodMetadata);
-                Flux<Payload> flux = rsocket.requestStream(ByteBufPayload.create(bodyBuffer, compositeMetadataBuf));
-                Flux<Object> result = flux.concatMap((payload) -> {
-                    try {
-                        RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.metadata());
-                        return Mono.justOrEmpty(encodingFacade.decodeResult(extractPayloadDataMimeType(compositeMetadata, encodingType), payload.data(), methodMetadata.getInferredClassForReturn()));
-                    } catch (Exception e) {
-                        return Mono.error(e);
-                    } finally {
-                        ReferenceCountUtil.safeRelease(payload);
-                    }
-                });
-                return methodMetadata.getReactiveAdapter().fromPublisher(result, returnType, mutableContext);
+                Flux<Payload> flux = rsocket.requestStream(requestPayload(methodMetadata, bodyBuffer, compositeMetadataBuf));
+                return methodMetadata.getReactiveAdapter().fromPublisher(decodeStream(flux, methodMetadata), returnType, new MutableContext());
             } else {
+                ReferenceCountUtil.safeRelease(bodyBuffer);
+                ReferenceCountUtil.safeRelease(compositeMetadataBuf);
                 return Mono.error(new Exception("Unknown RSocket Frame type"));
             }
         }
     }
 
+    /**
+     * stream param of request channel: Flux or Kotlin Flow
+     *
+     * @param param stream param
+     * @return flux
+     */
+    @SuppressWarnings("unchecked")
+    private Flux<Object> channelSource(Object param) {
+        if (param instanceof Flux) {
+            return (Flux<Object>) param;
+        }
+        return ReactiveAdapterKotlin.getInstance().toFlux(param);
+    }
+
+    /**
+     * enable batch for fire-and-forget methods, and should be called before proxy used.
+     * A batched call is completed when queued, not sent, and batchers are closed with upstream rsocket
+     *
+     * @param maxBatchSize  max calls in a batch
+     * @param maxLinger     max linger before batch sent
+     * @param maxBatchBytes max bytes of batch data
+     */
+    public void enableFireAndForgetBatch(int maxBatchSize, Duration maxLinger, int maxBatchBytes) {
+        for (ReactiveMethodMetadata methodMetadata : methodMetadataMap.values()) {
+            if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_FNF) {
+                fireAndForgetBatchers.put(methodMetadata, new FireAndForgetBatcher(rsocket, methodMetadata.getCompositeMetadataByteBuf(),
+                        maxBatchSize, maxLinger, maxBatchBytes));
+            }
+        }
+        if (!fireAndForgetBatchers.isEmpty()) {
+            rsocket.onClose()
+                    .doFinally(signalType -> fireAndForgetBatchers.values().forEach(FireAndForgetBatcher::close))
+                    .subscribe();
+        }
+    }
+
+    /**
+     * enable hedged requests for idempotent request/response methods
+     *
+     * @param hedgeDelay       delay before duplicated request sent
+     * @param hedgeBudgetRatio max ratio of hedged requests to normal requests
+     */
+    public void enableHedge(Duration hedgeDelay, double hedgeBudgetRatio) {
+        this.hedgeBudget = new RequestBudget(hedgeBudgetRatio, 10);
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /**
+     * enable adaptive timeout for request/response methods: p99 latency * factor, and bounded by floor and the static timeout
+     *
+     * @param factor       factor for p99 latency
+     * @param floorTimeout min timeout
+     */
+    public void enableAdaptiveTimeout(double factor, Duration floorTimeout) {
+        this.adaptiveTimeoutFactor = factor;
+        this.floorTimeout = floorTimeout;
+        for (ReactiveMethodMetadata methodMetadata : methodMetadataMap.values()) {
+            if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_RESPONSE) {
+                Metrics.gauge(this.service + ".timeout", methodMetadata.getMetricsTags(), methodMetadata, metadata -> timeout(metadata).toMillis());
+            }
+        }
+    }
+
+    /**
+     * enable retry for idempotent request/response methods with retry budget, and all attempts share the static timeout as deadline
+     *
+     * @param maxRetries       max retries for a call
+     * @param retryBudgetRatio max ratio of retried requests to normal requests
+     */
+    public void enableRetry(int maxRetries, double retryBudgetRatio) {
+        this.maxRetries = maxRetries;
+        this.retryBudget = new RequestBudget(retryBudgetRatio, 10);
+    }
+
+    /**
+     * only the initial frame of request channel carries composite metadata(routing and encoding), and later frames are data-only
+     *
+     * @param channelMetadataOnFirstFrame metadata on first frame only
+     */
+    public void setChannelMetadataOnFirstFrame(boolean channelMetadataOnFirstFrame) {
+        this.channelMetadataOnFirstFrame = channelMetadataOnFirstFrame;
+    }
+
+    /**
+     * enable compression: params data larger than threshold is compressed, and compressed result is accepted.
+     * It should be called before proxy used. Request compression is not negotiated, so it is a hard requirement
+     * that all responders of the service support message compression, otherwise compressed params can not be decoded.
+     *
+     * @param compressionThreshold params data smaller than threshold stays uncompressed
+     */
+    public void enableCompression(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        RSocketMimeType[] acceptTypes = Arrays.copyOf(this.acceptEncodingTypes, this.acceptEncodingTypes.length + 1);
+        acceptTypes[acceptTypes.length - 1] = RSocketMimeType.MessageCompression;
+        this.acceptEncodingTypes = acceptTypes;
+        for (ReactiveMethodMetadata methodMetadata : methodMetadataMap.values()) {
+            methodMetadata.setAcceptEncodingTypes(acceptTypes);
+        }
+    }
+
+    /**
+     * accept batched elements for request stream methods, and batch is unpacked transparently.
+     * It should be called after compression enabled because accept types of stream methods changed.
+     */
+    public void enableStreamBatch() {
+        this.streamBatch = true;
+        for (ReactiveMethodMetadata methodMetadata : methodMetadataMap.values()) {
+            if (methodMetadata.getRsocketFrameType() == FrameType.REQUEST_STREAM) {
+                RSocketMimeType[] acceptTypes = methodMetadata.getAcceptEncodingTypes();
+                RSocketMimeType[] streamAcceptTypes = Arrays.copyOf(acceptTypes, acceptTypes.length + 1);
+                streamAcceptTypes[streamAcceptTypes.length - 1] = RSocketMimeType.MessageBatch;
+                methodMetadata.setAcceptEncodingTypes(streamAcceptTypes);
+            }
+        }
+    }
+
+    Duration timeout(ReactiveMethodMetadata methodMetadata) {
+        if (adaptiveTimeoutFactor > 0) {
+            MethodLatencyTracker latencyTracker = methodMetadata.getLatencyTracker();
+            if (latencyTracker.isReady()) {
+                long timeoutNanos = (long) (latencyTracker.getP99Nanos() * adaptiveTimeoutFactor);
+                return Duration.ofNanos(Math.min(timeout.toNanos(), Math.max(floorTimeout.toNanos(), timeoutNanos)));
+            }
+        }
+        return timeout;
+    }
+
+    private Mono<Payload> requestResponse(ReactiveMethodMetadata methodMetadata, Payload requestPayload) {
+        if (hedgeDelay != null && methodMetadata.isIdempotent() && rsocket instanceof LoadBalancedRSocket) {
+            hedgeBudget.deposit();
+            return ((LoadBalancedRSocket) rsocket).requestResponse(requestPayload, hedgeDelay, () -> tryHedge(methodMetadata));
+        }
+        return rsocket.requestResponse(requestPayload);
+    }
+
+    private boolean isRetryable(Throwable error) {
+        return error instanceof TimeoutException || error instanceof ConnectionErrorException
+                || error instanceof ClosedChannelException || error instanceof NoAvailableConnectionException
+                || error instanceof Retryable;
+    }
+
+    private boolean tryRetry(ReactiveMethodMetadata methodMetadata) {
+        if (retryBudget.tryWithdraw()) {
+            Metrics.counter(this.service + ".retry", methodMetadata.getMetricsTags()).increment();
+            return true;
+        }
+        Metrics.counter(this.service + ".retry.exhausted", methodMetadata.getMetricsTags()).increment();
+        return false;
+    }
+
+    private boolean tryHedge(ReactiveMethodMetadata methodMetadata) {
+        if (hedgeBudget.tryWithdraw()) {
+            Metrics.counter(this.service + ".hedge", methodMetadata.getMetricsTags()).increment();
+            return true;
+        }
+        return false;
+    }
+
+    public Map<Method, ReactiveMethodMetadata> getMethodMetadataMap() {
+        return methodMetadataMap;
+    }
+
     protected void metrics(ReactiveMethodMetadata methodMetadata) {
         Metrics.counter(this.service, methodMetadata.getMetricsTags());
     }
@@ -237,10 +497,183 @@ public class RSocketRequesterRpcProxy implements InvocationHandler {
     /**
      * Invalidate RPC cache
      *
-     * @param key cache key
+     * @param key cache key, format as cacheName:hashCode
      */
     public static void invalidateCache(String key) {
-        rpcCache.invalidate(key);
+        RpcResultCache.invalidate(key);
+    }
+
+    /**
+     * remote request/response call with timeout, hedge and retry, and result put into cache if cache present
+     *
+     * @param methodMetadata method metadata
+     * @param args           method arguments
+     * @param resultCache    result cache
+     * @param cacheKey       cache key
+     * @param mutableContext context for response
+     * @return result
+     */
+    private Mono<Object> remoteRequestResponse(ReactiveMethodMetadata methodMetadata, Object[] args, @Nullable RpcResultCache resultCache,
+                                               @Nullable RpcCacheKey cacheKey, MutableContext mutableContext) {
+        ByteBuf compositeMetadataBuf = methodMetadata.getCompositeMetadataByteBuf().retainedDuplicate();
+        ByteBuf bodyBuffer = encodingFacade.encodingParams(args, methodMetadata.getParamEncoding());
+        //request payload template for every attempt
+        Payload templatePayload = requestPayload(methodMetadata, bodyBuffer, compositeMetadataBuf);
+        Mono<Payload> payloadMono = Mono.defer(() -> {
+            long start = System.nanoTime();
+            Duration attemptTimeout = timeout(methodMetadata);
+            Payload requestPayload = ByteBufPayload.create(templatePayload.data().retainedDuplicate(), templatePayload.metadata().retainedDuplicate());
+            return requestResponse(methodMetadata, requestPayload)
+                    .timeout(attemptTimeout)
+                    .doOnSuccess(payload -> methodMetadata.getLatencyTracker().record(System.nanoTime() - start))
+                    //timed out call is at least as slow as the timeout, so adaptive timeout grows back when upstream slows down
+                    .doOnError(TimeoutException.class, error -> methodMetadata.getLatencyTracker().record(attemptTimeout.toNanos()));
+        });
+        //retry for idempotent methods with retry budget, and the static timeout is the deadline for all attempts
+        if (retryBudget != null && methodMetadata.isIdempotent()) {
+            retryBudget.deposit();
+            payloadMono = payloadMono.retry(maxRetries, error -> isRetryable(error) && tryRetry(methodMetadata))
+                    .timeout(timeout);
+        }
+        payloadMono = payloadMono.doFinally(signalType -> ReferenceCountUtil.safeRelease(templatePayload));
+        return payloadMono.handle((payload, sink) -> {
+            try {
+                RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.metadata());
+                RSocketMimeType dataMimeType = extractPayloadDataMimeType(compositeMetadata, encodingType);
+                ByteBuf data = payloadData(payload);
+                //decoded from duplicate because decoder moves reader index, and data is still unread for off heap cache
+                Object obj = encodingFacade.decodeResult(dataMimeType, data.duplicate(), methodMetadata.getInferredClassForReturn());
+                if (obj != null) {
+                    //cache result
+                    if (resultCache != null) {
+                        resultCache.put(cacheKey, dataMimeType, data, obj);
+                    }
+                    sink.next(obj);
+                    injectContext(compositeMetadata, sink);
+                }
+                sink.complete();
+            } catch (Exception e) {
+                sink.error(e);
+            } finally {
+                ReferenceCountUtil.safeRelease(payload);
+            }
+        });
+    }
+
+    /**
+     * decode stream payloads: data encoding is resolved from the first frame and metadata is parsed again only when changed
+     *
+     * @param payloads       payloads
+     * @param methodMetadata method metadata
+     * @return decoded objects
+     */
+    private Flux<Object> decodeStream(Flux<Payload> payloads, ReactiveMethodMetadata methodMetadata) {
+        final Class<?> inferredClass = methodMetadata.getInferredClassForReturn();
+        return Flux.defer(() -> {
+            StreamDataMimeTypeResolver mimeTypeResolver = new StreamDataMimeTypeResolver(encodingType);
+            if (streamBatch && methodMetadata.getRsocketFrameType() == FrameType.REQUEST_STREAM) {
+                return payloads.flatMapIterable(payload -> decodeElements(payload, mimeTypeResolver, inferredClass), STREAM_BATCH_PREFETCH);
+            }
+            return payloads.handle((payload, sink) -> {
+                try {
+                    Object obj = encodingFacade.decodeResult(mimeTypeResolver.resolve(payload.metadata()), payloadData(payload), inferredClass);
+                    if (obj != null) {
+                        sink.next(obj);
+                    }
+                } catch (Exception e) {
+                    sink.error(e);
+                } finally {
+                    ReferenceCountUtil.safeRelease(payload);
+                }
+            });
+        });
+    }
+
+    /**
+     * decode elements of stream payload: batched payload with length(4) prefixed elements, or single element
+     *
+     * @param payload          payload
+     * @param mimeTypeResolver data mime type resolver
+     * @param inferredClass    element class
+     * @return decoded elements
+     */
+    private List<Object> decodeElements(Payload payload, StreamDataMimeTypeResolver mimeTypeResolver, Class<?> inferredClass) {
+        try {
+            RSocketMimeType dataMimeType = mimeTypeResolver.resolve(payload.metadata());
+            ByteBuf data = payloadData(payload);
+            int count = payload.hasMetadata() ? MessageBatchMetadata.count(payload.metadata()) : 0;
+            if (count == 0) {
+                Object obj = encodingFacade.decodeResult(dataMimeType, data, inferredClass);
+                return obj == null ? Collections.emptyList() : Collections.singletonList(obj);
+            }
+            List<Object> elements = new ArrayList<>(count);
+            int index = data.readerIndex();
+            for (int i = 0; i < count && index + 4 <= data.writerIndex(); i++) {
+                int length = data.getInt(index);
+                Object obj = encodingFacade.decodeResult(dataMimeType, data.slice(index + 4, length), inferredClass);
+                if (obj != null) {
+                    elements.add(obj);
+                }
+                index += 4 + length;
+            }
+            return elements;
+        } finally {
+            ReferenceCountUtil.safeRelease(payload);
+        }
+    }
+
+    /**
+     * request payload, and params data is compressed if compression enabled and data larger than threshold
+     *
+     * @param methodMetadata       method metadata
+     * @param bodyBuffer           encoded params
+     * @param compositeMetadataBuf composite metadata
+     * @return payload
+     */
+    private Payload requestPayload(ReactiveMethodMetadata methodMetadata, ByteBuf bodyBuffer, ByteBuf compositeMetadataBuf) {
+        int uncompressedLength = bodyBuffer.readableBytes();
+        if (compressionThreshold <= 0 || uncompressedLength < compressionThreshold) {
+            return ByteBufPayload.create(bodyBuffer, compositeMetadataBuf);
+        }
+        long start = System.nanoTime();
+        ByteBuf compressed;
+        try {
+            compressed = encodingFacade.compress(bodyBuffer);
+        } catch (EncodingException e) {
+            ReferenceCountUtil.safeRelease(compositeMetadataBuf);
+            throw e;
+        } finally {
+            ReferenceCountUtil.safeRelease(bodyBuffer);
+        }
+        Metrics.timer(this.service + ".compression", methodMetadata.getMetricsTags()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Metrics.summary(this.service + ".compression.ratio", methodMetadata.getMetricsTags()).record((double) uncompressedLength / Math.max(compressed.readableBytes(), 1));
+        CompositeByteBuf metadata = new CompositeByteBuf(PooledByteBufAllocator.DEFAULT, true, 2, compositeMetadataBuf,
+                MessageCompressionMetadata.encodeEntry(PooledByteBufAllocator.DEFAULT, MessageCompressionMetadata.DEFLATE, uncompressedLength));
+        return ByteBufPayload.create(compressed, metadata);
+    }
+
+    /**
+     * payload data, and decompressed if compressed by responder
+     *
+     * @param payload payload
+     * @return data
+     */
+    private ByteBuf payloadData(Payload payload) {
+        if (compressionThreshold > 0 && payload.hasMetadata()) {
+            MessageCompressionMetadata compressionMetadata = MessageCompressionMetadata.find(payload.metadata());
+            if (compressionMetadata != null) {
+                return encodingFacade.decompress(payload.data(), compressionMetadata.getUncompressedLength());
+            }
+        }
+        return payload.data();
+    }
+
+    private Object cachedResult(ReactiveMethodMetadata methodMetadata, Object cachedValue) throws Exception {
+        if (cachedValue instanceof RpcResultCache.EncodedResult) {
+            RpcResultCache.EncodedResult encodedResult = (RpcResultCache.EncodedResult) cachedValue;
+            return encodingFacade.decodeResult(encodedResult.getDataMimeType(), Unpooled.wrappedBuffer(encodedResult.getData()), methodMetadata.getInferredClassForReturn());
+        }
+        return cachedValue;
     }
 
     /**
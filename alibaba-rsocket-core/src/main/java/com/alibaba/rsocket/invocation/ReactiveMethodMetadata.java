@@ -1,8 +1,10 @@
 package com.alibaba.rsocket.invocation;
 
+import com.alibaba.rsocket.Idempotent;
 import com.alibaba.rsocket.ServiceLocator;
 import com.alibaba.rsocket.metadata.*;
 import com.alibaba.rsocket.reactive.ReactiveAdapter;
+import com.alibaba.rsocket.reactive.ReactiveAdapterKotlin;
 import com.alibaba.rsocket.utils.MurmurHash3;
 import io.micrometer.core.instrument.Tag;
 import io.netty.buffer.ByteBuf;
@@ -14,6 +16,7 @@ import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.cache.annotation.CacheResult;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -29,7 +32,8 @@ import java.util.List;
  */
 public class ReactiveMethodMetadata {
     public static final List<String> STREAM_CLASSES = Arrays.asList("io.reactivex.Flowable", "io.reactivex.Observable",
-            "io.reactivex.rxjava3.core.Observable", "io.reactivex.rxjava3.core.Flowable", "reactor.core.publisher.Flux");
+            "io.reactivex.rxjava3.core.Observable", "io.reactivex.rxjava3.core.Flowable", "reactor.core.publisher.Flux",
+            "kotlinx.coroutines.flow.Flow");
     /**
      * service full name, format as com.alibaba.user.UserService
      */
@@ -98,6 +102,23 @@ public class ReactiveMethodMetadata {
      * reactive adapter for RxJava2 & RxJava3 etc
      */
     private ReactiveAdapter reactiveAdapter;
+    /**
+     * Kotlin suspend function, and Continuation is the last argument
+     */
+    private boolean kotlinSuspend;
+    /**
+     * cache result annotation for request/response
+     */
+    @Nullable
+    private CacheResult cacheResult;
+    /**
+     * idempotent or read-only method, and annotated with @Idempotent or @CacheResult
+     */
+    private boolean idempotent;
+    /**
+     * latency tracker for request/response
+     */
+    private final MethodLatencyTracker latencyTracker = new MethodLatencyTracker();
 
     public ReactiveMethodMetadata(String group, String service, String version,
                                   Method method,
@@ -122,9 +143,13 @@ public class ReactiveMethodMetadata {
                 if (typeArguments.length > 0) {
                     final Type typeArgument = typeArguments[0];
                     if (typeArgument instanceof ParameterizedType) {
-                        this.inferredClassForReturn = (Class<?>) ((ParameterizedType) typeArgument).getActualTypeArguments()[0];
-                    } else {
+                        Type actualType = ((ParameterizedType) typeArgument).getActualTypeArguments()[0];
+                        this.inferredClassForReturn = actualType instanceof Class ? (Class<?>) actualType : Object.class;
+                    } else if (typeArgument instanceof Class) {
                         this.inferredClassForReturn = (Class<?>) typeArgument;
+                    } else {
+                        //type variable or wildcard
+                        this.inferredClassForReturn = Object.class;
                     }
                 }
             }
@@ -133,39 +158,20 @@ public class ReactiveMethodMetadata {
             }
         }
         this.paramCount = method.getParameterCount();
+        //Kotlin suspend function: Continuation excluded from params, and result class from Continuation<? super T>
+        this.kotlinSuspend = ReactiveAdapter.isKotlinSuspend(method);
+        if (this.kotlinSuspend) {
+            this.paramCount = paramCount - 1;
+            this.inferredClassForReturn = ReactiveAdapter.kotlinSuspendResultClass(method);
+        }
         //param encoding type
         this.paramEncoding = dataEncodingType;
         this.acceptEncodingTypes = acceptEncodingTypes;
-        //payload routing metadata
-        GSVRoutingMetadata routingMetadata = new GSVRoutingMetadata(group, this.service, this.name, version);
-        routingMetadata.setEndpoint(this.endpoint);
-        //payload binary routing metadata
-        BinaryRoutingMetadata binaryRoutingMetadata = new BinaryRoutingMetadata(this.serviceId, this.handlerId,
-                routingMetadata.assembleRoutingKey().getBytes(StandardCharsets.UTF_8));
-        //add param encoding
-        MessageMimeTypeMetadata messageMimeTypeMetadata = new MessageMimeTypeMetadata(this.paramEncoding);
-        //set accepted mimetype
-        MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata = new MessageAcceptMimeTypesMetadata(this.acceptEncodingTypes);
-        //construct default composite metadata
-        CompositeByteBuf compositeMetadataContent;
-        //add gsv routing data if endpoint not empty
-        if (endpoint != null && !endpoint.isEmpty()) {
-            this.compositeMetadata = RSocketCompositeMetadata.from(routingMetadata, messageMimeTypeMetadata, messageAcceptMimeTypesMetadata);
-            this.compositeMetadata.addMetadata(binaryRoutingMetadata);
-            compositeMetadataContent = (CompositeByteBuf) this.compositeMetadata.getContent();
-        } else {
-            this.compositeMetadata = RSocketCompositeMetadata.from(messageMimeTypeMetadata, messageAcceptMimeTypesMetadata);
-            compositeMetadataContent = (CompositeByteBuf) this.compositeMetadata.getContent();
-            //add BinaryRoutingMetadata as first
-            compositeMetadataContent.addComponent(true, 0, binaryRoutingMetadata.getHeaderAndContent());
-        }
-        // convert composite bytebuf to bytebuf for performance
-        this.compositeMetadataByteBuf = compositeMetadataContent.copy();
-        ReferenceCountUtil.safeRelease(compositeMetadataContent);
+        initCompositeMetadata();
         //bi direction check: param's type is Flux for 1st param or 2nd param
-        if (paramCount == 1 && method.getParameterTypes()[0].equals(Flux.class)) {
+        if (paramCount == 1 && isChannelParam(method.getParameterTypes()[0])) {
             rsocketFrameType = FrameType.REQUEST_CHANNEL;
-        } else if (paramCount == 2 && method.getParameterTypes()[1].equals(Flux.class)) {
+        } else if (paramCount == 2 && isChannelParam(method.getParameterTypes()[1])) {
             rsocketFrameType = FrameType.REQUEST_CHANNEL;
         }
         if (this.rsocketFrameType == null) {
@@ -179,8 +185,10 @@ public class ReactiveMethodMetadata {
                 this.rsocketFrameType = FrameType.REQUEST_RESPONSE;
             }
         }
+        this.cacheResult = method.getAnnotation(CacheResult.class);
+        this.idempotent = this.cacheResult != null || method.isAnnotationPresent(Idempotent.class);
         //reactive adapter for return type
-        this.reactiveAdapter = ReactiveAdapter.findAdapter(returnType.getCanonicalName());
+        this.reactiveAdapter = kotlinSuspend ? ReactiveAdapterKotlin.getInstance() : ReactiveAdapter.findAdapter(returnType.getCanonicalName());
         //metrics tags for micrometer
         if (this.group != null && !this.group.isEmpty()) {
             metricsTags.add(Tag.of("group", this.group));
@@ -192,6 +200,10 @@ public class ReactiveMethodMetadata {
         metricsTags.add(Tag.of("frame", String.valueOf(this.rsocketFrameType.getEncodedType())));
     }
 
+    private static boolean isChannelParam(Class<?> paramType) {
+        return paramType.equals(Flux.class) || paramType.getName().equals("kotlinx.coroutines.flow.Flow");
+    }
+
     public String getService() {
         return service;
     }
@@ -232,6 +244,10 @@ public class ReactiveMethodMetadata {
         this.inferredClassForReturn = inferredClassForReturn;
     }
 
+    public boolean isKotlinSuspend() {
+        return kotlinSuspend;
+    }
+
     public int getParamCount() {
         return paramCount;
     }
@@ -248,12 +264,52 @@ public class ReactiveMethodMetadata {
         this.paramEncoding = paramEncoding;
     }
 
+    /**
+     * construct default composite metadata with routing, encoding and accept encoding
+     */
+    private void initCompositeMetadata() {
+        //payload routing metadata
+        GSVRoutingMetadata routingMetadata = new GSVRoutingMetadata(group, this.service, this.name, version);
+        routingMetadata.setEndpoint(this.endpoint);
+        //payload binary routing metadata
+        BinaryRoutingMetadata binaryRoutingMetadata = new BinaryRoutingMetadata(this.serviceId, this.handlerId,
+                routingMetadata.assembleRoutingKey().getBytes(StandardCharsets.UTF_8));
+        //add param encoding
+        MessageMimeTypeMetadata messageMimeTypeMetadata = new MessageMimeTypeMetadata(this.paramEncoding);
+        //set accepted mimetype
+        MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata = new MessageAcceptMimeTypesMetadata(this.acceptEncodingTypes);
+        //construct default composite metadata
+        CompositeByteBuf compositeMetadataContent;
+        //add gsv routing data if endpoint not empty
+        if (endpoint != null && !endpoint.isEmpty()) {
+            this.compositeMetadata = RSocketCompositeMetadata.from(routingMetadata, messageMimeTypeMetadata, messageAcceptMimeTypesMetadata);
+            this.compositeMetadata.addMetadata(binaryRoutingMetadata);
+            compositeMetadataContent = (CompositeByteBuf) this.compositeMetadata.getContent();
+        } else {
+            this.compositeMetadata = RSocketCompositeMetadata.from(messageMimeTypeMetadata, messageAcceptMimeTypesMetadata);
+            compositeMetadataContent = (CompositeByteBuf) this.compositeMetadata.getContent();
+            //add BinaryRoutingMetadata as first
+            compositeMetadataContent.addComponent(true, 0, binaryRoutingMetadata.getHeaderAndContent());
+        }
+        // convert composite bytebuf to bytebuf for performance
+        this.compositeMetadataByteBuf = compositeMetadataContent.copy();
+        ReferenceCountUtil.safeRelease(compositeMetadataContent);
+    }
+
     public RSocketMimeType[] getAcceptEncodingTypes() {
         return acceptEncodingTypes;
     }
 
+    /**
+     * set accept encoding types, and default composite metadata is constructed again
+     *
+     * @param acceptEncodingTypes accept encoding types
+     */
     public void setAcceptEncodingTypes(RSocketMimeType[] acceptEncodingTypes) {
         this.acceptEncodingTypes = acceptEncodingTypes;
+        ByteBuf oldCompositeMetadataByteBuf = this.compositeMetadataByteBuf;
+        initCompositeMetadata();
+        ReferenceCountUtil.safeRelease(oldCompositeMetadataByteBuf);
     }
 
     public RSocketCompositeMetadata getCompositeMetadata() {
@@ -264,6 +320,19 @@ public class ReactiveMethodMetadata {
         return compositeMetadataByteBuf;
     }
 
+    @Nullable
+    public CacheResult getCacheResult() {
+        return cacheResult;
+    }
+
+    public MethodLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
     public List<Tag> getMetricsTags() {
         return this.metricsTags;
     }
@@ -0,0 +1,68 @@
+package com.alibaba.rsocket.invocation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * budget for extra requests(hedged or retried) as ratio of normal requests, token bucket alike:
+ * every normal request deposits ratio token, and every extra request withdraws one token.
+ *
+ * @author leijuan
+ */
+public class RequestBudget {
+    private static final long TOKEN_SCALE = 1000;
+    /**
+     * deposit for every normal request, scaled
+     */
+    private final long deposit;
+    /**
+     * max tokens, scaled
+     */
+    private final long maxTokens;
+    private final AtomicLong tokens;
+    /**
+     * withdraw rejected count because of budget exhausted
+     */
+    private final AtomicLong exhaustedCount = new AtomicLong();
+
+    /**
+     * request budget
+     *
+     * @param ratio     ratio of extra requests to normal requests, such as 0.1
+     * @param maxTokens max tokens to withdraw for burst, and budget is full at beginning
+     */
+    public RequestBudget(double ratio, int maxTokens) {
+        this.deposit = (long) (ratio * TOKEN_SCALE);
+        this.maxTokens = maxTokens * TOKEN_SCALE;
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    public void deposit() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current >= maxTokens) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(maxTokens, current + deposit)));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN_SCALE) {
+                exhaustedCount.incrementAndGet();
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN_SCALE));
+        return true;
+    }
+
+    public double getTokens() {
+        return tokens.get() / (double) TOKEN_SCALE;
+    }
+
+    public long getExhaustedCount() {
+        return exhaustedCount.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.alibaba.rsocket.invocation;
+
+import java.util.Arrays;
+
+/**
+ * structural cache key for RPC result: method identity and arguments compared with deep equals,
+ * and arguments hash code is compatible with Spring SimpleKeyGenerator for cache invalidation
+ *
+ * @author leijuan
+ */
+public final class RpcCacheKey {
+    private static final Object[] EMPTY_ARGS = new Object[0];
+    /**
+     * method identity, format as service.method, and methods with same cache name do not share results
+     */
+    private final String method;
+    private final Object[] args;
+    private final int argsHash;
+    private final int hash;
+
+    public RpcCacheKey(String method, Object[] args) {
+        this.method = method;
+        this.args = args == null ? EMPTY_ARGS : args.clone();
+        this.argsHash = RSocketRequesterRpcProxy.generateCacheKey(this.args);
+        this.hash = 31 * method.hashCode() + argsHash;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * arguments hash code, same as the hash code in cache invalidation key
+     *
+     * @return hash code
+     */
+    public int getArgsHash() {
+        return argsHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RpcCacheKey that = (RpcCacheKey) o;
+        return hash == that.hash && method.equals(that.method) && Arrays.deepEquals(args, that.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return method + Arrays.deepToString(args);
+    }
+}
@@ -0,0 +1,240 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RPC result cache for @CacheResult methods: one cache per cache name with its own size and TTL.
+ * Values are decoded objects on heap, or encoded response bytes off heap and decoded on hit.
+ *
+ * @author leijuan
+ */
+public class RpcResultCache {
+    private static final Map<String, RpcResultCache> CACHES = new ConcurrentHashMap<>();
+    private static final Map<String, RpcResultCache> SPECS = new ConcurrentHashMap<>();
+    private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+    private final String name;
+    private final long maxSize;
+    private final Duration ttl;
+    /**
+     * store encoded response bytes off heap
+     */
+    private final boolean offHeap;
+    private Cache<RpcCacheKey, Object> cache;
+    /**
+     * cached keys indexed by arguments hash for invalidation with cacheName:hashCode
+     */
+    private final Map<Integer, Set<RpcCacheKey>> keysByHash = new ConcurrentHashMap<>();
+    /**
+     * in-flight remote calls for cache misses
+     */
+    private final Map<RpcCacheKey, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private RpcResultCache(String name, long maxSize, Duration ttl, boolean offHeap) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * configure cache before the cache created by remote service proxy
+     *
+     * @param cacheName cache name from @CacheResult
+     * @param maxSize   max entries
+     * @param ttl       time to live after write
+     * @param offHeap   store encoded response bytes off heap
+     */
+    public static void configure(String cacheName, long maxSize, Duration ttl, boolean offHeap) {
+        SPECS.put(cacheName, new RpcResultCache(cacheName, maxSize, ttl, offHeap));
+    }
+
+    public static RpcResultCache getOrCreate(String cacheName) {
+        return CACHES.computeIfAbsent(cacheName, name -> {
+            RpcResultCache spec = SPECS.getOrDefault(name, new RpcResultCache(name, 10_000, Duration.ofMinutes(5), false));
+            RpcResultCache resultCache = new RpcResultCache(name, spec.maxSize, spec.ttl, spec.offHeap);
+            resultCache.cache = Caffeine.newBuilder()
+                    .maximumSize(spec.maxSize)
+                    .expireAfterWrite(spec.ttl.toMillis(), TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .executor(Runnable::run)
+                    .removalListener((RpcCacheKey key, Object value, RemovalCause cause) -> {
+                        if (key != null && cause != RemovalCause.REPLACED) {
+                            resultCache.unindex(key);
+                        }
+                    })
+                    .build();
+            CaffeineCacheMetrics.monitor(Metrics.globalRegistry, resultCache.cache, "rsocket." + name);
+            return resultCache;
+        });
+    }
+
+    public static Collection<RpcResultCache> all() {
+        return CACHES.values();
+    }
+
+    /**
+     * invalidate cache with key, format as cacheName:hashCode, and all entries with the arguments hash are removed
+     *
+     * @param key cache key
+     */
+    public static void invalidate(String key) {
+        int offset = key.lastIndexOf(':');
+        if (offset > 0) {
+            RpcResultCache resultCache = CACHES.get(key.substring(0, offset));
+            if (resultCache != null) {
+                try {
+                    int hash = Integer.parseInt(key.substring(offset + 1));
+                    Set<RpcCacheKey> keys = resultCache.keysByHash.remove(hash);
+                    if (keys != null) {
+                        resultCache.cache.invalidateAll(keys);
+                    }
+                } catch (NumberFormatException ignore) {
+
+                }
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * cached value
+     *
+     * @param key cache key
+     * @return decoded object or encoded result
+     */
+    @Nullable
+    public Object getIfPresent(RpcCacheKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * put result into cache, and the encoded data is copied off heap if off heap enabled
+     *
+     * @param key          cache key
+     * @param dataMimeType data encoding type
+     * @param data         encoded data
+     * @param result       decoded result
+     */
+    public void put(RpcCacheKey key, RSocketMimeType dataMimeType, ByteBuf data, Object result) {
+        if (offHeap) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(data.readableBytes());
+            data.getBytes(data.readerIndex(), buffer);
+            buffer.flip();
+            cache.put(key, new EncodedResult(dataMimeType, buffer));
+        } else {
+            cache.put(key, result);
+        }
+        keysByHash.compute(key.getArgsHash(), (hash, keys) -> {
+            Set<RpcCacheKey> indexed = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    /**
+     * remove evicted or invalidated key from hash index unless the key was put again
+     *
+     * @param key cache key
+     */
+    private void unindex(RpcCacheKey key) {
+        keysByHash.computeIfPresent(key.getArgsHash(), (hash, keys) -> {
+            if (!cache.asMap().containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * single flight for cache miss: the first miss installs a shared pending call and later callers with same key subscribe to it.
+     * The pending call is removed when terminated, and error is not cached.
+     *
+     * @param key    cache key
+     * @param loader lazy remote call
+     * @param <T>    result type
+     * @return shared pending call
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> singleFlight(RpcCacheKey key, Mono<T> loader) {
+        Mono<T> pending = (Mono<T>) inFlight.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        return (Mono<T>) inFlight.computeIfAbsent(key, cacheKey -> {
+            AtomicReference<Mono<T>> self = new AtomicReference<>();
+            Mono<T> shared = loader
+                    .doFinally(signalType -> inFlight.remove(cacheKey, self.get()))
+                    .cache(value -> FOREVER, error -> Duration.ZERO, () -> Duration.ZERO);
+            self.set(shared);
+            return shared;
+        });
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        keysByHash.clear();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * encoded result stored off heap
+     */
+    public static class EncodedResult {
+        private final RSocketMimeType dataMimeType;
+        private final ByteBuffer data;
+
+        public EncodedResult(RSocketMimeType dataMimeType, ByteBuffer data) {
+            this.dataMimeType = dataMimeType;
+            this.data = data;
+        }
+
+        public RSocketMimeType getDataMimeType() {
+            return dataMimeType;
+        }
+
+        /**
+         * data for decoding
+         *
+         * @return read only duplicated buffer
+         */
+        public ByteBuffer getData() {
+            return data.asReadOnlyBuffer();
+        }
+    }
+}
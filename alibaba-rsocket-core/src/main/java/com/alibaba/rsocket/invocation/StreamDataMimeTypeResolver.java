@@ -0,0 +1,44 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.metadata.MessageMimeTypeMetadata;
+import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * data mime type resolver for one stream: the data encoding is resolved from the first frame,
+ * and composite metadata is parsed again only when it changed. One resolver per subscription, not thread safe.
+ *
+ * @author leijuan
+ */
+public class StreamDataMimeTypeResolver {
+    private final RSocketMimeType defaultEncodingType;
+    /**
+     * copy of last parsed composite metadata
+     */
+    private ByteBuf lastMetadata;
+    private RSocketMimeType dataMimeType;
+
+    public StreamDataMimeTypeResolver(RSocketMimeType defaultEncodingType) {
+        this.defaultEncodingType = defaultEncodingType;
+    }
+
+    /**
+     * resolve data mime type of the frame
+     *
+     * @param compositeMetadata composite metadata of the frame
+     * @return data mime type
+     */
+    public RSocketMimeType resolve(ByteBuf compositeMetadata) {
+        if (dataMimeType != null && (!compositeMetadata.isReadable() || ByteBufUtil.equals(compositeMetadata, lastMetadata))) {
+            return dataMimeType;
+        }
+        ByteBuf mimeTypeEntry = RSocketCompositeMetadata.findEntry(compositeMetadata, RSocketMimeType.MessageMimeType);
+        RSocketMimeType mimeType = mimeTypeEntry == null ? null : MessageMimeTypeMetadata.from(mimeTypeEntry).getRSocketMimeType();
+        this.dataMimeType = mimeType == null ? defaultEncodingType : mimeType;
+        this.lastMetadata = Unpooled.copiedBuffer(compositeMetadata);
+        return dataMimeType;
+    }
+}
@@ -51,6 +51,14 @@ public interface RSocketListener {
 
         Builder acceptor(SocketAcceptor acceptor);
 
+        /**
+         * fragment frames larger than mtu, and 0 means fragmentation disabled
+         *
+         * @param mtu max transmission unit in bytes
+         * @return builder
+         */
+        Builder fragment(int mtu);
+
         RSocketListener build();
     }
 }
@@ -1,27 +1,47 @@
 package com.alibaba.rsocket.listen;
 
+import com.alibaba.rsocket.MutableContext;
 import com.alibaba.rsocket.encoding.RSocketEncodingFacade;
 import com.alibaba.rsocket.metadata.*;
 import com.alibaba.rsocket.observability.RsocketErrorCode;
+import com.alibaba.rsocket.reactive.ReactiveAdapter;
+import com.alibaba.rsocket.rpc.BlockingMethodExecutor;
 import com.alibaba.rsocket.rpc.LocalReactiveServiceCaller;
+import com.alibaba.rsocket.rpc.MethodBulkhead;
 import com.alibaba.rsocket.rpc.ReactiveMethodHandler;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.util.ReferenceCountUtil;
 import io.rsocket.AbstractRSocket;
 import io.rsocket.Payload;
 import io.rsocket.exceptions.InvalidException;
+import io.rsocket.exceptions.RejectedException;
 import io.rsocket.util.ByteBufPayload;
 import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
 import reactor.core.Scannable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 /**
@@ -30,55 +50,111 @@ import java.util.stream.Stream;
  * @author leijuan
  */
 public abstract class RSocketResponderSupport extends AbstractRSocket {
+    /**
+     * pre-encoded result composite metadata with message mime type, unreleasable and shared by all responses
+     */
+    private static final Map<RSocketMimeType, ByteBuf> RESULT_METADATA_TEMPLATES = new EnumMap<>(RSocketMimeType.class);
+    /**
+     * marker for end of stream in stream batch
+     */
+    private static final Object BATCH_END = new Object();
+
+    static {
+        for (RSocketMimeType mimeType : RSocketMimeType.values()) {
+            ByteBuf content = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(mimeType)).getContent();
+            try {
+                RESULT_METADATA_TEMPLATES.put(mimeType, Unpooled.unreleasableBuffer(Unpooled.directBuffer(content.readableBytes()).writeBytes(content)));
+            } finally {
+                ReferenceCountUtil.safeRelease(content);
+            }
+        }
+    }
+
     protected Logger log = LoggerFactory.getLogger(this.getClass());
     protected LocalReactiveServiceCaller localServiceCaller;
     protected RSocketEncodingFacade encodingFacade = RSocketEncodingFacade.getInstance();
+    /**
+     * result data smaller than threshold stays uncompressed even if compression accepted by requester
+     */
+    protected int compressionThreshold = MessageCompressionMetadata.DEFAULT_THRESHOLD;
+    /**
+     * max elements in a stream batch, 0 if stream batch disabled
+     */
+    protected int streamBatchMaxElements = 64;
+    /**
+     * max bytes of stream batch data
+     */
+    protected int streamBatchMaxBytes = 16 * 1024;
+    /**
+     * max linger before a partial stream batch sent
+     */
+    protected Duration streamBatchMaxLinger = Duration.ofMillis(5);
 
     protected Mono<Payload> localRequestResponse(GSVRoutingMetadata routing,
                                                  MessageMimeTypeMetadata dataEncodingMetadata,
                                                  @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
                                                  Payload payload) {
+        ReactiveMethodHandler methodHandler = localServiceCaller.getInvokeMethod(routing.getService(), routing.getMethod());
+        if (methodHandler == null) {
+            ReferenceCountUtil.safeRelease(payload);
+            return Mono.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
+        }
+        return localRequestResponse(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, payload);
+    }
+
+    protected Mono<Payload> localRequestResponse(ReactiveMethodHandler methodHandler,
+                                                 MessageMimeTypeMetadata dataEncodingMetadata,
+                                                 @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
+                                                 Payload payload) {
+        MethodBulkhead bulkhead = methodHandler.getBulkhead();
+        if (bulkhead != null) {
+            return bulkhead.execute(Mono.defer(() -> invokeRequestResponse(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, payload)),
+                    () -> ReferenceCountUtil.safeRelease(payload));
+        }
+        return invokeRequestResponse(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, payload);
+    }
+
+    private Mono<Payload> invokeRequestResponse(ReactiveMethodHandler methodHandler,
+                                                MessageMimeTypeMetadata dataEncodingMetadata,
+                                                @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
+                                                Payload payload) {
         try {
-            ReactiveMethodHandler methodHandler = localServiceCaller.getInvokeMethod(routing.getService(), routing.getMethod());
-            if (methodHandler != null) {
-                Object result;
-                if (methodHandler.isAsyncReturn()) {
-                    result = invokeLocalService(methodHandler, dataEncodingMetadata, payload);
-                } else {
-                    result = Mono.fromCallable(() -> invokeLocalService(methodHandler, dataEncodingMetadata, payload));
-                }
-                //composite data for return value
-                RSocketMimeType resultEncodingType = resultEncodingType(messageAcceptMimeTypesMetadata, dataEncodingMetadata.getRSocketMimeType());
-                RSocketCompositeMetadata resultCompositeMetadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(resultEncodingType));
-                Mono<Object> monoResult;
-                if (result instanceof Mono) {
-                    monoResult = (Mono) result;
-                    //Mono name & tags support
-                    Scannable scannable = Scannable.from(monoResult);
-                    if (scannable.isScanAvailable()) {
-                        Stream<Tuple2<String, String>> tagsStream = scannable.scan(Scannable.Attr.TAGS);
-                        if (tagsStream != null) {
-                            Map<String, String> tags = new HashMap<>();
-                            tagsStream.forEach((tuple) -> {
-                                tags.put(tuple.getT1(), tuple.getT2());
-                            });
-                            resultCompositeMetadata.addMetadata(new MessageTagsMetadata(tags));
-                        }
+            Object result;
+            if (methodHandler.isBlocking()) {
+                result = invokeBlockingLocalService(methodHandler, dataEncodingMetadata, payload)
+                        .flatMap(value -> methodHandler.getReactiveAdapter().toMono(value));
+            } else {
+                result = invokeLocalService(methodHandler, dataEncodingMetadata, payload);
+            }
+            //composite data for return value
+            RSocketMimeType resultEncodingType = resultEncodingType(messageAcceptMimeTypesMetadata, dataEncodingMetadata.getRSocketMimeType());
+            Mono<Object> monoResult;
+            Map<String, String> tags = null;
+            if (result instanceof Mono) {
+                monoResult = (Mono) result;
+                //Mono name & tags support
+                Scannable scannable = Scannable.from(monoResult);
+                if (scannable.isScanAvailable()) {
+                    Stream<Tuple2<String, String>> tagsStream = scannable.scan(Scannable.Attr.TAGS);
+                    if (tagsStream != null) {
+                        Map<String, String> monoTags = new HashMap<>();
+                        tagsStream.forEach((tuple) -> {
+                            monoTags.put(tuple.getT1(), tuple.getT2());
+                        });
+                        tags = monoTags.isEmpty() ? null : monoTags;
                     }
-                } else {
-                    monoResult = methodHandler.getReactiveAdapter().toMono(result);
                 }
-                ByteBuf compositeMetadataContent = resultCompositeMetadata.getContent();
-                return monoResult
-                        .map(object -> encodingFacade.encodingResult(object, resultEncodingType))
-                        .map(dataByteBuf -> ByteBufPayload.create(dataByteBuf, compositeMetadataContent))
-                        .doOnTerminate(() -> {
-                            ReferenceCountUtil.safeRelease(payload);
-                        });
             } else {
-                ReferenceCountUtil.safeRelease(payload);
-                return Mono.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
+                monoResult = methodHandler.getReactiveAdapter().toMono(result);
             }
+            Map<String, String> resultTags = tags;
+            boolean compressionAccepted = compressionAccepted(messageAcceptMimeTypesMetadata);
+            return monoResult
+                    .map(object -> encodingFacade.encodingResult(object, resultEncodingType))
+                    .map(dataByteBuf -> resultPayload(methodHandler, dataByteBuf, resultMetadata(resultEncodingType, resultTags), compressionAccepted))
+                    .doOnTerminate(() -> {
+                        ReferenceCountUtil.safeRelease(payload);
+                    });
         } catch (Exception e) {
             log.error(RsocketErrorCode.message("RST-200500"), e);
             ReferenceCountUtil.safeRelease(payload);
@@ -89,31 +165,83 @@ public abstract class RSocketResponderSupport extends AbstractRSocket {
 
     protected Mono<Void> localFireAndForget(GSVRoutingMetadata routing, MessageMimeTypeMetadata dataEncodingMetadata, Payload payload) {
         ReactiveMethodHandler methodHandler = localServiceCaller.getInvokeMethod(routing.getService(), routing.getMethod());
-        if (methodHandler != null) {
-            if (methodHandler.isAsyncReturn()) {
-                try {
-                    return methodHandler.getReactiveAdapter().toMono(invokeLocalService(methodHandler, dataEncodingMetadata, payload));
-                } catch (Exception e) {
-                    ReferenceCountUtil.safeRelease(payload);
-                    log.error(RsocketErrorCode.message("RST-200500"), e);
-                    return Mono.error(e);
+        if (methodHandler == null) {
+            ReferenceCountUtil.safeRelease(payload);
+            return Mono.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
+        }
+        return localFireAndForget(methodHandler, dataEncodingMetadata, payload);
+    }
+
+    protected Mono<Void> localFireAndForget(ReactiveMethodHandler methodHandler, MessageMimeTypeMetadata dataEncodingMetadata, Payload payload) {
+        MethodBulkhead bulkhead = methodHandler.getBulkhead();
+        if (bulkhead != null) {
+            return bulkhead.execute(Mono.defer(() -> dispatchFireAndForget(methodHandler, dataEncodingMetadata, payload)),
+                    () -> ReferenceCountUtil.safeRelease(payload));
+        }
+        return dispatchFireAndForget(methodHandler, dataEncodingMetadata, payload);
+    }
+
+    private Mono<Void> dispatchFireAndForget(ReactiveMethodHandler methodHandler, MessageMimeTypeMetadata dataEncodingMetadata, Payload payload) {
+        //batched fire-and-forget calls
+        int batchCount = payload.hasMetadata() ? MessageBatchMetadata.count(payload.metadata()) : 0;
+        if (batchCount > 0) {
+            return localBatchFireAndForget(methodHandler, dataEncodingMetadata, payload, batchCount);
+        }
+        return invokeFireAndForget(methodHandler, dataEncodingMetadata, payload);
+    }
+
+    /**
+     * unpack batched fire-and-forget calls and invoke local service for every call
+     *
+     * @param methodHandler        method handler
+     * @param dataEncodingMetadata data encoding metadata
+     * @param payload              payload with length prefixed encoded params
+     * @param batchCount           calls count
+     * @return void
+     */
+    private Mono<Void> localBatchFireAndForget(ReactiveMethodHandler methodHandler, MessageMimeTypeMetadata dataEncodingMetadata, Payload payload, int batchCount) {
+        List<Payload> elements = new ArrayList<>(batchCount);
+        try {
+            ByteBuf data = payload.data();
+            int index = data.readerIndex();
+            for (int i = 0; i < batchCount && index + 4 <= data.writerIndex(); i++) {
+                int length = data.getInt(index);
+                //malformed length from remote peer
+                if (length < 0 || length > data.writerIndex() - index - 4) {
+                    log.error(RsocketErrorCode.message("RST-201401", batchCount, i));
+                    break;
                 }
-            } else {
-                return Mono.create((sink) -> {
-                    try {
-                        invokeLocalService(methodHandler, dataEncodingMetadata, payload);
-                        sink.success();
-                    } catch (Exception e) {
-                        log.error(RsocketErrorCode.message("RST-200500"), e);
-                        sink.error(e);
-                    } finally {
-                        ReferenceCountUtil.safeRelease(payload);
-                    }
-                });
+                elements.add(ByteBufPayload.create(data.retainedSlice(index + 4, length)));
+                index += 4 + length;
             }
-        } else {
+        } catch (Exception e) {
+            for (Payload element : elements) {
+                ReferenceCountUtil.safeRelease(element);
+            }
+            return Mono.error(e);
+        } finally {
             ReferenceCountUtil.safeRelease(payload);
-            return Mono.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
+        }
+        return Flux.fromIterable(elements)
+                .concatMap(element -> invokeFireAndForget(methodHandler, dataEncodingMetadata, element).onErrorResume(error -> Mono.empty()))
+                .then();
+    }
+
+    private Mono<Void> invokeFireAndForget(ReactiveMethodHandler methodHandler, MessageMimeTypeMetadata dataEncodingMetadata, Payload payload) {
+        if (methodHandler.isBlocking()) {
+            return invokeBlockingLocalService(methodHandler, dataEncodingMetadata, payload)
+                    .flatMap(value -> methodHandler.getReactiveAdapter().toMono(value))
+                    .doOnError(e -> log.error(RsocketErrorCode.message("RST-200500"), e))
+                    .doOnTerminate(() -> ReferenceCountUtil.safeRelease(payload))
+                    .then();
+        } else {
+            try {
+                return methodHandler.getReactiveAdapter().toMono(invokeLocalService(methodHandler, dataEncodingMetadata, payload));
+            } catch (Exception e) {
+                ReferenceCountUtil.safeRelease(payload);
+                log.error(RsocketErrorCode.message("RST-200500"), e);
+                return Mono.error(e);
+            }
         }
     }
 
@@ -122,30 +250,59 @@ public abstract class RSocketResponderSupport extends AbstractRSocket {
                                                MessageMimeTypeMetadata dataEncodingMetadata,
                                                @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
                                                Payload payload) {
+        ReactiveMethodHandler methodHandler = localServiceCaller.getInvokeMethod(routing.getService(), routing.getMethod());
+        if (methodHandler == null) {
+            ReferenceCountUtil.safeRelease(payload);
+            return Flux.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
+        }
+        return localRequestStream(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, payload);
+    }
+
+    protected Flux<Payload> localRequestStream(ReactiveMethodHandler methodHandler,
+                                               MessageMimeTypeMetadata dataEncodingMetadata,
+                                               @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
+                                               Payload payload) {
+        MethodBulkhead bulkhead = methodHandler.getBulkhead();
+        if (bulkhead != null) {
+            return bulkhead.execute(Flux.defer(() -> invokeRequestStream(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, payload)),
+                    () -> ReferenceCountUtil.safeRelease(payload));
+        }
+        return invokeRequestStream(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, payload);
+    }
+
+    private Flux<Payload> invokeRequestStream(ReactiveMethodHandler methodHandler,
+                                              MessageMimeTypeMetadata dataEncodingMetadata,
+                                              @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
+                                              Payload payload) {
         try {
-            ReactiveMethodHandler methodHandler = localServiceCaller.getInvokeMethod(routing.getService(), routing.getMethod());
-            if (methodHandler != null) {
+            Flux<Object> fluxResult;
+            if (methodHandler.isBlocking()) {
+                fluxResult = invokeBlockingLocalService(methodHandler, dataEncodingMetadata, payload)
+                        .flatMapMany(value -> methodHandler.getReactiveAdapter().toFlux(value));
+            } else {
                 Object result = invokeLocalService(methodHandler, dataEncodingMetadata, payload);
-                Flux<Object> fluxResult;
                 if (result instanceof Flux) {
                     fluxResult = (Flux<Object>) result;
                 } else {
                     fluxResult = methodHandler.getReactiveAdapter().toFlux(result);
                 }
-                //composite data for return value
-                RSocketMimeType resultEncodingType = resultEncodingType(messageAcceptMimeTypesMetadata, dataEncodingMetadata.getRSocketMimeType());
-                RSocketCompositeMetadata resultCompositeMetadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(resultEncodingType));
-                ByteBuf compositeMetadataContent = resultCompositeMetadata.getContent();
-                return fluxResult
-                        .map(object -> encodingFacade.encodingResult(object, resultEncodingType))
-                        .map(dataByteBuf -> ByteBufPayload.create(dataByteBuf, compositeMetadataContent))
+            }
+            //composite data for return value
+            RSocketMimeType resultEncodingType = resultEncodingType(messageAcceptMimeTypesMetadata, dataEncodingMetadata.getRSocketMimeType());
+            boolean compressionAccepted = compressionAccepted(messageAcceptMimeTypesMetadata);
+            Flux<ByteBuf> encodedResult = fluxResult.map(object -> encodingFacade.encodingResult(object, resultEncodingType));
+            if (streamBatchAccepted(messageAcceptMimeTypesMetadata)) {
+                return batchElements(encodedResult)
+                        .map(batch -> batchPayload(methodHandler, batch, resultEncodingType, compressionAccepted))
                         .doOnTerminate(() -> {
                             ReferenceCountUtil.safeRelease(payload);
                         });
-            } else {
-                ReferenceCountUtil.safeRelease(payload);
-                return Flux.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
             }
+            return encodedResult
+                    .map(dataByteBuf -> resultPayload(methodHandler, dataByteBuf, resultMetadata(resultEncodingType, null), compressionAccepted))
+                    .doOnTerminate(() -> {
+                        ReferenceCountUtil.safeRelease(payload);
+                    });
         } catch (Exception e) {
             log.error(RsocketErrorCode.message("RST-200500"), e);
             ReferenceCountUtil.safeRelease(payload);
@@ -162,44 +319,72 @@ public abstract class RSocketResponderSupport extends AbstractRSocket {
                                              MessageMimeTypeMetadata dataEncodingMetadata,
                                              @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
                                              Payload signal, Flux<Payload> payloads) {
+        ReactiveMethodHandler methodHandler = localServiceCaller.getInvokeMethod(routing.getService(), routing.getMethod());
+        if (methodHandler == null) {
+            return Flux.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
+        }
+        return localRequestChannel(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, signal, payloads);
+    }
+
+    public Flux<Payload> localRequestChannel(ReactiveMethodHandler methodHandler,
+                                             MessageMimeTypeMetadata dataEncodingMetadata,
+                                             @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
+                                             Payload signal, Flux<Payload> payloads) {
+        MethodBulkhead bulkhead = methodHandler.getBulkhead();
+        if (bulkhead != null) {
+            return bulkhead.execute(Flux.defer(() -> invokeRequestChannel(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, signal, payloads)),
+                    () -> ReferenceCountUtil.safeRelease(signal));
+        }
+        return invokeRequestChannel(methodHandler, dataEncodingMetadata, messageAcceptMimeTypesMetadata, signal, payloads);
+    }
+
+    private Flux<Payload> invokeRequestChannel(ReactiveMethodHandler methodHandler,
+                                               MessageMimeTypeMetadata dataEncodingMetadata,
+                                               @Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata,
+                                               Payload signal, Flux<Payload> payloads) {
         try {
-            ReactiveMethodHandler methodHandler = localServiceCaller.getInvokeMethod(routing.getService(), routing.getMethod());
-            if (methodHandler != null) {
-                Object result;
-                if (methodHandler.getParameterCount() == 1) {
-                    Flux<Object> paramFlux = payloads
-                            .map(payload -> {
-                                return encodingFacade.decodeResult(dataEncodingMetadata.getRSocketMimeType(), payload.data(), methodHandler.getInferredClassForParameter(0));
-                            });
-                    result = methodHandler.invoke(paramFlux);
-                } else {
-                    Object paramFirst = encodingFacade.decodeResult(dataEncodingMetadata.getRSocketMimeType(), signal.data(), methodHandler.getParameterTypes()[0]);
-                    Flux<Object> paramFlux = payloads
-                            .map(payload -> {
-                                return encodingFacade.decodeResult(dataEncodingMetadata.getRSocketMimeType(), payload.data(), methodHandler.getInferredClassForParameter(1));
-                            });
-                    result = methodHandler.invoke(paramFirst, paramFlux);
-                }
-                //composite data for return value
-                RSocketMimeType resultEncodingType = resultEncodingType(messageAcceptMimeTypesMetadata, dataEncodingMetadata.getRSocketMimeType());
-                RSocketCompositeMetadata resultCompositeMetadata = RSocketCompositeMetadata.from(dataEncodingMetadata);
-                ByteBuf compositeMetadataContent = resultCompositeMetadata.getContent();
-                //result return
-                return ((Flux<Object>) result)
-                        .map(object -> encodingFacade.encodingResult(object, resultEncodingType))
-                        .map(dataByteBuf -> ByteBufPayload.create(dataByteBuf, compositeMetadataContent))
-                        .doOnTerminate(() -> {
-                            ReferenceCountUtil.safeRelease(compositeMetadataContent);
+            Object result;
+            if (methodHandler.getParameterCount() == 1) {
+                Flux<Object> paramFlux = payloads
+                        .map(payload -> {
+                            return encodingFacade.decodeResult(dataEncodingMetadata.getRSocketMimeType(), payload.data(), methodHandler.getInferredClassForParameter(0));
                         });
+                result = methodHandler.invoke(channelParam(methodHandler, 0, paramFlux));
             } else {
-                return Flux.error(new InvalidException(RsocketErrorCode.message("RST-201404", routing.getService(), routing.getMethod())));
+                Object paramFirst = encodingFacade.decodeResult(dataEncodingMetadata.getRSocketMimeType(), signal.data(), methodHandler.getParameterTypes()[0]);
+                Flux<Object> paramFlux = payloads
+                        .map(payload -> {
+                            return encodingFacade.decodeResult(dataEncodingMetadata.getRSocketMimeType(), payload.data(), methodHandler.getInferredClassForParameter(1));
+                        });
+                result = methodHandler.invoke(paramFirst, channelParam(methodHandler, 1, paramFlux));
             }
+            //composite data for return value
+            RSocketMimeType resultEncodingType = resultEncodingType(messageAcceptMimeTypesMetadata, dataEncodingMetadata.getRSocketMimeType());
+            //result return
+            return methodHandler.getReactiveAdapter().<Object>toFlux(result)
+                    .map(object -> encodingFacade.encodingResult(object, resultEncodingType))
+                    .map(dataByteBuf -> ByteBufPayload.create(dataByteBuf, resultMetadata(resultEncodingType, null)));
         } catch (Exception e) {
             log.error(RsocketErrorCode.message("RST-200500"), e);
             return Flux.error(new InvalidException(RsocketErrorCode.message("RST-900500", e.getMessage())));
         }
     }
 
+    /**
+     * stream param of request channel, and converted if declared as other stream type, such as Kotlin Flow
+     *
+     * @param methodHandler method handler
+     * @param paramIndex    param index
+     * @param paramFlux     param flux
+     * @return param
+     */
+    private Object channelParam(ReactiveMethodHandler methodHandler, int paramIndex, Flux<Object> paramFlux) {
+        Class<?> paramType = methodHandler.getParameterTypes()[paramIndex];
+        if (paramType.isInstance(paramFlux)) {
+            return paramFlux;
+        }
+        return ReactiveAdapter.findAdapter(paramType.getCanonicalName()).fromPublisher(paramFlux, paramType, new MutableContext());
+    }
 
     /**
      * invoke local service: nullable for void return
@@ -214,7 +399,13 @@ public abstract class RSocketResponderSupport extends AbstractRSocket {
     protected Object invokeLocalService(ReactiveMethodHandler methodHandler, MessageMimeTypeMetadata dataEncodingMetadata, Payload payload) throws Exception {
         Object result;
         if (methodHandler.getParameterCount() > 0) {
-            Object args = encodingFacade.decodeParams(dataEncodingMetadata.getRSocketMimeType(), payload.data(), methodHandler.getParameterTypes());
+            ByteBuf data = payload.data();
+            //compressed params
+            MessageCompressionMetadata compressionMetadata = payload.hasMetadata() ? MessageCompressionMetadata.find(payload.metadata()) : null;
+            if (compressionMetadata != null) {
+                data = encodingFacade.decompress(data, compressionMetadata.getUncompressedLength());
+            }
+            Object args = encodingFacade.decodeParams(dataEncodingMetadata.getRSocketMimeType(), data, methodHandler.getParameterTypes());
             if (args instanceof Object[]) {
                 result = methodHandler.invoke((Object[]) args);
             } else {
@@ -226,6 +417,180 @@ public abstract class RSocketResponderSupport extends AbstractRSocket {
         return result;
     }
 
+    /**
+     * invoke blocking local service on blocking method executor instead of the event loop
+     *
+     * @param methodHandler        method handler
+     * @param dataEncodingMetadata data encoding metadata
+     * @param payload              payload
+     * @return result, and retryable RejectedException if executor saturated. Payload is released if cancelled
+     */
+    protected Mono<Object> invokeBlockingLocalService(ReactiveMethodHandler methodHandler, MessageMimeTypeMetadata dataEncodingMetadata, Payload payload) {
+        return BlockingMethodExecutor.getInstance()
+                .submit(() -> invokeLocalService(methodHandler, dataEncodingMetadata, payload), () -> ReferenceCountUtil.safeRelease(payload))
+                .onErrorMap(RejectedExecutionException.class, e -> new RejectedException(RsocketErrorCode.message("RST-201503",
+                        methodHandler.getMethod().getDeclaringClass().getName(), methodHandler.getMethod().getName())));
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * stream batch: elements packed per frame until max elements, max bytes or max linger reached, 0 max elements to disable
+     *
+     * @param maxElements max elements in a batch
+     * @param maxBytes    max bytes of batch data
+     * @param maxLinger   max linger before a partial batch sent
+     */
+    public void setStreamBatch(int maxElements, int maxBytes, Duration maxLinger) {
+        this.streamBatchMaxElements = maxElements;
+        this.streamBatchMaxBytes = maxBytes;
+        this.streamBatchMaxLinger = maxLinger;
+    }
+
+    private boolean streamBatchAccepted(@Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata) {
+        return streamBatchMaxElements > 1 && messageAcceptMimeTypesMetadata != null
+                && messageAcceptMimeTypesMetadata.contains(RSocketMimeType.MessageBatch);
+    }
+
+    /**
+     * pack encoded elements into batches, and partial batch is flushed after max linger.
+     * The linger timer is armed by the first element of a batch only, so idle streams do not wake up.
+     *
+     * @param elements encoded elements
+     * @return batches
+     */
+    private Flux<List<ByteBuf>> batchElements(Flux<ByteBuf> elements) {
+        return Flux.defer(() -> {
+            //elements and bytes of current batch
+            int[] batchSize = new int[2];
+            //generation of current batch, and flush signal from timer of a closed batch is stale
+            long[] generation = new long[1];
+            Disposable[] lingerTimer = new Disposable[1];
+            UnicastProcessor<Object> flushes = UnicastProcessor.create();
+            FluxSink<Object> flushSink = flushes.sink();
+            return Flux.merge(elements.cast(Object.class).concatWith(Mono.just(BATCH_END)), flushes)
+                    .takeUntil(signal -> signal == BATCH_END)
+                    .bufferUntil(signal -> {
+                        if (signal instanceof ByteBuf) {
+                            batchSize[0]++;
+                            batchSize[1] += ((ByteBuf) signal).readableBytes();
+                            if (batchSize[0] < streamBatchMaxElements && batchSize[1] < streamBatchMaxBytes) {
+                                if (batchSize[0] == 1) {
+                                    Long flushSignal = generation[0];
+                                    lingerTimer[0] = Schedulers.parallel().schedule(() -> flushSink.next(flushSignal),
+                                            streamBatchMaxLinger.toNanos(), TimeUnit.NANOSECONDS);
+                                }
+                                return false;
+                            }
+                        } else if (signal instanceof Long && (Long) signal != generation[0]) {
+                            return false;
+                        }
+                        batchSize[0] = 0;
+                        batchSize[1] = 0;
+                        generation[0]++;
+                        if (lingerTimer[0] != null) {
+                            lingerTimer[0].dispose();
+                            lingerTimer[0] = null;
+                        }
+                        return true;
+                    })
+                    .map(signals -> {
+                        List<ByteBuf> batch = new ArrayList<>(signals.size());
+                        for (Object signal : signals) {
+                            if (signal instanceof ByteBuf) {
+                                batch.add((ByteBuf) signal);
+                            }
+                        }
+                        return batch;
+                    })
+                    .filter(batch -> !batch.isEmpty())
+                    .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease)
+                    .doFinally(signalType -> {
+                        if (lingerTimer[0] != null) {
+                            lingerTimer[0].dispose();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * batch payload with length(4) prefixed elements and message batch metadata, and single element sent as normal payload
+     *
+     * @param methodHandler       method handler
+     * @param batch               encoded elements
+     * @param resultEncodingType  result encoding type
+     * @param compressionAccepted compression accepted by requester
+     * @return payload
+     */
+    private Payload batchPayload(ReactiveMethodHandler methodHandler, List<ByteBuf> batch, RSocketMimeType resultEncodingType, boolean compressionAccepted) {
+        if (batch.size() == 1) {
+            return resultPayload(methodHandler, batch.get(0), resultMetadata(resultEncodingType, null), compressionAccepted);
+        }
+        int length = 0;
+        for (ByteBuf element : batch) {
+            length += 4 + element.readableBytes();
+        }
+        ByteBuf data = PooledByteBufAllocator.DEFAULT.buffer(length, length);
+        for (ByteBuf element : batch) {
+            data.writeInt(element.readableBytes());
+            data.writeBytes(element);
+            ReferenceCountUtil.safeRelease(element);
+        }
+        CompositeByteBuf compositeMetadata = new CompositeByteBuf(PooledByteBufAllocator.DEFAULT, true, 2, resultMetadata(resultEncodingType, null),
+                MessageBatchMetadata.encodeEntry(PooledByteBufAllocator.DEFAULT, batch.size()));
+        return resultPayload(methodHandler, data, compositeMetadata, compressionAccepted);
+    }
+
+    private boolean compressionAccepted(@Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata) {
+        return compressionThreshold > 0 && messageAcceptMimeTypesMetadata != null
+                && messageAcceptMimeTypesMetadata.contains(RSocketMimeType.MessageCompression);
+    }
+
+    /**
+     * result composite metadata: retained slice of pre-encoded template, and built dynamically only with message tags
+     *
+     * @param resultEncodingType result encoding type
+     * @param tags               message tags
+     * @return composite metadata
+     */
+    private static ByteBuf resultMetadata(RSocketMimeType resultEncodingType, @Nullable Map<String, String> tags) {
+        if (tags != null) {
+            return RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(resultEncodingType), new MessageTagsMetadata(tags)).getContent();
+        }
+        return RESULT_METADATA_TEMPLATES.get(resultEncodingType).retainedSlice();
+    }
+
+    /**
+     * result payload, and data is compressed if compression accepted and data larger than threshold
+     *
+     * @param methodHandler            method handler
+     * @param data                     encoded result
+     * @param compositeMetadataContent result composite metadata
+     * @param compressionAccepted      compression accepted by requester
+     * @return payload
+     */
+    private Payload resultPayload(ReactiveMethodHandler methodHandler, ByteBuf data, ByteBuf compositeMetadataContent, boolean compressionAccepted) {
+        int uncompressedLength = data.readableBytes();
+        if (!compressionAccepted || uncompressedLength < compressionThreshold) {
+            return ByteBufPayload.create(data, compositeMetadataContent);
+        }
+        long start = System.nanoTime();
+        ByteBuf compressed;
+        try {
+            compressed = encodingFacade.compress(data);
+        } finally {
+            ReferenceCountUtil.safeRelease(data);
+        }
+        Tags tags = Tags.of("method", methodHandler.getMethod().getName());
+        Metrics.timer(methodHandler.getServiceName() + ".compression", tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Metrics.summary(methodHandler.getServiceName() + ".compression.ratio", tags).record((double) uncompressedLength / Math.max(compressed.readableBytes(), 1));
+        CompositeByteBuf compositeMetadata = new CompositeByteBuf(PooledByteBufAllocator.DEFAULT, true, 2, compositeMetadataContent,
+                MessageCompressionMetadata.encodeEntry(PooledByteBufAllocator.DEFAULT, MessageCompressionMetadata.DEFLATE, uncompressedLength));
+        return ByteBufPayload.create(compressed, compositeMetadata);
+    }
+
     private RSocketMimeType resultEncodingType(@Nullable MessageAcceptMimeTypesMetadata messageAcceptMimeTypesMetadata, RSocketMimeType defaultEncodingType) {
         RSocketMimeType encodingType = defaultEncodingType;
         if (messageAcceptMimeTypesMetadata != null) {
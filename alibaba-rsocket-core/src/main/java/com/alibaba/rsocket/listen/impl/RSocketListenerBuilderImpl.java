@@ -74,6 +74,12 @@ public class RSocketListenerBuilderImpl implements RSocketListener.Builder {
         return this;
     }
 
+    @Override
+    public RSocketListener.Builder fragment(int mtu) {
+        rSocketListener.setFragmentMtu(mtu);
+        return this;
+    }
+
     @Override
     public RSocketListener build() {
         return rSocketListener;
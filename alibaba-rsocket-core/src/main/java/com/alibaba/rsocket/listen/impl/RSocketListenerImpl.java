@@ -42,6 +42,10 @@ public class RSocketListenerImpl implements RSocketListener {
     private Certificate certificate;
     private PrivateKey privateKey;
     private PayloadDecoder payloadDecoder;
+    /**
+     * fragmentation mtu, 0 if disabled
+     */
+    private int fragmentMtu = 0;
     private SocketAcceptor acceptor;
     private List<RSocketInterceptor> responderInterceptors = new ArrayList<>();
     private List<SocketAcceptorInterceptor> acceptorInterceptors = new ArrayList<>();
@@ -73,6 +77,10 @@ public class RSocketListenerImpl implements RSocketListener {
         this.payloadDecoder = payloadDecoder;
     }
 
+    public void setFragmentMtu(int fragmentMtu) {
+        this.fragmentMtu = fragmentMtu;
+    }
+
     public void setAcceptor(SocketAcceptor acceptor) {
         this.acceptor = acceptor;
     }
@@ -140,6 +148,10 @@ public class RSocketListenerImpl implements RSocketListener {
                 } else {
                     serverRSocketFactory = serverRSocketFactory.frameDecoder(PayloadDecoder.ZERO_COPY);
                 }
+                //fragmentation for large payload
+                if (fragmentMtu > 0) {
+                    serverRSocketFactory = serverRSocketFactory.fragment(fragmentMtu);
+                }
                 //acceptor interceptor
                 for (SocketAcceptorInterceptor acceptorInterceptor : acceptorInterceptors) {
                     serverRSocketFactory = serverRSocketFactory.addSocketAcceptorPlugin(acceptorInterceptor);
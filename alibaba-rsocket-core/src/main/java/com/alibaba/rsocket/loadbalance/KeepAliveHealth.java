@@ -0,0 +1,184 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.rsocket.DuplexConnection;
+import io.rsocket.frame.FrameHeaderFlyweight;
+import io.rsocket.frame.FrameType;
+import io.rsocket.frame.KeepAliveFrameFlyweight;
+import io.rsocket.plugins.DuplexConnectionInterceptor;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * keepalive health of a connection: KEEPALIVE frame with respond flag and send time as data is probed, and the peer echoes the data back,
+ * so round trip time is measured without any RPC or metadata encoding. Probe interval is shorter when degraded,
+ * and the connection is degraded if RTT or missed probes cross the threshold.
+ *
+ * @author leijuan
+ */
+public class KeepAliveHealth implements DuplexConnectionInterceptor {
+    /**
+     * length of probe data: send time in nanos
+     */
+    private static final int PROBE_DATA_LENGTH = 8;
+    private static final double RTT_DECAY = 0.5;
+    private long healthyIntervalNanos = TimeUnit.SECONDS.toNanos(15);
+    private long degradedIntervalNanos = TimeUnit.SECONDS.toNanos(3);
+    private long rttThresholdNanos = TimeUnit.MILLISECONDS.toNanos(500);
+    private int missedThreshold = 2;
+    @Nullable
+    private volatile DuplexConnection connection;
+    /**
+     * probes without ack, and reset when ack received
+     */
+    private final AtomicInteger missed = new AtomicInteger();
+    private volatile double rttNanos = 0;
+    private volatile long lastProbeAt = System.nanoTime();
+    private volatile long lastAckAt = 0;
+
+    @Override
+    public DuplexConnection apply(Type type, DuplexConnection duplexConnection) {
+        if (type == Type.SOURCE) {
+            KeepAliveConnection keepAliveConnection = new KeepAliveConnection(duplexConnection);
+            this.connection = keepAliveConnection;
+            return keepAliveConnection;
+        }
+        return duplexConnection;
+    }
+
+    /**
+     * probe if interval elapsed since last probe: 15 seconds if healthy, 3 seconds if degraded
+     *
+     * @return probe sent
+     */
+    public boolean probeIfDue() {
+        long interval = isDegraded() ? degradedIntervalNanos : healthyIntervalNanos;
+        if (System.nanoTime() - lastProbeAt >= interval) {
+            probe();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * send KEEPALIVE frame with respond flag, and missed probes are counted until ack received
+     */
+    public void probe() {
+        DuplexConnection current = this.connection;
+        if (current == null || current.isDisposed()) {
+            return;
+        }
+        long now = System.nanoTime();
+        this.lastProbeAt = now;
+        missed.incrementAndGet();
+        ByteBuf data = ByteBufAllocator.DEFAULT.buffer(PROBE_DATA_LENGTH).writeLong(now);
+        ByteBuf frame = KeepAliveFrameFlyweight.encode(ByteBufAllocator.DEFAULT, true, 0, data);
+        current.sendOne(frame).subscribe(null, error -> {
+        });
+    }
+
+    /**
+     * keepalive ack from peer with probe data
+     *
+     * @param frame frame
+     */
+    void onFrame(ByteBuf frame) {
+        if (FrameHeaderFlyweight.frameType(frame) == FrameType.KEEPALIVE && !KeepAliveFrameFlyweight.respondFlag(frame)) {
+            ByteBuf data = KeepAliveFrameFlyweight.data(frame);
+            if (data.readableBytes() == PROBE_DATA_LENGTH) {
+                long now = System.nanoTime();
+                observe(now - data.getLong(data.readerIndex()));
+                this.lastAckAt = now;
+                missed.set(0);
+            }
+        }
+    }
+
+    synchronized void observe(long rtt) {
+        this.rttNanos = rttNanos == 0 ? rtt : rttNanos * RTT_DECAY + rtt * (1 - RTT_DECAY);
+    }
+
+    public boolean isDegraded() {
+        return missed.get() > missedThreshold || rttNanos > rttThresholdNanos;
+    }
+
+    public boolean isDisposed() {
+        DuplexConnection current = this.connection;
+        return current != null && current.isDisposed();
+    }
+
+    public double getRttMillis() {
+        return rttNanos / 1_000_000;
+    }
+
+    public int getMissed() {
+        return missed.get();
+    }
+
+    public long getLastAckAt() {
+        return lastAckAt;
+    }
+
+    public void setInterval(Duration healthyInterval, Duration degradedInterval) {
+        this.healthyIntervalNanos = healthyInterval.toNanos();
+        this.degradedIntervalNanos = degradedInterval.toNanos();
+    }
+
+    public void setRttThreshold(Duration rttThreshold) {
+        this.rttThresholdNanos = rttThreshold.toNanos();
+    }
+
+    public void setMissedThreshold(int missedThreshold) {
+        this.missedThreshold = missedThreshold;
+    }
+
+    private class KeepAliveConnection implements DuplexConnection {
+        private final DuplexConnection source;
+
+        KeepAliveConnection(DuplexConnection source) {
+            this.source = source;
+        }
+
+        @Override
+        public Mono<Void> send(Publisher<ByteBuf> frames) {
+            return source.send(frames);
+        }
+
+        @Override
+        public Mono<Void> sendOne(ByteBuf frame) {
+            return source.sendOne(frame);
+        }
+
+        @Override
+        public Flux<ByteBuf> receive() {
+            return source.receive().doOnNext(KeepAliveHealth.this::onFrame);
+        }
+
+        @Override
+        public double availability() {
+            return source.availability();
+        }
+
+        @Override
+        public Mono<Void> onClose() {
+            return source.onClose();
+        }
+
+        @Override
+        public void dispose() {
+            source.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return source.isDisposed();
+        }
+    }
+}
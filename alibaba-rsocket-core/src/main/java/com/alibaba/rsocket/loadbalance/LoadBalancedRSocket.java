@@ -4,6 +4,7 @@ import com.alibaba.rsocket.RSocketRequesterSupport;
 import com.alibaba.rsocket.cloudevents.CloudEventRSocket;
 import com.alibaba.rsocket.events.ServicesExposedEvent;
 import com.alibaba.rsocket.health.RSocketServiceHealth;
+import com.alibaba.rsocket.metadata.AppMetadata;
 import com.alibaba.rsocket.metadata.GSVRoutingMetadata;
 import com.alibaba.rsocket.metadata.MessageMimeTypeMetadata;
 import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
@@ -17,11 +18,14 @@ import io.rsocket.AbstractRSocket;
 import io.rsocket.Payload;
 import io.rsocket.RSocket;
 import io.rsocket.RSocketFactory;
+import io.rsocket.exceptions.ApplicationErrorException;
 import io.rsocket.exceptions.ConnectionErrorException;
 import io.rsocket.frame.decoder.PayloadDecoder;
 import io.rsocket.plugins.RSocketInterceptor;
 import io.rsocket.uri.UriTransportRegistry;
 import io.rsocket.util.ByteBufPayload;
+import io.rsocket.util.DefaultPayload;
+import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,33 +38,75 @@ import reactor.util.function.Tuples;
 import java.nio.channels.ClosedChannelException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
- * Load balanced RSocket:  how to remove failure nodes?
+ * Load balanced RSocket: power of two choices over in-flight requests and latency EWMA, with slow start for new connections.
+ * Multiple connections per uri are pooled as one upstream, so health check, outlier ejection and events stay per uri.
  *
  * @author leijuan
  */
 public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRSocket {
-    private RandomSelector<RSocket> randomSelector;
+    /**
+     * slow start duration for new connected rsocket
+     */
+    private static final Duration SLOW_START = Duration.ofSeconds(30);
+    /**
+     * outlier detection interval
+     */
+    private static final Duration OUTLIER_DETECTION_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+    private final OutlierDetector outlierDetector = new OutlierDetector();
+    /**
+     * ejected outliers: connection kept and excluded from selection until probe succeeds
+     */
+    private final Map<String, WeightedRSocket> ejectedSockets = new ConcurrentHashMap<>();
+    /**
+     * membership snapshot: replaced atomically on every change, and requests select from one snapshot
+     */
+    private final AtomicReference<UpstreamMembership> membership;
     private Logger log = LoggerFactory.getLogger(LoadBalancedRSocket.class);
     private String serviceId;
     private Flux<Collection<String>> urisFactory;
-    private Map<String, RSocket> activeSockets;
     /**
      * unhealthy uris
      */
-    private Set<String> unHealthUriSet = new HashSet<>();
+    private final Set<String> unHealthUriSet = ConcurrentHashMap.newKeySet();
     private long lastHealthCheckTimeStamp = System.currentTimeMillis();
     private long lastRefreshTimeStamp = System.currentTimeMillis();
     /**
-     * health check interval seconds
+     * health check tick, and keepalive probe interval is decided by health of every connection
+     */
+    private static final Duration HEALTH_CHECK_TICK = Duration.ofSeconds(1);
+    /**
+     * uris degraded by keepalive RTT or missed keepalive acks
+     */
+    private final Set<String> degradedUris = ConcurrentHashMap.newKeySet();
+    /**
+     * reconnect backoff: full jitter from 1 second, and at most 60 seconds between attempts
+     */
+    private final ReconnectBackoff reconnectBackoff = new ReconnectBackoff(Duration.ofSeconds(1), Duration.ofSeconds(60));
+    /**
+     * uris in reconnecting, and one reconnect loop for one uri
+     */
+    private final Set<String> reconnectingUris = ConcurrentHashMap.newKeySet();
+    /**
+     * uris from last topology refresh, and reconnect stops when uri removed from topology
+     */
+    private volatile Set<String> topologyUris = Collections.emptySet();
+    /**
+     * warmup probes before reconnected rsocket joins load balance
      */
-    private static int HEALTH_CHECK_INTERVAL_SECONDS = 15;
+    private static final int WARMUP_PROBES = 3;
     /**
-     * retry count because of connection error and interval is 5 seconds
+     * max retries on another rsocket because of connection error for a request
      */
-    private int retryCount = 12;
+    private static final int MAX_CONNECTION_ERROR_RETRIES = 2;
     private RSocketRequesterSupport requesterSupport;
     private ByteBuf healthCheckCompositeByteBuf;
 
@@ -84,12 +130,11 @@ public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRS
     public LoadBalancedRSocket(String serviceId, Flux<Collection<String>> urisFactory,
                                RSocketRequesterSupport requesterSupport) {
         this.serviceId = serviceId;
-        this.randomSelector = new RandomSelector<>(this.serviceId, new ArrayList<>());
+        this.membership = new AtomicReference<>(UpstreamMembership.empty(serviceId));
         this.urisFactory = urisFactory;
         this.requesterSupport = requesterSupport;
-        this.activeSockets = new HashMap<>();
         this.urisFactory.subscribe(this::refreshRsockets);
-        //composite metadata for health check
+        //composite metadata for warmup and probe of ejected outliers
         RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(
                 new GSVRoutingMetadata(null, RSocketServiceHealth.class.getCanonicalName(), "check", null),
                 new MessageMimeTypeMetadata(RSocketMimeType.Hessian));
@@ -98,89 +143,172 @@ public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRS
         ReferenceCountUtil.release(compositeMetadata);
         //start health check timer
         startHealthCheckTimer();
+        //start outlier detection timer
+        Flux.interval(OUTLIER_DETECTION_INTERVAL)
+                .takeUntilOther(onClose())
+                .subscribe(tick -> detectOutliers());
     }
 
+    /**
+     * refresh rsockets with incremental diff: new uris connected, stale uris removed and closed after drain, others untouched
+     *
+     * @param rsocketUris uris
+     */
     private void refreshRsockets(Collection<String> rsocketUris) {
         this.lastRefreshTimeStamp = System.currentTimeMillis();
         this.unHealthUriSet.clear();
-        Flux.fromIterable(rsocketUris)
-                .flatMap(rsocketUri -> {
-                    if (activeSockets.containsKey(rsocketUri)) {
-                        return Mono.just(Tuples.of(rsocketUri, activeSockets.get(rsocketUri)));
-                    } else {
-                        return connect(rsocketUri)
-                                .doOnError(e -> {
-                                    log.error(RsocketErrorCode.message("RST-400500", rsocketUri), e);
-                                    tryToReconnect(rsocketUri);
-                                }).map(rSocket -> Tuples.of(rsocketUri, rSocket));
-                    }
-                })
-                .collectList()
-                .subscribe(tupleRsockets -> {
-                    if (tupleRsockets.isEmpty()) return;
-                    Map<String, RSocket> newActiveRSockets = new HashMap<>();
-                    for (Tuple2<String, RSocket> tuple : tupleRsockets) {
-                        newActiveRSockets.put(tuple.getT1(), tuple.getT2());
-                    }
-                    @SuppressWarnings("DuplicatedCode")
-                    Map<String, RSocket> staleRSockets = new HashMap<>();
-                    //get all stale rsockets
-                    for (Map.Entry<String, RSocket> entry : activeSockets.entrySet()) {
-                        if (!newActiveRSockets.containsKey(entry.getKey())) {
-                            staleRSockets.put(entry.getKey(), entry.getValue());
-                        }
-                    }
-                    Map<String, RSocket> newAddedRSockets = new HashMap<>();
-                    //get all new added rsockets
-                    for (Map.Entry<String, RSocket> entry : newActiveRSockets.entrySet()) {
-                        if (!activeSockets.containsKey(entry.getKey())) {
-                            newAddedRSockets.put(entry.getKey(), entry.getValue());
+        Set<String> uris = new HashSet<>(rsocketUris);
+        this.topologyUris = Collections.unmodifiableSet(uris);
+        Flux.fromIterable(uris)
+                .filter(rsocketUri -> !membership.get().contains(rsocketUri))
+                .flatMap(rsocketUri -> connect(rsocketUri)
+                        .doOnError(e -> {
+                            log.error(RsocketErrorCode.message("RST-400500", rsocketUri), e);
+                            tryToReconnect(rsocketUri);
+                        })
+                        .onErrorResume(e -> Mono.empty())
+                        .map(rsocket -> Tuples.of(rsocketUri, (WeightedRSocket) rsocket)))
+                .collectMap(Tuple2::getT1, Tuple2::getT2)
+                .subscribe(connectedRSockets -> {
+                    UpstreamMembership previous = updateMembership(current -> {
+                        Map<String, WeightedRSocket> added = new HashMap<>(connectedRSockets);
+                        //uri reconnected during refresh
+                        added.keySet().removeIf(current::contains);
+                        UpstreamMembership next = current.retain(uris).withAll(added);
+                        return next.isEmpty() ? current : next;
+                    });
+                    UpstreamMembership current = membership.get();
+                    for (Map.Entry<String, WeightedRSocket> entry : connectedRSockets.entrySet()) {
+                        if (current.get(entry.getKey()) == entry.getValue()) {
+                            //subscribe rsocket close event
+                            entry.getValue().onClose().doFinally(signalType -> onRSocketClosed(entry.getKey(), entry.getValue())).subscribe();
+                        } else {
+                            entry.getValue().dispose();
                         }
                     }
-                    this.activeSockets = newActiveRSockets;
-                    this.randomSelector = new RandomSelector<>(this.serviceId, new ArrayList<>(activeSockets.values()));
                     //close all stale rsocket after 15 for drain mode
-                    if (!staleRSockets.isEmpty()) {
-                        Flux.fromIterable(staleRSockets.entrySet())
-                                .delaySubscription(Duration.ofSeconds(15))
-                                .subscribe(entry -> {
-                                    log.info(RsocketErrorCode.message("RST-200011", entry.getKey()));
-                                    entry.getValue().dispose();
-                                });
-                    }
-                    //subscribe rsocket close event
-                    for (Map.Entry<String, RSocket> entry : newAddedRSockets.entrySet()) {
-                        entry.getValue().onClose().subscribe(aVoid -> {
-                            onRSocketClosed(entry.getKey(), entry.getValue());
-                        });
+                    for (Map.Entry<String, WeightedRSocket> entry : previous.getSockets().entrySet()) {
+                        if (!current.contains(entry.getKey())) {
+                            //stale uri is not ejected or degraded any more
+                            ejectedSockets.remove(entry.getKey(), entry.getValue());
+                            degradedUris.remove(entry.getKey());
+                            Mono.delay(Duration.ofSeconds(15)).subscribe(tick -> {
+                                log.info(RsocketErrorCode.message("RST-200011", entry.getKey()));
+                                entry.getValue().dispose();
+                            });
+                        }
                     }
                 });
     }
 
+    /**
+     * update membership atomically, and the function may be called again on contention
+     *
+     * @param function update function without side effect
+     * @return previous membership
+     */
+    private UpstreamMembership updateMembership(UnaryOperator<UpstreamMembership> function) {
+        return membership.getAndUpdate(function);
+    }
+
     @Override
     public Mono<Payload> requestResponse(Payload payload) {
-        RSocket next = randomSelector.next();
+        return requestResponse(payload, MAX_CONNECTION_ERROR_RETRIES);
+    }
+
+    private Mono<Payload> requestResponse(Payload payload, int retries) {
+        RSocket next = membership.get().getSelector().next();
         if (next == null) {
+            ReferenceCountUtil.safeRelease(payload);
             return Mono.error(new NoAvailableConnectionException(RsocketErrorCode.message("RST-200404", serviceId)));
         }
+        if (retries <= 0) {
+            return next.requestResponse(payload);
+        }
+        //one more reference for retry on another rsocket
+        payload.retain();
+        AtomicBoolean retried = new AtomicBoolean(false);
         return next.requestResponse(payload)
                 .onErrorResume(CONNECTION_ERROR_PREDICATE, error -> {
                     onRSocketClosed(next);
-                    return requestResponse(payload);
+                    retried.set(true);
+                    return requestResponse(payload, retries - 1);
+                })
+                .doFinally(signalType -> {
+                    if (!retried.get()) {
+                        ReferenceCountUtil.safeRelease(payload);
+                    }
                 });
     }
 
 
+    /**
+     * hedged request/response: duplicated request is sent to another rsocket if no response after hedge delay,
+     * and the first response wins and the other is cancelled. No hedge if only one rsocket available
+     *
+     * @param payload     payload
+     * @param hedgeDelay  hedge delay
+     * @param hedgePermit permit for hedge, such as hedge budget
+     * @return response payload
+     */
+    public Mono<Payload> requestResponse(Payload payload, Duration hedgeDelay, BooleanSupplier hedgePermit) {
+        P2cSelector selector = membership.get().getSelector();
+        WeightedRSocket primary = selector.next();
+        if (primary == null) {
+            ReferenceCountUtil.safeRelease(payload);
+            return Mono.error(new NoAvailableConnectionException(RsocketErrorCode.message("RST-200404", serviceId)));
+        }
+        //no other rsocket for hedged request, and duplicated request to the same upstream only adds load
+        if (selector.size() < 2) {
+            return primary.requestResponse(payload);
+        }
+        //one more reference for hedged request
+        payload.retain();
+        AtomicBoolean hedgeDecided = new AtomicBoolean(false);
+        Mono<Payload> hedged = Mono.delay(hedgeDelay).flatMap(tick -> {
+            if (hedgeDecided.compareAndSet(false, true)) {
+                if (hedgePermit.getAsBoolean()) {
+                    RSocket secondary = selector.nextExcluding(primary);
+                    return secondary.requestResponse(payload);
+                }
+                ReferenceCountUtil.safeRelease(payload);
+            }
+            return Mono.never();
+        });
+        return Mono.first(Mono.defer(() -> primary.requestResponse(payload)), hedged)
+                .doFinally(signalType -> {
+                    if (hedgeDecided.compareAndSet(false, true)) {
+                        ReferenceCountUtil.safeRelease(payload);
+                    }
+                });
+    }
+
     @Override
     public Mono<Void> fireAndForget(Payload payload) {
-        RSocket next = randomSelector.next();
+        return fireAndForget(payload, MAX_CONNECTION_ERROR_RETRIES);
+    }
+
+    private Mono<Void> fireAndForget(Payload payload, int retries) {
+        RSocket next = membership.get().getSelector().next();
         if (next == null) {
+            ReferenceCountUtil.safeRelease(payload);
             return Mono.error(new NoAvailableConnectionException(RsocketErrorCode.message("RST-200404", serviceId)));
         }
+        if (retries <= 0) {
+            return next.fireAndForget(payload);
+        }
+        payload.retain();
+        AtomicBoolean retried = new AtomicBoolean(false);
         return next.fireAndForget(payload)
                 .onErrorResume(CONNECTION_ERROR_PREDICATE, error -> {
                     onRSocketClosed(next);
-                    return fireAndForget(payload);
+                    retried.set(true);
+                    return fireAndForget(payload, retries - 1);
+                })
+                .doFinally(signalType -> {
+                    if (!retried.get()) {
+                        ReferenceCountUtil.safeRelease(payload);
+                    }
                 });
     }
 
@@ -214,51 +342,78 @@ public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRS
 
     @Override
     public Flux<Payload> requestStream(Payload payload) {
-        RSocket next = randomSelector.next();
+        return requestStream(payload, MAX_CONNECTION_ERROR_RETRIES);
+    }
+
+    private Flux<Payload> requestStream(Payload payload, int retries) {
+        RSocket next = membership.get().getSelector().next();
         if (next == null) {
+            ReferenceCountUtil.safeRelease(payload);
             return Flux.error(new NoAvailableConnectionException(RsocketErrorCode.message("RST-200404", serviceId)));
         }
+        if (retries <= 0) {
+            return next.requestStream(payload);
+        }
+        payload.retain();
+        AtomicBoolean retried = new AtomicBoolean(false);
         return next.requestStream(payload)
                 .onErrorResume(CONNECTION_ERROR_PREDICATE, error -> {
                     onRSocketClosed(next);
-                    return requestStream(payload);
+                    retried.set(true);
+                    return requestStream(payload, retries - 1);
+                })
+                .doFinally(signalType -> {
+                    if (!retried.get()) {
+                        ReferenceCountUtil.safeRelease(payload);
+                    }
                 });
     }
 
     @Override
     public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
-        RSocket next = randomSelector.next();
+        return requestChannel(payloads, MAX_CONNECTION_ERROR_RETRIES);
+    }
+
+    private Flux<Payload> requestChannel(Publisher<Payload> payloads, int retries) {
+        RSocket next = membership.get().getSelector().next();
         if (next == null) {
             return Flux.error(new NoAvailableConnectionException(RsocketErrorCode.message("RST-200404", serviceId)));
         }
+        if (retries <= 0) {
+            return next.requestChannel(payloads);
+        }
         return next.requestChannel(payloads)
                 .onErrorResume(CONNECTION_ERROR_PREDICATE, error -> {
                     onRSocketClosed(next);
-                    return requestChannel(payloads);
+                    return requestChannel(payloads, retries - 1);
                 });
     }
 
     @Override
     public Mono<Void> metadataPush(final Payload payload) {
-        return Flux.fromIterable(activeSockets.values()).flatMap(rSocket -> rSocket.metadataPush(payload)).then();
+        return Flux.fromIterable(membership.get().getSockets().values()).flatMap(rSocket -> rSocket.metadataPush(payload)).then();
     }
 
     public void dispose() {
         synchronized (this) {
             super.dispose();
-            Flux.fromIterable(activeSockets.values())
-                    .doOnTerminate(() -> activeSockets.clear())
+            UpstreamMembership last = membership.getAndSet(UpstreamMembership.empty(serviceId));
+            Flux.fromIterable(last.getSockets().values())
                     .subscribe(Disposable::dispose);
         }
     }
 
     public Map<String, RSocket> getActiveSockets() {
-        return activeSockets;
+        return Collections.unmodifiableMap(membership.get().getSockets());
+    }
+
+    public UpstreamMembership getMembership() {
+        return membership.get();
     }
 
 
     public void onRSocketClosed(RSocket rsocket) {
-        for (Map.Entry<String, RSocket> entry : activeSockets.entrySet()) {
+        for (Map.Entry<String, WeightedRSocket> entry : membership.get().getSockets().entrySet()) {
             if (entry.getValue() == rsocket) {
                 onRSocketClosed(entry.getKey(), entry.getValue());
             }
@@ -273,10 +428,12 @@ public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRS
     }
 
     public void onRSocketClosed(String rsocketUri, RSocket rsocket) {
-        this.unHealthUriSet.add(rsocketUri);
-        if (activeSockets.containsKey(rsocketUri)) {
-            activeSockets.remove(rsocketUri);
-            this.randomSelector = new RandomSelector<>(this.serviceId, new ArrayList<>(activeSockets.values()));
+        UpstreamMembership previous = updateMembership(current -> current.without(rsocketUri, rsocket));
+        //closed rsocket is still the member, not a stale or replaced one
+        if (previous.get(rsocketUri) == rsocket) {
+            this.unHealthUriSet.add(rsocketUri);
+            this.ejectedSockets.remove(rsocketUri, rsocket);
+            this.degradedUris.remove(rsocketUri);
             log.error(RsocketErrorCode.message("RST-500407", rsocketUri));
             tryToReconnect(rsocketUri);
         }
@@ -290,43 +447,180 @@ public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRS
     }
 
     public void onRSocketReconnected(String rsocketUri, RSocket rsocket) {
-        this.activeSockets.put(rsocketUri, rsocket);
+        WeightedRSocket weightedRSocket = rsocket instanceof WeightedRSocket ? (WeightedRSocket) rsocket : new WeightedRSocket(rsocket, SLOW_START);
+        UpstreamMembership previous = updateMembership(current -> current.with(rsocketUri, weightedRSocket));
+        WeightedRSocket replaced = previous.get(rsocketUri);
+        if (replaced != null && replaced != weightedRSocket) {
+            replaced.dispose();
+        }
         this.unHealthUriSet.remove(rsocketUri);
-        this.randomSelector = new RandomSelector<>(this.serviceId, new ArrayList<>(activeSockets.values()));
-        rsocket.onClose().subscribe(aVoid -> {
-            onRSocketClosed(rsocketUri, rsocket);
-        });
+        weightedRSocket.onClose().doFinally(signalType -> onRSocketClosed(rsocketUri, weightedRSocket)).subscribe();
         CloudEventImpl<ServicesExposedEvent> cloudEvent = requesterSupport.servicesExposedEvent().get();
         if (cloudEvent != null) {
             try {
                 Payload payload = cloudEventToMetadataPushPayload(cloudEvent);
-                rsocket.metadataPush(payload).subscribe();
+                weightedRSocket.metadataPush(payload).subscribe();
             } catch (Exception ignore) {
 
             }
         }
     }
 
-    public void tryToReconnect(String rsocketUri) {
-        //try to reconnect every 5 seconds in 1 minute
-        Flux.range(1, retryCount)
-                .delayElements(Duration.ofSeconds(5))
-                .subscribe(number -> {
-                    if (!activeSockets.containsKey(rsocketUri)) {
-                        connect(rsocketUri)
-                                .doOnError(e -> {
-                                    this.getUnHealthUriSet().add(rsocketUri);
-                                    log.error(RsocketErrorCode.message("RST-500408", number, rsocketUri), e);
-                                })
-                                .subscribe(rsocket -> {
-                                    onRSocketReconnected(rsocketUri, rsocket);
-                                    log.info(RsocketErrorCode.message("RST-500203", rsocketUri));
-                                });
+    /**
+     * refresh selector after ejection state changed
+     */
+    private void refreshSelector() {
+        updateMembership(UpstreamMembership::reselect);
+    }
+
+    /**
+     * detect outliers: ejected rsockets are probed after ejection time, and outliers in selection are ejected
+     */
+    void detectOutliers() {
+        for (Map.Entry<String, WeightedRSocket> entry : ejectedSockets.entrySet()) {
+            if (entry.getValue().startProbe()) {
+                probe(entry.getKey(), entry.getValue());
+            }
+        }
+        UpstreamMembership current = membership.get();
+        double medianLatencyMillis = OutlierDetector.medianLatencyMillis(current.getSelector().getElements());
+        int maxEjected = outlierDetector.maxEjected(current.size());
+        boolean ejected = false;
+        for (Map.Entry<String, WeightedRSocket> entry : current.getSockets().entrySet()) {
+            WeightedRSocket rsocket = entry.getValue();
+            if (rsocket.isEjected()) {
+                continue;
+            }
+            String reason = outlierDetector.detect(rsocket, medianLatencyMillis);
+            rsocket.resetIntervalStats();
+            if (reason != null && ejectedSockets.size() < maxEjected) {
+                eject(entry.getKey(), rsocket, reason);
+                ejected = true;
+            }
+        }
+        if (ejected) {
+            refreshSelector();
+        }
+    }
+
+    private void eject(String rsocketUri, WeightedRSocket rsocket, String reason) {
+        Duration ejection = rsocket.eject(outlierDetector.getBaseEjection(), outlierDetector.getMaxEjection(), reason);
+        ejectedSockets.put(rsocketUri, rsocket);
+        log.warn(RsocketErrorCode.message("RST-400502", rsocketUri, ejection.getSeconds(), reason));
+    }
+
+    /**
+     * probe ejected rsocket with health check, and reinstated if succeeded, otherwise ejected again with longer time
+     *
+     * @param rsocketUri rsocket uri
+     * @param rsocket    ejected rsocket
+     */
+    private void probe(String rsocketUri, WeightedRSocket rsocket) {
+        rsocket.requestResponse(ByteBufPayload.create(Unpooled.EMPTY_BUFFER, this.healthCheckCompositeByteBuf.retainedDuplicate()))
+                .timeout(PROBE_TIMEOUT)
+                .subscribe(payload -> {
+                    ReferenceCountUtil.safeRelease(payload);
+                    if (ejectedSockets.remove(rsocketUri, rsocket)) {
+                        rsocket.reinstate();
+                        refreshSelector();
+                        log.info(RsocketErrorCode.message("RST-400203", rsocketUri));
+                    }
+                }, error -> {
+                    if (ejectedSockets.get(rsocketUri) == rsocket) {
+                        eject(rsocketUri, rsocket, "probe failed: " + error.getMessage());
                     }
                 });
     }
 
+    public Map<String, WeightedRSocket> getEjectedSockets() {
+        return ejectedSockets;
+    }
+
+    public OutlierDetector getOutlierDetector() {
+        return outlierDetector;
+    }
+
+    /**
+     * reconnect with exponential backoff and full jitter until connected, or the uri removed from topology,
+     * and the reconnected rsocket is warmed up before it joins load balance with slow start
+     *
+     * @param rsocketUri rsocket uri
+     */
+    public void tryToReconnect(String rsocketUri) {
+        if (reconnectingUris.add(rsocketUri)) {
+            reconnect(rsocketUri, 1);
+        }
+    }
+
+    private void reconnect(String rsocketUri, int attempt) {
+        Mono.delay(reconnectBackoff.delay(attempt))
+                .takeUntilOther(onClose())
+                .subscribe(tick -> {
+                    if (membership.get().contains(rsocketUri) || !topologyUris.contains(rsocketUri)) {
+                        reconnectingUris.remove(rsocketUri);
+                        return;
+                    }
+                    connect(rsocketUri)
+                            .flatMap(this::warmup)
+                            .subscribe(rsocket -> {
+                                reconnectingUris.remove(rsocketUri);
+                                if (isDisposed()) {
+                                    rsocket.dispose();
+                                    return;
+                                }
+                                onRSocketReconnected(rsocketUri, rsocket);
+                                log.info(RsocketErrorCode.message("RST-500203", rsocketUri));
+                            }, error -> {
+                                this.getUnHealthUriSet().add(rsocketUri);
+                                log.error(RsocketErrorCode.message("RST-500408", attempt, rsocketUri), error);
+                                reconnect(rsocketUri, attempt + 1);
+                            });
+                }, error -> reconnectingUris.remove(rsocketUri));
+    }
+
+    /**
+     * warm up connected rsocket with health check probes: connection and responder path verified,
+     * and latency EWMA seeded before taking traffic. Application error means the responder is reachable.
+     *
+     * @param rsocket connected rsocket
+     * @return rsocket after warmup, error and closed if probe failed
+     */
+    Mono<RSocket> warmup(RSocket rsocket) {
+        return Flux.range(0, WARMUP_PROBES)
+                .concatMap(i -> rsocket.requestResponse(ByteBufPayload.create(Unpooled.EMPTY_BUFFER, this.healthCheckCompositeByteBuf.retainedDuplicate()))
+                        .timeout(PROBE_TIMEOUT)
+                        .doOnNext(ReferenceCountUtil::safeRelease)
+                        .then()
+                        .onErrorResume(ApplicationErrorException.class, e -> Mono.empty()))
+                .then(Mono.just(rsocket))
+                .doOnError(error -> rsocket.dispose());
+    }
+
+    /**
+     * connect to uri with connections per uri, and all connections are pooled as one logical upstream
+     *
+     * @param uri uri
+     * @return weighted rsocket
+     */
     Mono<RSocket> connect(String uri) {
+        int connections = Math.max(1, requesterSupport.connectionsPerUri());
+        return Mono.defer(() -> {
+            //keepalive health of primary connection for the upstream
+            KeepAliveHealth keepAliveHealth = new KeepAliveHealth();
+            if (connections == 1) {
+                return connect(uri, 0, keepAliveHealth).map(rsocket -> new WeightedRSocket(rsocket, SLOW_START, keepAliveHealth));
+            }
+            List<RSocket> connected = Collections.synchronizedList(new ArrayList<>());
+            return Flux.range(0, connections)
+                    .flatMapSequential(index -> connect(uri, index, index == 0 ? keepAliveHealth : null))
+                    .doOnNext(connected::add)
+                    .collectList()
+                    .<RSocket>map(rsockets -> new WeightedRSocket(new PooledRSocket(rsockets), SLOW_START, keepAliveHealth))
+                    .doOnError(error -> connected.forEach(Disposable::dispose));
+        });
+    }
+
+    private Mono<RSocket> connect(String uri, int connectionIndex, @Nullable KeepAliveHealth keepAliveHealth) {
         try {
             RSocketFactory.ClientRSocketFactory clientRSocketFactory = RSocketFactory.connect();
             for (RSocketInterceptor requestInterceptor : requesterSupport.requestInterceptors()) {
@@ -335,7 +629,14 @@ public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRS
             for (RSocketInterceptor responderInterceptor : requesterSupport.responderInterceptors()) {
                 clientRSocketFactory = clientRSocketFactory.addResponderPlugin(responderInterceptor);
             }
-            Payload payload = requesterSupport.setupPayload().get();
+            if (keepAliveHealth != null) {
+                clientRSocketFactory = clientRSocketFactory.addConnectionPlugin(keepAliveHealth);
+            }
+            //fragmentation for large payload
+            if (requesterSupport.fragmentMtu() > 0) {
+                clientRSocketFactory = clientRSocketFactory.fragment(requesterSupport.fragmentMtu());
+            }
+            Payload payload = connectionIndex == 0 ? requesterSupport.setupPayload().get() : secondarySetupPayload(connectionIndex);
             return clientRSocketFactory
                     .keepAliveMissedAcks(12)
                     .setupPayload(payload)
@@ -360,21 +661,67 @@ public class LoadBalancedRSocket extends AbstractRSocket implements CloudEventRS
     }
 
     /**
-     * start health check timer: check the connection every 15 seconds
+     * setup payload for secondary connection: unique instance id because broker keeps one connection per instance,
+     * and no published services so the secondary connection is requester only
+     *
+     * @param connectionIndex connection index
+     * @return setup payload
+     */
+    private Payload secondarySetupPayload(int connectionIndex) {
+        Payload payload = requesterSupport.setupPayload().get();
+        try {
+            RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.sliceMetadata());
+            if (!compositeMetadata.contains(RSocketMimeType.Application)) {
+                return payload;
+            }
+            AppMetadata appMetadata = AppMetadata.from(compositeMetadata.getMetadata(RSocketMimeType.Application));
+            appMetadata.setUuid(appMetadata.getUuid() + "-" + connectionIndex);
+            compositeMetadata.addMetadata(appMetadata);
+            compositeMetadata.removeMetadata(RSocketMimeType.ServiceRegistry);
+            Payload secondaryPayload = DefaultPayload.create(Unpooled.EMPTY_BUFFER, compositeMetadata.getContent());
+            ReferenceCountUtil.release(payload);
+            return secondaryPayload;
+        } catch (Exception e) {
+            return payload;
+        }
+    }
+
+    /**
+     * start health check timer: probe keepalive RTT every second for due connections, 15 seconds if healthy and 3 seconds if degraded
      * please check https://github.com/alibaba/alibaba-rsocket-broker/issues/10
      */
     public void startHealthCheckTimer() {
         this.lastHealthCheckTimeStamp = System.currentTimeMillis();
-        Flux.interval(Duration.ofSeconds(HEALTH_CHECK_INTERVAL_SECONDS))
-                .flatMap(timestamp -> Flux.fromIterable(activeSockets.entrySet()))
-                .subscribe(entry -> {
-                    Mono<Payload> mono = entry.getValue().requestResponse(ByteBufPayload.create(Unpooled.EMPTY_BUFFER, this.healthCheckCompositeByteBuf.retainedDuplicate()));
-                    mono.doOnError(error -> {
-                        if (error instanceof ClosedChannelException) { //connection closed
-                            onRSocketClosed(entry.getKey(), entry.getValue());
-                        }
-                    }).subscribe();
-                });
+        Flux.interval(HEALTH_CHECK_TICK)
+                .takeUntilOther(onClose())
+                .subscribe(tick -> checkHealth());
+    }
+
+    void checkHealth() {
+        this.lastHealthCheckTimeStamp = System.currentTimeMillis();
+        for (Map.Entry<String, WeightedRSocket> entry : membership.get().getSockets().entrySet()) {
+            String rsocketUri = entry.getKey();
+            KeepAliveHealth keepAliveHealth = entry.getValue().getKeepAliveHealth();
+            if (keepAliveHealth == null) {
+                continue;
+            }
+            if (keepAliveHealth.isDisposed()) { //connection closed
+                onRSocketClosed(rsocketUri, entry.getValue());
+                continue;
+            }
+            keepAliveHealth.probeIfDue();
+            if (keepAliveHealth.isDegraded()) {
+                if (degradedUris.add(rsocketUri)) {
+                    log.warn(RsocketErrorCode.message("RST-400503", rsocketUri, String.format("%.1f", keepAliveHealth.getRttMillis()), keepAliveHealth.getMissed()));
+                }
+            } else if (degradedUris.remove(rsocketUri)) {
+                log.info(RsocketErrorCode.message("RST-400204", rsocketUri, String.format("%.1f", keepAliveHealth.getRttMillis())));
+            }
+        }
+    }
+
+    public Set<String> getDegradedUris() {
+        return degradedUris;
     }
 
 }
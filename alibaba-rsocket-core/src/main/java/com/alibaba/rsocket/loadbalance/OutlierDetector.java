@@ -0,0 +1,122 @@
+package com.alibaba.rsocket.loadbalance;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * outlier detector for load balanced RSockets: consecutive failures, failure rate and latency deviation from the median.
+ * Outliers are ejected for an exponentially growing time, and at most max ejected ratio of RSockets are ejected.
+ *
+ * @author leijuan
+ */
+public class OutlierDetector {
+    private int consecutiveFailures = 5;
+    private double failureRate = 0.5;
+    /**
+     * min requests in interval for failure rate and latency detection
+     */
+    private int minRequests = 20;
+    /**
+     * latency larger than median latency * factor is outlier
+     */
+    private double latencyFactor = 3.0;
+    /**
+     * latency smaller than this stays in load balance, whatever the median latency
+     */
+    private double minOutlierLatencyMillis = 10;
+    private Duration baseEjection = Duration.ofSeconds(30);
+    private Duration maxEjection = Duration.ofMinutes(5);
+    private double maxEjectedRatio = 0.5;
+
+    /**
+     * detect outlier with stats in current interval
+     *
+     * @param rsocket             rsocket
+     * @param medianLatencyMillis median latency of RSockets in load balance
+     * @return ejection reason, null if not outlier
+     */
+    @Nullable
+    public String detect(WeightedRSocket rsocket, double medianLatencyMillis) {
+        if (rsocket.getConsecutiveFailures() >= consecutiveFailures) {
+            return "consecutive failures " + rsocket.getConsecutiveFailures();
+        }
+        long requests = rsocket.getIntervalRequests();
+        if (requests >= minRequests) {
+            double rate = (double) rsocket.getIntervalFailures() / requests;
+            if (rate >= failureRate) {
+                return String.format("failure rate %.2f", rate);
+            }
+            double latencyMillis = rsocket.getLatencyMillis();
+            if (medianLatencyMillis > 0 && latencyMillis > minOutlierLatencyMillis && latencyMillis > medianLatencyMillis * latencyFactor) {
+                return String.format("latency %.1fms with median %.1fms", latencyMillis, medianLatencyMillis);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * median latency of RSockets
+     *
+     * @param rsockets rsockets
+     * @return median latency in millis
+     */
+    public static double medianLatencyMillis(Collection<WeightedRSocket> rsockets) {
+        if (rsockets.isEmpty()) {
+            return 0;
+        }
+        double[] latencies = rsockets.stream().mapToDouble(WeightedRSocket::getLatencyMillis).toArray();
+        Arrays.sort(latencies);
+        int middle = latencies.length / 2;
+        return latencies.length % 2 == 1 ? latencies[middle] : (latencies[middle - 1] + latencies[middle]) / 2;
+    }
+
+    /**
+     * max ejected RSockets, and the last RSocket is never ejected
+     *
+     * @param total total RSockets
+     * @return max ejected
+     */
+    public int maxEjected(int total) {
+        return Math.min(total - 1, (int) (total * maxEjectedRatio));
+    }
+
+    public Duration getBaseEjection() {
+        return baseEjection;
+    }
+
+    public Duration getMaxEjection() {
+        return maxEjection;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public void setMinRequests(int minRequests) {
+        this.minRequests = minRequests;
+    }
+
+    public void setLatencyFactor(double latencyFactor) {
+        this.latencyFactor = latencyFactor;
+    }
+
+    public void setMinOutlierLatencyMillis(double minOutlierLatencyMillis) {
+        this.minOutlierLatencyMillis = minOutlierLatencyMillis;
+    }
+
+    public void setEjection(Duration baseEjection, Duration maxEjection) {
+        this.baseEjection = baseEjection;
+        this.maxEjection = maxEjection;
+    }
+
+    public void setMaxEjectedRatio(double maxEjectedRatio) {
+        this.maxEjectedRatio = maxEjectedRatio;
+    }
+}
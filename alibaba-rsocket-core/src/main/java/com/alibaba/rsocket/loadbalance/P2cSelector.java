@@ -0,0 +1,84 @@
+package com.alibaba.rsocket.loadbalance;
+
+import com.alibaba.rsocket.observability.RsocketErrorCode;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * power of two choices selector: pick two RSockets randomly and use the one with lower cost
+ *
+ * @author leijuan
+ */
+public class P2cSelector implements Supplier<Mono<WeightedRSocket>> {
+    private final WeightedRSocket[] elements;
+    private final int size;
+    private final String name;
+
+    public P2cSelector(String name, List<WeightedRSocket> elements) {
+        this.elements = elements.toArray(new WeightedRSocket[0]);
+        this.size = this.elements.length;
+        this.name = name;
+    }
+
+    @Nullable
+    public WeightedRSocket next() {
+        if (size == 0) {
+            return null;
+        } else if (size == 1) {
+            return elements[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        WeightedRSocket firstChoice = elements[first];
+        WeightedRSocket secondChoice = elements[second];
+        return firstChoice.cost() <= secondChoice.cost() ? firstChoice : secondChoice;
+    }
+
+    /**
+     * RSocket with lowest cost except the excluded one, such as the target of a hedged request
+     *
+     * @param excluded excluded RSocket
+     * @return RSocket, and the excluded one if no other RSocket
+     */
+    public WeightedRSocket nextExcluding(WeightedRSocket excluded) {
+        WeightedRSocket best = excluded;
+        double bestCost = Double.MAX_VALUE;
+        for (WeightedRSocket element : elements) {
+            if (element != excluded) {
+                double cost = element.cost();
+                if (cost < bestCost) {
+                    best = element;
+                    bestCost = cost;
+                }
+            }
+        }
+        return best;
+    }
+
+    public List<WeightedRSocket> getElements() {
+        return Collections.unmodifiableList(Arrays.asList(elements));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Mono<WeightedRSocket> get() {
+        WeightedRSocket next = next();
+        if (next == null) {
+            return Mono.error(new NoAvailableConnectionException(RsocketErrorCode.message("RST-200404", this.name)));
+        }
+        return Mono.just(next);
+    }
+}
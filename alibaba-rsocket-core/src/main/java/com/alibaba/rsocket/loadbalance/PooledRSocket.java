@@ -0,0 +1,124 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * pooled RSocket: multiple connections to the same upstream uri, and requests are sent over the connection with least in-flight requests.
+ * Metadata push goes to the primary connection only, and the pool is closed if any connection closed, then reconnected as a whole.
+ *
+ * @author leijuan
+ */
+public class PooledRSocket extends AbstractRSocket {
+    private final RSocket[] connections;
+    private final AtomicIntegerArray inFlight;
+    /**
+     * start index for least in-flight scan, so idle connections are used in turn
+     */
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public PooledRSocket(List<RSocket> connections) {
+        this.connections = connections.toArray(new RSocket[0]);
+        this.inFlight = new AtomicIntegerArray(this.connections.length);
+        for (RSocket connection : this.connections) {
+            connection.onClose().subscribe(null, error -> dispose(), this::dispose);
+        }
+    }
+
+    /**
+     * select connection with least in-flight requests
+     *
+     * @return connection index
+     */
+    int select() {
+        int size = connections.length;
+        if (size == 1) {
+            return 0;
+        }
+        int start = (cursor.getAndIncrement() & Integer.MAX_VALUE) % size;
+        int best = start;
+        int bestInFlight = inFlight.get(start);
+        for (int i = 1; i < size && bestInFlight > 0; i++) {
+            int index = (start + i) % size;
+            int value = inFlight.get(index);
+            if (value < bestInFlight) {
+                best = index;
+                bestInFlight = value;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Mono<Payload> requestResponse(Payload payload) {
+        return Mono.defer(() -> {
+            int index = select();
+            inFlight.incrementAndGet(index);
+            return connections[index].requestResponse(payload)
+                    .doFinally(signalType -> inFlight.decrementAndGet(index));
+        });
+    }
+
+    @Override
+    public Mono<Void> fireAndForget(Payload payload) {
+        return Mono.defer(() -> connections[select()].fireAndForget(payload));
+    }
+
+    @Override
+    public Flux<Payload> requestStream(Payload payload) {
+        return Flux.defer(() -> {
+            int index = select();
+            inFlight.incrementAndGet(index);
+            return connections[index].requestStream(payload)
+                    .doFinally(signalType -> inFlight.decrementAndGet(index));
+        });
+    }
+
+    @Override
+    public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+        return Flux.defer(() -> {
+            int index = select();
+            inFlight.incrementAndGet(index);
+            return connections[index].requestChannel(payloads)
+                    .doFinally(signalType -> inFlight.decrementAndGet(index));
+        });
+    }
+
+    @Override
+    public Mono<Void> metadataPush(Payload payload) {
+        return connections[0].metadataPush(payload);
+    }
+
+    @Override
+    public double availability() {
+        return isDisposed() ? 0.0 : connections[0].availability();
+    }
+
+    @Override
+    public void dispose() {
+        if (!isDisposed()) {
+            super.dispose();
+            for (RSocket connection : connections) {
+                if (!connection.isDisposed()) {
+                    connection.dispose();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return connections.length;
+    }
+
+    public int getInFlight(int index) {
+        return inFlight.get(index);
+    }
+}
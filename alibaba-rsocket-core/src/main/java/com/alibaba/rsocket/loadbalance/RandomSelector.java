@@ -42,6 +42,10 @@ public class RandomSelector<T> implements Supplier<Mono<T>> {
         }
     }
 
+    public int size() {
+        return size;
+    }
+
     @Override
     public Mono<T> get() {
         T next = next();
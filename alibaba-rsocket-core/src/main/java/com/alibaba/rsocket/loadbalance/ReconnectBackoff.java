@@ -0,0 +1,42 @@
+package com.alibaba.rsocket.loadbalance;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * exponential backoff with full jitter for reconnect: delay is random between 0 and min(max, base * 2^attempt),
+ * so clients disconnected at the same time do not reconnect in lockstep
+ *
+ * @author leijuan
+ */
+public class ReconnectBackoff {
+    private final long baseMillis;
+    private final long maxMillis;
+
+    public ReconnectBackoff(Duration base, Duration max) {
+        this.baseMillis = base.toMillis();
+        this.maxMillis = max.toMillis();
+    }
+
+    /**
+     * delay before reconnect attempt
+     *
+     * @param attempt attempt, from 1
+     * @return delay
+     */
+    public Duration delay(int attempt) {
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceilingMillis(attempt) + 1));
+    }
+
+    /**
+     * max delay before reconnect attempt
+     *
+     * @param attempt attempt, from 1
+     * @return max delay in millis
+     */
+    long ceilingMillis(int attempt) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long ceiling = baseMillis << shift;
+        return ceiling <= 0 || ceiling > maxMillis ? maxMillis : ceiling;
+    }
+}
@@ -0,0 +1,130 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.RSocket;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * immutable membership snapshot of upstream: uri to RSocket and the selector over RSockets not ejected.
+ * Every change creates a new snapshot, which is published atomically, and request threads read the snapshot without lock.
+ *
+ * @author leijuan
+ */
+public final class UpstreamMembership {
+    private final String serviceId;
+    private final Map<String, WeightedRSocket> sockets;
+    private final P2cSelector selector;
+
+    public static UpstreamMembership empty(String serviceId) {
+        return new UpstreamMembership(serviceId, Collections.emptyMap());
+    }
+
+    private UpstreamMembership(String serviceId, Map<String, WeightedRSocket> sockets) {
+        this.serviceId = serviceId;
+        this.sockets = sockets;
+        List<WeightedRSocket> selectable = new ArrayList<>(sockets.size());
+        for (WeightedRSocket rsocket : sockets.values()) {
+            if (!rsocket.isEjected()) {
+                selectable.add(rsocket);
+            }
+        }
+        this.selector = new P2cSelector(serviceId, selectable);
+    }
+
+    /**
+     * membership with rsocket added or replaced
+     *
+     * @param uri     uri
+     * @param rsocket rsocket
+     * @return new membership
+     */
+    public UpstreamMembership with(String uri, WeightedRSocket rsocket) {
+        if (sockets.get(uri) == rsocket) {
+            return this;
+        }
+        Map<String, WeightedRSocket> temp = new LinkedHashMap<>(sockets);
+        temp.put(uri, rsocket);
+        return new UpstreamMembership(serviceId, Collections.unmodifiableMap(temp));
+    }
+
+    /**
+     * membership with rsockets added or replaced
+     *
+     * @param added uri to rsocket
+     * @return new membership
+     */
+    public UpstreamMembership withAll(Map<String, WeightedRSocket> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        Map<String, WeightedRSocket> temp = new LinkedHashMap<>(sockets);
+        temp.putAll(added);
+        return new UpstreamMembership(serviceId, Collections.unmodifiableMap(temp));
+    }
+
+    /**
+     * membership without the rsocket, and unchanged if the uri is bound to another rsocket, such as a reconnected one
+     *
+     * @param uri     uri
+     * @param rsocket rsocket
+     * @return new membership
+     */
+    public UpstreamMembership without(String uri, RSocket rsocket) {
+        if (sockets.get(uri) != rsocket) {
+            return this;
+        }
+        Map<String, WeightedRSocket> temp = new LinkedHashMap<>(sockets);
+        temp.remove(uri);
+        return new UpstreamMembership(serviceId, Collections.unmodifiableMap(temp));
+    }
+
+    /**
+     * membership with given uris only
+     *
+     * @param uris uris
+     * @return new membership
+     */
+    public UpstreamMembership retain(Collection<String> uris) {
+        if (uris.containsAll(sockets.keySet())) {
+            return this;
+        }
+        Map<String, WeightedRSocket> temp = new LinkedHashMap<>(sockets);
+        temp.keySet().retainAll(uris);
+        return new UpstreamMembership(serviceId, Collections.unmodifiableMap(temp));
+    }
+
+    /**
+     * membership with selector rebuilt after ejection state changed
+     *
+     * @return new membership
+     */
+    public UpstreamMembership reselect() {
+        return new UpstreamMembership(serviceId, sockets);
+    }
+
+    @Nullable
+    public WeightedRSocket get(String uri) {
+        return sockets.get(uri);
+    }
+
+    public boolean contains(String uri) {
+        return sockets.containsKey(uri);
+    }
+
+    public Map<String, WeightedRSocket> getSockets() {
+        return sockets;
+    }
+
+    public P2cSelector getSelector() {
+        return selector;
+    }
+
+    public int size() {
+        return sockets.size();
+    }
+
+    public boolean isEmpty() {
+        return sockets.isEmpty();
+    }
+}
@@ -0,0 +1,283 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.util.RSocketProxy;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * weighted RSocket for load balance: in-flight requests, peak EWMA latency of request/response and slow start weight.
+ * Cost is latency * (in-flight + 1) / weight, and the RSocket with lower cost is preferred.
+ * Failures and ejection state are tracked for outlier detection, and application errors from services are not failures.
+ * RSocket degraded by keepalive health is penalized, and still selected if other RSockets are more expensive.
+ *
+ * @author leijuan
+ */
+public class WeightedRSocket extends RSocketProxy {
+    /**
+     * decay time of latency EWMA
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    /**
+     * latency before any response received
+     */
+    private static final double DEFAULT_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /**
+     * min weight during slow start
+     */
+    private static final double MIN_SLOW_START_WEIGHT = 0.1;
+    /**
+     * cost factor for degraded RSocket
+     */
+    private static final double DEGRADED_PENALTY = 10.0;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long connectedAt = System.nanoTime();
+    private final long slowStartNanos;
+    private double latencyEwma = 0;
+    private long lastObservedAt = connectedAt;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /**
+     * requests and failures in current outlier detection interval
+     */
+    private final AtomicLong intervalRequests = new AtomicLong();
+    private final AtomicLong intervalFailures = new AtomicLong();
+    private volatile boolean ejected = false;
+    private boolean probing = false;
+    private int ejections = 0;
+    private long ejectedUntil = 0;
+    private long reinstatedAt = 0;
+    private String ejectionReason;
+    @Nullable
+    private final KeepAliveHealth keepAliveHealth;
+
+    public WeightedRSocket(RSocket source, Duration slowStart) {
+        this(source, slowStart, null);
+    }
+
+    public WeightedRSocket(RSocket source, Duration slowStart, @Nullable KeepAliveHealth keepAliveHealth) {
+        super(source);
+        this.slowStartNanos = slowStart.toNanos();
+        this.keepAliveHealth = keepAliveHealth;
+    }
+
+    public RSocket getSource() {
+        return source;
+    }
+
+    @Override
+    public Mono<Payload> requestResponse(Payload payload) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            return source.requestResponse(payload)
+                    .doOnSuccess(result -> recordSuccess())
+                    .doOnError(this::recordFailure)
+                    .doFinally(signalType -> {
+                        inFlight.decrementAndGet();
+                        //cancelled request, such as hedged loser, is at least as slow as elapsed
+                        if (signalType == SignalType.ON_COMPLETE || signalType == SignalType.CANCEL) {
+                            observe(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    @Override
+    public Flux<Payload> requestStream(Payload payload) {
+        return Flux.defer(() -> {
+            inFlight.incrementAndGet();
+            return source.requestStream(payload)
+                    .doOnComplete(this::recordSuccess)
+                    .doOnError(this::recordFailure)
+                    .doFinally(signalType -> inFlight.decrementAndGet());
+        });
+    }
+
+    @Override
+    public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+        return Flux.defer(() -> {
+            inFlight.incrementAndGet();
+            return source.requestChannel(payloads)
+                    .doOnComplete(this::recordSuccess)
+                    .doOnError(this::recordFailure)
+                    .doFinally(signalType -> inFlight.decrementAndGet());
+        });
+    }
+
+    @Override
+    public Mono<Void> fireAndForget(Payload payload) {
+        return source.fireAndForget(payload)
+                .doOnSuccess(result -> recordSuccess())
+                .doOnError(this::recordFailure);
+    }
+
+    void recordSuccess() {
+        intervalRequests.incrementAndGet();
+        consecutiveFailures.set(0);
+    }
+
+    void recordFailure(Throwable error) {
+        if (error instanceof ApplicationErrorException) {
+            recordSuccess();
+            return;
+        }
+        intervalRequests.incrementAndGet();
+        intervalFailures.incrementAndGet();
+        consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * observe latency: peak EWMA jumps to a slower sample immediately and decays to faster samples by elapsed time
+     *
+     * @param latencyNanos latency in nanos
+     */
+    synchronized void observe(long latencyNanos) {
+        long now = System.nanoTime();
+        if (latencyEwma == 0 || latencyNanos > latencyEwma) {
+            latencyEwma = latencyNanos;
+        } else {
+            double weight = Math.exp(-(now - lastObservedAt) / DECAY_NANOS);
+            latencyEwma = latencyEwma * weight + latencyNanos * (1 - weight);
+        }
+        lastObservedAt = now;
+    }
+
+    /**
+     * cost for selection, lower is better
+     *
+     * @return cost
+     */
+    public double cost() {
+        double cost = latencyNanos() * (inFlight.get() + 1) / slowStartWeight();
+        return isDegraded() ? cost * DEGRADED_PENALTY : cost;
+    }
+
+    /**
+     * latency EWMA decayed by idle time, so a penalized RSocket without traffic gets probed again
+     *
+     * @return latency in nanos
+     */
+    private synchronized double latencyNanos() {
+        if (latencyEwma == 0) {
+            return DEFAULT_LATENCY_NANOS;
+        }
+        return latencyEwma * Math.exp(-(System.nanoTime() - lastObservedAt) / DECAY_NANOS);
+    }
+
+    /**
+     * slow start weight: from 0.1 to 1 linearly after connected
+     *
+     * @return weight
+     */
+    public double slowStartWeight() {
+        long elapsed = System.nanoTime() - connectedAt;
+        if (elapsed >= slowStartNanos) {
+            return 1.0;
+        }
+        return Math.max(MIN_SLOW_START_WEIGHT, (double) elapsed / slowStartNanos);
+    }
+
+    /**
+     * eject from load balance: ejection time doubles for every ejection until max, and is reset if not ejected for max time
+     *
+     * @param baseEjection base ejection time
+     * @param maxEjection  max ejection time
+     * @param reason       reason
+     * @return ejection time
+     */
+    synchronized Duration eject(Duration baseEjection, Duration maxEjection, String reason) {
+        long now = System.currentTimeMillis();
+        if (ejections > 0 && !ejected && now - reinstatedAt > maxEjection.toMillis()) {
+            ejections = 0;
+        }
+        long ejectionMillis = Math.min(maxEjection.toMillis(), baseEjection.toMillis() << Math.min(ejections, 20));
+        this.ejections++;
+        this.ejected = true;
+        this.probing = false;
+        this.ejectedUntil = now + ejectionMillis;
+        this.ejectionReason = reason;
+        return Duration.ofMillis(ejectionMillis);
+    }
+
+    /**
+     * start probe if ejection time elapsed and no probe in progress
+     *
+     * @return probe started
+     */
+    synchronized boolean startProbe() {
+        if (ejected && !probing && System.currentTimeMillis() >= ejectedUntil) {
+            probing = true;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void reinstate() {
+        this.ejected = false;
+        this.probing = false;
+        this.reinstatedAt = System.currentTimeMillis();
+        this.ejectionReason = null;
+        consecutiveFailures.set(0);
+        resetIntervalStats();
+    }
+
+    void resetIntervalStats() {
+        intervalRequests.set(0);
+        intervalFailures.set(0);
+    }
+
+    public boolean isDegraded() {
+        return keepAliveHealth != null && keepAliveHealth.isDegraded();
+    }
+
+    @Nullable
+    public KeepAliveHealth getKeepAliveHealth() {
+        return keepAliveHealth;
+    }
+
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    public synchronized int getEjections() {
+        return ejections;
+    }
+
+    public synchronized long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    public synchronized String getEjectionReason() {
+        return ejectionReason;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public long getIntervalRequests() {
+        return intervalRequests.get();
+    }
+
+    public long getIntervalFailures() {
+        return intervalFailures.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getLatencyMillis() {
+        return latencyNanos() / 1_000_000;
+    }
+}
@@ -67,6 +67,16 @@ public class MessageAcceptMimeTypesMetadata implements MetadataAware {
         return null;
     }
 
+    /**
+     * mime type accepted or not
+     *
+     * @param rsocketMimeType mime type
+     * @return accepted
+     */
+    public boolean contains(RSocketMimeType rsocketMimeType) {
+        return mimeTypes.contains(rsocketMimeType.getId()) || mimeTypes.contains(rsocketMimeType.getType());
+    }
+
     public ByteBuf getContent() {
         ByteBuf buffer = Unpooled.buffer(this.byteBufLength);
         for (Object mimeType : mimeTypes) {
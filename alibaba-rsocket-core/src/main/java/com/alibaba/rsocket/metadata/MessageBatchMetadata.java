@@ -0,0 +1,90 @@
+package com.alibaba.rsocket.metadata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+/**
+ * message batch metadata: marker for batched fire-and-forget calls with element count,
+ * and data is length(4) prefixed encoded params for every call
+ *
+ * @author leijuan
+ */
+public class MessageBatchMetadata implements MetadataAware {
+    /**
+     * composite metadata entry id: well known flag with message batch mime type id
+     */
+    private static final byte ENTRY_ID = (byte) (0x80 | RSocketMimeType.MessageBatch.getId());
+    private int count;
+
+    public MessageBatchMetadata() {
+
+    }
+
+    public MessageBatchMetadata(int count) {
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    @Override
+    public RSocketMimeType rsocketMimeType() {
+        return RSocketMimeType.MessageBatch;
+    }
+
+    @Override
+    public String getMimeType() {
+        return RSocketMimeType.MessageBatch.getType();
+    }
+
+    @Override
+    public ByteBuf getContent() {
+        return Unpooled.copyInt(count);
+    }
+
+    @Override
+    public void load(ByteBuf byteBuf) {
+        this.count = byteBuf.getInt(byteBuf.readerIndex());
+    }
+
+    public static MessageBatchMetadata from(ByteBuf content) {
+        MessageBatchMetadata temp = new MessageBatchMetadata();
+        temp.load(content);
+        return temp;
+    }
+
+    /**
+     * encoded composite metadata entry: id(1) + length(3) + count(4)
+     *
+     * @param allocator allocator
+     * @param count     element count
+     * @return composite metadata entry
+     */
+    public static ByteBuf encodeEntry(ByteBufAllocator allocator, int count) {
+        ByteBuf entry = allocator.buffer(8, 8);
+        entry.writeByte(ENTRY_ID);
+        entry.writeMedium(4);
+        entry.writeInt(count);
+        return entry;
+    }
+
+    /**
+     * batch element count from composite metadata without parsing
+     *
+     * @param compositeMetadata composite metadata
+     * @return element count, 0 if not batch
+     */
+    public static int count(ByteBuf compositeMetadata) {
+        ByteBuf content = RSocketCompositeMetadata.findEntry(compositeMetadata, RSocketMimeType.MessageBatch);
+        if (content == null || content.readableBytes() < 4) {
+            return 0;
+        }
+        return content.getInt(content.readerIndex());
+    }
+}
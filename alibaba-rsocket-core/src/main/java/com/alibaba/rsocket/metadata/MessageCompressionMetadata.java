@@ -0,0 +1,116 @@
+package com.alibaba.rsocket.metadata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * message compression metadata: compression algorithm and uncompressed length of the data.
+ * Compressed response is accepted by requester if message compression mime type included in accept mime types.
+ *
+ * @author leijuan
+ */
+public class MessageCompressionMetadata implements MetadataAware {
+    /**
+     * deflate algorithm
+     */
+    public static final byte DEFLATE = 1;
+    /**
+     * default threshold: payload data smaller than threshold stays uncompressed
+     */
+    public static final int DEFAULT_THRESHOLD = 8192;
+    /**
+     * composite metadata entry id: well known flag with message compression mime type id
+     */
+    private static final byte ENTRY_ID = (byte) (0x80 | RSocketMimeType.MessageCompression.getId());
+    private byte algorithm;
+    private int uncompressedLength;
+
+    public MessageCompressionMetadata() {
+
+    }
+
+    public MessageCompressionMetadata(byte algorithm, int uncompressedLength) {
+        this.algorithm = algorithm;
+        this.uncompressedLength = uncompressedLength;
+    }
+
+    public byte getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(byte algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public int getUncompressedLength() {
+        return uncompressedLength;
+    }
+
+    public void setUncompressedLength(int uncompressedLength) {
+        this.uncompressedLength = uncompressedLength;
+    }
+
+    @Override
+    public RSocketMimeType rsocketMimeType() {
+        return RSocketMimeType.MessageCompression;
+    }
+
+    @Override
+    public String getMimeType() {
+        return RSocketMimeType.MessageCompression.getType();
+    }
+
+    @Override
+    public ByteBuf getContent() {
+        ByteBuf content = Unpooled.buffer(5, 5);
+        content.writeByte(algorithm);
+        content.writeInt(uncompressedLength);
+        return content;
+    }
+
+    @Override
+    public void load(ByteBuf byteBuf) {
+        this.algorithm = byteBuf.getByte(byteBuf.readerIndex());
+        this.uncompressedLength = byteBuf.getInt(byteBuf.readerIndex() + 1);
+    }
+
+    public static MessageCompressionMetadata from(ByteBuf content) {
+        MessageCompressionMetadata temp = new MessageCompressionMetadata();
+        temp.load(content);
+        return temp;
+    }
+
+    /**
+     * encoded composite metadata entry: id(1) + length(3) + algorithm(1) + uncompressed length(4)
+     *
+     * @param allocator          allocator
+     * @param algorithm          compression algorithm
+     * @param uncompressedLength uncompressed length
+     * @return composite metadata entry
+     */
+    public static ByteBuf encodeEntry(ByteBufAllocator allocator, byte algorithm, int uncompressedLength) {
+        ByteBuf entry = allocator.buffer(9, 9);
+        entry.writeByte(ENTRY_ID);
+        entry.writeMedium(5);
+        entry.writeByte(algorithm);
+        entry.writeInt(uncompressedLength);
+        return entry;
+    }
+
+    /**
+     * compression metadata from composite metadata without parsing
+     *
+     * @param compositeMetadata composite metadata
+     * @return compression metadata, null if data not compressed
+     */
+    @Nullable
+    public static MessageCompressionMetadata find(ByteBuf compositeMetadata) {
+        ByteBuf content = RSocketCompositeMetadata.findEntry(compositeMetadata, RSocketMimeType.MessageCompression);
+        if (content == null || content.readableBytes() < 5) {
+            return null;
+        }
+        return from(content);
+    }
+}
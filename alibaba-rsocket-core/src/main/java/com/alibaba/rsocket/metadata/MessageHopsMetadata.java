@@ -0,0 +1,89 @@
+package com.alibaba.rsocket.metadata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+/**
+ * message hops metadata: broker to broker forward count, used to prevent forward loop
+ *
+ * @author leijuan
+ */
+public class MessageHopsMetadata implements MetadataAware {
+    /**
+     * composite metadata entry id: well known flag with message hops mime type id
+     */
+    private static final byte ENTRY_ID = (byte) (0x80 | RSocketMimeType.MessageHops.getId());
+    private int hops;
+
+    public MessageHopsMetadata() {
+
+    }
+
+    public MessageHopsMetadata(int hops) {
+        this.hops = hops;
+    }
+
+    public int getHops() {
+        return hops;
+    }
+
+    public void setHops(int hops) {
+        this.hops = hops;
+    }
+
+    @Override
+    public RSocketMimeType rsocketMimeType() {
+        return RSocketMimeType.MessageHops;
+    }
+
+    @Override
+    public String getMimeType() {
+        return RSocketMimeType.MessageHops.getType();
+    }
+
+    @Override
+    public ByteBuf getContent() {
+        return Unpooled.wrappedBuffer(new byte[]{(byte) hops});
+    }
+
+    @Override
+    public void load(ByteBuf byteBuf) {
+        this.hops = byteBuf.getByte(byteBuf.readerIndex()) & 0xFF;
+    }
+
+    public static MessageHopsMetadata from(ByteBuf content) {
+        MessageHopsMetadata temp = new MessageHopsMetadata();
+        temp.load(content);
+        return temp;
+    }
+
+    /**
+     * encoded composite metadata entry: id(1) + length(3) + hops(1), and appended to original composite metadata directly
+     *
+     * @param allocator allocator
+     * @param hops      hops
+     * @return composite metadata entry
+     */
+    public static ByteBuf encodeEntry(ByteBufAllocator allocator, int hops) {
+        ByteBuf entry = allocator.buffer(5, 5);
+        entry.writeByte(ENTRY_ID);
+        entry.writeMedium(1);
+        entry.writeByte(hops);
+        return entry;
+    }
+
+    /**
+     * hops from composite metadata without parsing, and the last hops entry is appended by latest forward
+     *
+     * @param compositeMetadata composite metadata
+     * @return hops, 0 if not found
+     */
+    public static int hops(ByteBuf compositeMetadata) {
+        ByteBuf content = RSocketCompositeMetadata.findEntry(compositeMetadata, RSocketMimeType.MessageHops);
+        if (content == null || !content.isReadable()) {
+            return 0;
+        }
+        return content.getByte(content.readerIndex()) & 0xFF;
+    }
+}
@@ -56,6 +56,40 @@ public class RSocketCompositeMetadata implements MetadataAware {
     public RSocketCompositeMetadata() {
     }
 
+    /**
+     * scan composite metadata entries without parsing and find the last entry content for well known mime type
+     *
+     * @param compositeMetadata composite metadata
+     * @param mimeType          well known mime type
+     * @return entry content slice, null if not found
+     */
+    @Nullable
+    public static ByteBuf findEntry(ByteBuf compositeMetadata, RSocketMimeType mimeType) {
+        ByteBuf found = null;
+        byte entryId = (byte) (0x80 | mimeType.getId());
+        int index = compositeMetadata.readerIndex();
+        int end = compositeMetadata.writerIndex();
+        while (index + 4 <= end) {
+            byte id = compositeMetadata.getByte(index);
+            if ((id & 0x80) != 0) {
+                index += 1;
+            } else {
+                // custom mime type: (length - 1) + mime type text
+                index += 2 + (id & 0x7F);
+            }
+            if (index + 3 > end) {
+                break;
+            }
+            int length = compositeMetadata.getUnsignedMedium(index);
+            index += 3;
+            if (id == entryId && index + length <= end) {
+                found = compositeMetadata.slice(index, length);
+            }
+            index += length;
+        }
+        return found;
+    }
+
     @Override
     public RSocketMimeType rsocketMimeType() {
         return RSocketMimeType.CompositeMetadata;
@@ -102,6 +136,11 @@ public class RSocketCompositeMetadata implements MetadataAware {
         return this;
     }
 
+    public RSocketCompositeMetadata removeMetadata(RSocketMimeType mimeType) {
+        metadataStore.remove(mimeType.getType());
+        return this;
+    }
+
     @Nullable
     public BinaryRoutingMetadata getBinaryRoutingMetadata() {
         if (binaryRoutingMetadata == null && metadataStore.containsKey(RSocketMimeType.BinaryRouting.getType())) {
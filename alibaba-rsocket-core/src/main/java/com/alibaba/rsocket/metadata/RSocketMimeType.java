@@ -33,7 +33,10 @@ public enum RSocketMimeType {
     MessageAcceptMimeTypes("Message-Accept-MimeTypes", WellKnownMimeType.MESSAGE_RSOCKET_ACCEPT_MIMETYPES),
     CompositeMetadata("Meta-Composite", WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA),
     MessageTags("Message-Tags", WellKnownMimeType.MESSAGE_RSOCKET_MESSAGE_TAGS),
-    MessageOrigin("Message-Origin", WellKnownMimeType.MESSAGE_RSOCKET_MESSAGE_ORIGIN);
+    MessageOrigin("Message-Origin", WellKnownMimeType.MESSAGE_RSOCKET_MESSAGE_ORIGIN),
+    MessageHops("Message-Hops", WellKnownMimeType.MESSAGE_RSOCKET_MESSAGE_HOPS),
+    MessageBatch("Message-Batch", WellKnownMimeType.MESSAGE_RSOCKET_MESSAGE_BATCH),
+    MessageCompression("Message-Compression", WellKnownMimeType.MESSAGE_RSOCKET_COMPRESSION);
 
     public static final Map<Byte, RSocketMimeType> MIME_TYPE_MAP;
     public static final Map<String, RSocketMimeType> MIME_MIME_MAP;
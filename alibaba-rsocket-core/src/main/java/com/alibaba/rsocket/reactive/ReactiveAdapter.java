@@ -6,6 +6,11 @@ import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+
 /**
  * Reactive Adapter to Reactor
  *
@@ -29,8 +34,46 @@ public interface ReactiveAdapter {
             return ReactiveAdapterRxJava3.getInstance();
         } else if (returnTypeName.startsWith("io.reactivex.")) {
             return ReactiveAdapterRxJava2.getInstance();
+        } else if (returnTypeName.startsWith("kotlinx.coroutines.")) {
+            return ReactiveAdapterKotlin.getInstance();
         } else {
             return ReactiveAdapterDefault.getInstance();
         }
     }
+
+    /**
+     * Kotlin suspend function: Continuation as the last parameter
+     *
+     * @param method method
+     * @return suspend or not
+     */
+    static boolean isKotlinSuspend(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        return parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1].getName().equals("kotlin.coroutines.Continuation");
+    }
+
+    /**
+     * result class of Kotlin suspend function from Continuation&lt;? super T&gt;
+     *
+     * @param method suspend function
+     * @return result class
+     */
+    static Class<?> kotlinSuspendResultClass(Method method) {
+        Type[] genericParameterTypes = method.getGenericParameterTypes();
+        Type continuationType = genericParameterTypes[genericParameterTypes.length - 1];
+        if (continuationType instanceof ParameterizedType) {
+            Type resultType = ((ParameterizedType) continuationType).getActualTypeArguments()[0];
+            if (resultType instanceof WildcardType) {
+                Type[] lowerBounds = ((WildcardType) resultType).getLowerBounds();
+                resultType = lowerBounds.length > 0 ? lowerBounds[0] : Object.class;
+            }
+            if (resultType instanceof ParameterizedType) {
+                resultType = ((ParameterizedType) resultType).getRawType();
+            }
+            if (resultType instanceof Class) {
+                return (Class<?>) resultType;
+            }
+        }
+        return Object.class;
+    }
 }
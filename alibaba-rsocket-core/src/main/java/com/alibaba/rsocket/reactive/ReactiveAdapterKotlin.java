@@ -0,0 +1,108 @@
+package com.alibaba.rsocket.reactive;
+
+import com.alibaba.rsocket.MutableContext;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlinx.coroutines.Dispatchers;
+import kotlinx.coroutines.flow.Flow;
+import kotlinx.coroutines.reactive.AwaitKt;
+import kotlinx.coroutines.reactive.ReactiveFlowKt;
+import kotlinx.coroutines.reactor.MonoKt;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Adapter for Kotlin coroutines: suspend functions and Flow, and Flow is bridged with request-n backpressure
+ *
+ * @author leijuan
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ReactiveAdapterKotlin implements ReactiveAdapter {
+    private static ReactiveAdapterKotlin instance = new ReactiveAdapterKotlin();
+
+    public static ReactiveAdapterKotlin getInstance() {
+        return instance;
+    }
+
+    @Override
+    public <T> Mono<T> toMono(@Nullable Object source) {
+        if (source instanceof Mono) {
+            return (Mono<T>) source;
+        } else if (source instanceof Flow) {
+            return Mono.from(ReactiveFlowKt.asPublisher((Flow) source));
+        } else {
+            return (Mono<T>) Mono.justOrEmpty(source);
+        }
+    }
+
+    @Override
+    public <T> Flux<T> toFlux(@Nullable Object source) {
+        if (source instanceof Flow) {
+            return Flux.from(ReactiveFlowKt.asPublisher((Flow) source));
+        } else if (source instanceof Flux) {
+            return (Flux<T>) source;
+        } else if (source == null) {
+            return Flux.empty();
+        } else {
+            return (Flux<T>) Flux.just(source);
+        }
+    }
+
+    @Override
+    public Object fromPublisher(Mono<?> mono, Class<?> returnType, MutableContext mutableContext) {
+        return mono;
+    }
+
+    @Override
+    public Object fromPublisher(Flux<?> flux, Class<?> returnType, MutableContext mutableContext) {
+        if (returnType.equals(Flow.class)) {
+            return ReactiveFlowKt.asFlow(flux);
+        }
+        return flux;
+    }
+
+    /**
+     * invoke suspend function as Mono, and coroutine started on the subscriber's thread. Unit result is converted to empty.
+     *
+     * @param suspendCall suspend function call with continuation
+     * @return result
+     */
+    public Mono<Object> invokeSuspend(SuspendCall suspendCall) {
+        return MonoKt.mono(Dispatchers.getUnconfined(), (scope, continuation) -> {
+            try {
+                return suspendCall.invoke(continuation);
+            } catch (Throwable e) {
+                throw ReactiveAdapterKotlin.<RuntimeException>sneakyThrow(e);
+            }
+        }).filter(value -> value != Unit.INSTANCE);
+    }
+
+    /**
+     * await Mono in suspend function
+     *
+     * @param mono          result
+     * @param resultClass   result class of suspend function
+     * @param continuation  continuation of suspend function
+     * @return result, or COROUTINE_SUSPENDED marker
+     */
+    public Object awaitSuspend(Mono<?> mono, Class<?> resultClass, Object continuation) {
+        Mono<?> result = mono;
+        if (resultClass.equals(Unit.class)) {
+            result = mono.then(Mono.just(Unit.INSTANCE));
+        }
+        return AwaitKt.awaitFirstOrNull(result, (Continuation) continuation);
+    }
+
+    private static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    /**
+     * suspend function call with continuation as the last argument
+     */
+    @FunctionalInterface
+    public interface SuspendCall {
+        Object invoke(Object continuation) throws Throwable;
+    }
+}
@@ -0,0 +1,168 @@
+package com.alibaba.rsocket.rpc;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * blocking method executor: blocking service methods are invoked here instead of the Netty event loop.
+ * Virtual threads are used on JDK 21+, otherwise a bounded thread pool.
+ * Metrics: rsocket.blocking.queue.depth for tasks waiting to run and rsocket.blocking.wait for the wait time.
+ *
+ * @author leijuan
+ */
+public class BlockingMethodExecutor {
+    private static final Logger log = LoggerFactory.getLogger(BlockingMethodExecutor.class);
+    /**
+     * default thread count for platform thread pool
+     */
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors() * 10;
+    /**
+     * default queue capacity for platform thread pool
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 100_000;
+    private static volatile BlockingMethodExecutor instance;
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+    /**
+     * tasks submitted but not started yet, shared by executors because gauge is registered once
+     */
+    private static final AtomicInteger queueDepth = Metrics.gauge("rsocket.blocking.queue.depth", new AtomicInteger());
+    private final Executor executor;
+    private final Timer waitTimer = Metrics.timer("rsocket.blocking.wait");
+
+    public BlockingMethodExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public static BlockingMethodExecutor getInstance() {
+        if (instance == null) {
+            synchronized (BlockingMethodExecutor.class) {
+                if (instance == null) {
+                    instance = new BlockingMethodExecutor(defaultExecutor());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * use custom executor for blocking methods
+     *
+     * @param executor executor
+     */
+    public static void configure(Executor executor) {
+        instance = new BlockingMethodExecutor(executor);
+    }
+
+    /**
+     * virtual thread per task executor on JDK 21+, otherwise bounded thread pool
+     *
+     * @return executor
+     */
+    public static ExecutorService defaultExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executorService = (ExecutorService) method.invoke(null);
+            log.info("Virtual threads used for blocking service methods");
+            return executorService;
+        } catch (NoSuchMethodException ignore) {
+            //JDK before 21
+        } catch (Exception e) {
+            log.warn("Failed to create virtual thread executor, and thread pool used", e);
+        }
+        return threadPool(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * bounded platform thread pool, and task rejected when queue full
+     *
+     * @param threads       thread count
+     * @param queueCapacity queue capacity
+     * @return executor
+     */
+    public static ExecutorService threadPool(int threads, int queueCapacity) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "rsocket-blocking-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+
+    /**
+     * invoke blocking task on executor
+     *
+     * @param task blocking task
+     * @param <T>  result type
+     * @return result, empty for null result
+     */
+    public <T> Mono<T> submit(Callable<T> task) {
+        return submit(task, () -> {
+        });
+    }
+
+    /**
+     * invoke blocking task on executor, and task not started yet is skipped if cancelled
+     *
+     * @param task     blocking task
+     * @param onCancel callback after cancelled, such as releasing request payload: run at once if task not started, otherwise after task finished
+     * @param <T>      result type
+     * @return result, empty for null result
+     */
+    public <T> Mono<T> submit(Callable<T> task, Runnable onCancel) {
+        return Mono.create(sink -> {
+            long submitted = System.nanoTime();
+            AtomicInteger state = new AtomicInteger(PENDING);
+            sink.onCancel(() -> {
+                if (state.compareAndSet(PENDING, CANCELLED)) {
+                    onCancel.run();
+                } else {
+                    //task running, and callback is run after finished
+                    state.compareAndSet(RUNNING, CANCELLED);
+                }
+            });
+            queueDepth.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    queueDepth.decrementAndGet();
+                    waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                    if (!state.compareAndSet(PENDING, RUNNING)) {
+                        return;
+                    }
+                    T result = null;
+                    Throwable error = null;
+                    try {
+                        result = task.call();
+                    } catch (Throwable e) {
+                        error = e;
+                    }
+                    if (!state.compareAndSet(RUNNING, DONE)) {
+                        onCancel.run();
+                    } else if (error != null) {
+                        sink.error(error);
+                    } else {
+                        sink.success(result);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                queueDepth.decrementAndGet();
+                sink.error(e);
+            }
+        });
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+}
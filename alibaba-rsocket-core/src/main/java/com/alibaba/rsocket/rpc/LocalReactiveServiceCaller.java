@@ -65,13 +65,13 @@ public interface LocalReactiveServiceCaller {
     ReactiveMethodHandler getInvokeMethod(String serviceName, String method);
 
     /**
-     * get invoke method
+     * get invoke method by handler id from binary routing metadata
      *
      * @param handlerId handler id
-     * @return method object
+     * @return method object, null if not found or handler id conflicted
      */
     @Nullable
-    ReactiveMethodHandler getInvokeMethod(Integer handlerId);
+    ReactiveMethodHandler getInvokeMethod(int handlerId);
 
-    boolean containsHandler(Integer handlerId);
+    boolean containsHandler(int handlerId);
 }
@@ -1,11 +1,14 @@
 package com.alibaba.rsocket.rpc;
 
+import com.alibaba.rsocket.Bulkhead;
 import com.alibaba.rsocket.utils.MurmurHash3;
+import io.netty.util.collection.IntObjectHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -18,7 +21,18 @@ public class LocalReactiveServiceCallerImpl implements LocalReactiveServiceCalle
     private Map<String, Object> rsocketServices = new HashMap<>();
     private Map<Integer, Object> rsocketHashCodeServices = new HashMap<>();
     private Map<String, ReactiveMethodHandler> methodInvokeEntrances = new HashMap<>();
-    private Map<Integer, ReactiveMethodHandler> methodHashCodeInvokeEntrances = new HashMap<>();
+    /**
+     * handler id to method handler, and handler id is murmur3 hash of service.method
+     */
+    private IntObjectHashMap<ReactiveMethodHandler> methodHashCodeInvokeEntrances = new IntObjectHashMap<>();
+    /**
+     * conflicted handler ids, and requests with these ids fall back to text routing
+     */
+    private Set<Integer> conflictedHandlerIds = new HashSet<>();
+    /**
+     * bulkhead configs with service.method as key, and configs override @Bulkhead annotation
+     */
+    private Map<String, int[]> bulkheadConfigs = new HashMap<>();
 
     @Override
     public boolean contains(String serviceName, String rpc) {
@@ -45,23 +59,58 @@ public class LocalReactiveServiceCallerImpl implements LocalReactiveServiceCalle
         rsocketHashCodeServices.put(MurmurHash3.hash32(serviceName), handler);
         for (Method method : serviceInterface.getMethods()) {
             String key = serviceName + "." + method.getName();
-            methodInvokeEntrances.put(key, new ReactiveMethodHandler(serviceInterface, method, handler));
-            methodHashCodeInvokeEntrances.put(MurmurHash3.hash32(key), new ReactiveMethodHandler(serviceInterface, method, handler));
+            ReactiveMethodHandler methodHandler = new ReactiveMethodHandler(serviceName, serviceInterface, method, handler);
+            methodHandler.setBulkhead(createBulkhead(serviceName, method, handler));
+            methodInvokeEntrances.put(key, methodHandler);
+            int handlerId = MurmurHash3.hash32(key);
+            if (conflictedHandlerIds.contains(handlerId)) {
+                continue;
+            }
+            ReactiveMethodHandler previous = methodHashCodeInvokeEntrances.put(handlerId, methodHandler);
+            if (previous != null && !(previous.getServiceName().equals(serviceName) && previous.getMethod().getName().equals(method.getName()))) {
+                methodHashCodeInvokeEntrances.remove(handlerId);
+                conflictedHandlerIds.add(handlerId);
+            }
         }
     }
 
+    /**
+     * set bulkhead for method, and it should be called before provider added
+     *
+     * @param serviceName   service name
+     * @param method        method name
+     * @param maxConcurrent max concurrent calls
+     * @param maxQueued     max queued calls
+     */
+    public void setBulkhead(String serviceName, String method, int maxConcurrent, int maxQueued) {
+        bulkheadConfigs.put(serviceName + "." + method, new int[]{maxConcurrent, maxQueued});
+    }
+
+    @Nullable
+    private MethodBulkhead createBulkhead(String serviceName, Method method, Object handler) {
+        int[] config = bulkheadConfigs.get(serviceName + "." + method.getName());
+        if (config != null) {
+            return config[0] > 0 ? new MethodBulkhead(serviceName, method.getName(), config[0], config[1]) : null;
+        }
+        Bulkhead bulkhead = ReactiveMethodHandler.findAnnotation(method, handler, Bulkhead.class);
+        if (bulkhead != null && bulkhead.maxConcurrent() > 0) {
+            return new MethodBulkhead(serviceName, method.getName(), bulkhead.maxConcurrent(), bulkhead.maxQueued());
+        }
+        return null;
+    }
+
     @Override
     public @Nullable ReactiveMethodHandler getInvokeMethod(String serviceName, String method) {
         return methodInvokeEntrances.get(serviceName + "." + method);
     }
 
     @Override
-    public @Nullable ReactiveMethodHandler getInvokeMethod(Integer handlerId) {
+    public @Nullable ReactiveMethodHandler getInvokeMethod(int handlerId) {
         return methodHashCodeInvokeEntrances.get(handlerId);
     }
 
     @Override
-    public boolean containsHandler(Integer handlerId) {
+    public boolean containsHandler(int handlerId) {
         return methodHashCodeInvokeEntrances.containsKey(handlerId);
     }
 }
@@ -0,0 +1,167 @@
+package com.alibaba.rsocket.rpc;
+
+import com.alibaba.rsocket.observability.RsocketErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.rsocket.exceptions.RejectedException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * concurrency bulkhead for service method: max concurrent calls, bounded queue for waiting calls,
+ * and overflow rejected with retryable RejectedException.
+ * Metrics: service.bulkhead.active, service.bulkhead.queued and service.bulkhead.rejected with method tag
+ *
+ * @author leijuan
+ */
+public class MethodBulkhead {
+    /**
+     * granted ticket for call with permit
+     */
+    private static final Mono<Void> GRANTED = Mono.empty();
+    private final String serviceName;
+    private final String methodName;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    /**
+     * tickets of waiting calls, and ticket is completed when permit handed over
+     */
+    private final Queue<MonoProcessor<Void>> waiting = new ArrayDeque<>();
+    private final Counter rejectedCounter;
+    private int active = 0;
+
+    public MethodBulkhead(String serviceName, String methodName, int maxConcurrent, int maxQueued) {
+        this.serviceName = serviceName;
+        this.methodName = methodName;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        Tags tags = Tags.of("method", methodName);
+        Metrics.gauge(serviceName + ".bulkhead.active", tags, this, MethodBulkhead::getActive);
+        Metrics.gauge(serviceName + ".bulkhead.queued", tags, this, MethodBulkhead::getQueued);
+        this.rejectedCounter = Metrics.counter(serviceName + ".bulkhead.rejected", tags);
+    }
+
+    /**
+     * execute call with permit
+     *
+     * @param call       call
+     * @param onRejected callback for rejected call or call cancelled before permit granted, such as releasing request payload
+     * @param <T>        result type
+     * @return result, or RejectedException if bulkhead full
+     */
+    public <T> Mono<T> execute(Mono<T> call, Runnable onRejected) {
+        return Mono.defer(() -> {
+            Mono<Void> ticket = tryAcquire();
+            if (ticket == null) {
+                return Mono.error(rejected(onRejected));
+            }
+            AtomicBoolean started = new AtomicBoolean();
+            return ticket.then(Mono.defer(() -> {
+                started.set(true);
+                return call;
+            })).doFinally(signalType -> release(ticket, started, onRejected));
+        });
+    }
+
+    /**
+     * execute stream call with permit, and permit held until stream terminated or cancelled
+     *
+     * @param call       call
+     * @param onRejected callback for rejected call or call cancelled before permit granted, such as releasing request payload
+     * @param <T>        element type
+     * @return result, or RejectedException if bulkhead full
+     */
+    public <T> Flux<T> execute(Flux<T> call, Runnable onRejected) {
+        return Flux.defer(() -> {
+            Mono<Void> ticket = tryAcquire();
+            if (ticket == null) {
+                return Flux.error(rejected(onRejected));
+            }
+            AtomicBoolean started = new AtomicBoolean();
+            return ticket.thenMany(Flux.defer(() -> {
+                started.set(true);
+                return call;
+            })).doFinally(signalType -> release(ticket, started, onRejected));
+        });
+    }
+
+    private RejectedException rejected(Runnable onRejected) {
+        rejectedCounter.increment();
+        onRejected.run();
+        return new RejectedException(RsocketErrorCode.message("RST-201429", serviceName, methodName));
+    }
+
+    /**
+     * acquire permit or queue
+     *
+     * @return granted ticket, waiting ticket, or null if rejected
+     */
+    private synchronized Mono<Void> tryAcquire() {
+        if (active < maxConcurrent) {
+            active++;
+            return GRANTED;
+        }
+        if (waiting.size() < maxQueued) {
+            MonoProcessor<Void> ticket = MonoProcessor.create();
+            waiting.add(ticket);
+            return ticket;
+        }
+        return null;
+    }
+
+    /**
+     * release permit, and call not started is treated as rejected
+     *
+     * @param ticket     ticket
+     * @param started    call started or not
+     * @param onRejected callback for rejected call
+     */
+    private void release(Mono<Void> ticket, AtomicBoolean started, Runnable onRejected) {
+        release(ticket);
+        if (!started.get()) {
+            onRejected.run();
+        }
+    }
+
+    /**
+     * release permit: cancelled waiting call just leaves the queue, otherwise permit is handed over to the next waiting call
+     *
+     * @param ticket ticket
+     */
+    private void release(Mono<Void> ticket) {
+        MonoProcessor<Void> next;
+        synchronized (this) {
+            if (ticket != GRANTED && waiting.remove(ticket)) {
+                return;
+            }
+            next = waiting.poll();
+            if (next == null) {
+                active--;
+                return;
+            }
+        }
+        next.onComplete();
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    public synchronized int getQueued() {
+        return waiting.size();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+}
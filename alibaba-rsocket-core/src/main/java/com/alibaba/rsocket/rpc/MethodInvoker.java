@@ -0,0 +1,103 @@
+package com.alibaba.rsocket.rpc;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * direct invoker for service method, generated once at registration to avoid reflection per request.
+ * LambdaMetafactory generated invoker used for methods with 0-3 params, otherwise MethodHandle bound to the handler.
+ *
+ * @author leijuan
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+    Class<?>[] LAMBDA_TYPES = new Class<?>[]{Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class};
+
+    Object invoke(Object[] args) throws Throwable;
+
+    /**
+     * create invoker for service method
+     *
+     * @param method  method from service interface
+     * @param handler service handler
+     * @return invoker
+     * @throws IllegalAccessException method not accessible
+     */
+    static MethodInvoker create(Method method, Object handler) throws IllegalAccessException {
+        int paramCount = method.getParameterCount();
+        Class<?> declaringClass = method.getDeclaringClass();
+        boolean staticMethod = Modifier.isStatic(method.getModifiers());
+        if (!staticMethod && paramCount < LAMBDA_TYPES.length && method.getReturnType() != void.class
+                && Modifier.isPublic(declaringClass.getModifiers()) && isVisible(declaringClass)) {
+            try {
+                Object lambda = lambda(method, LAMBDA_TYPES[paramCount]);
+                switch (paramCount) {
+                    case 0:
+                        Invoker0 invoker0 = (Invoker0) lambda;
+                        return args -> invoker0.invoke(handler);
+                    case 1:
+                        Invoker1 invoker1 = (Invoker1) lambda;
+                        return args -> invoker1.invoke(handler, args[0]);
+                    case 2:
+                        Invoker2 invoker2 = (Invoker2) lambda;
+                        return args -> invoker2.invoke(handler, args[0], args[1]);
+                    default:
+                        Invoker3 invoker3 = (Invoker3) lambda;
+                        return args -> invoker3.invoke(handler, args[0], args[1], args[2]);
+                }
+            } catch (Throwable ignore) {
+                //fallback to method handle
+            }
+        }
+        method.setAccessible(true);
+        MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+        if (!staticMethod) {
+            methodHandle = methodHandle.bindTo(handler);
+        }
+        MethodHandle spreader = methodHandle
+                .asSpreader(Object[].class, paramCount)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return args -> (Object) spreader.invokeExact(args);
+    }
+
+    static Object lambda(Method method, Class<?> lambdaType) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle implMethod = lookup.unreflect(method);
+        Method samMethod = lambdaType.getMethods()[0];
+        MethodType samMethodType = MethodType.methodType(samMethod.getReturnType(), samMethod.getParameterTypes());
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, samMethod.getName(), MethodType.methodType(lambdaType),
+                samMethodType, implMethod, implMethod.type().wrap());
+        return callSite.getTarget().invoke();
+    }
+
+    /**
+     * generated lambda class is defined in the class loader of MethodInvoker, and it must see the service interface
+     *
+     * @param clazz service interface
+     * @return visible or not
+     */
+    static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, MethodInvoker.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    interface Invoker0 {
+        Object invoke(Object handler);
+    }
+
+    interface Invoker1 {
+        Object invoke(Object handler, Object arg0);
+    }
+
+    interface Invoker2 {
+        Object invoke(Object handler, Object arg0, Object arg1);
+    }
+
+    interface Invoker3 {
+        Object invoke(Object handler, Object arg0, Object arg1, Object arg2);
+    }
+}
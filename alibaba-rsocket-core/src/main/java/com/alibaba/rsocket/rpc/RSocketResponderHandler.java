@@ -6,14 +6,17 @@ import com.alibaba.rsocket.metadata.BinaryRoutingMetadata;
 import com.alibaba.rsocket.metadata.GSVRoutingMetadata;
 import com.alibaba.rsocket.metadata.MessageMimeTypeMetadata;
 import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
 import com.alibaba.rsocket.observability.RsocketErrorCode;
 import io.cloudevents.json.Json;
 import io.cloudevents.v1.CloudEventImpl;
+import io.netty.buffer.ByteBuf;
 import io.netty.util.ReferenceCountUtil;
 import io.rsocket.Payload;
 import io.rsocket.RSocket;
 import io.rsocket.ResponderRSocket;
 import io.rsocket.exceptions.InvalidException;
+import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -50,41 +53,41 @@ public class RSocketResponderHandler extends RSocketResponderSupport implements
     @Override
     public Mono<Payload> requestResponse(Payload payload) {
         RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.metadata());
-        BinaryRoutingMetadata binaryRoutingMetadata = compositeMetadata.getBinaryRoutingMetadata();
-        GSVRoutingMetadata routingMetaData = compositeMetadata.getRoutingMetaData();
-        if (binaryRoutingMetadata == null && routingMetaData == null) {
+        ReactiveMethodHandler methodHandler = findMethodHandler(compositeMetadata);
+        GSVRoutingMetadata routingMetaData = methodHandler == null ? textRouting(compositeMetadata) : null;
+        if (methodHandler == null && routingMetaData == null) {
             ReferenceCountUtil.safeRelease(payload);
             return Mono.error(new InvalidException(RsocketErrorCode.message("RST-600404")));
         }
-        if (binaryRoutingMetadata != null && routingMetaData == null) {
-            routingMetaData = GSVRoutingMetadata.from(new String(binaryRoutingMetadata.getRoutingText(), StandardCharsets.UTF_8));
-        }
         MessageMimeTypeMetadata dataEncodingMetadata = compositeMetadata.getDataEncodingMetadata();
         if (dataEncodingMetadata == null) {
             ReferenceCountUtil.safeRelease(payload);
             return Mono.error(new InvalidException(RsocketErrorCode.message("RST-700404")));
         }
+        if (methodHandler != null) {
+            return localRequestResponse(methodHandler, dataEncodingMetadata, compositeMetadata.getAcceptMimeTypesMetadata(), payload);
+        }
         return localRequestResponse(routingMetaData, dataEncodingMetadata, compositeMetadata.getAcceptMimeTypesMetadata(), payload);
     }
 
     @Override
     public Mono<Void> fireAndForget(Payload payload) {
         RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.metadata());
-        BinaryRoutingMetadata binaryRoutingMetadata = compositeMetadata.getBinaryRoutingMetadata();
-        GSVRoutingMetadata routingMetaData = compositeMetadata.getRoutingMetaData();
-        if (binaryRoutingMetadata == null && routingMetaData == null) {
+        ReactiveMethodHandler methodHandler = findMethodHandler(compositeMetadata);
+        GSVRoutingMetadata routingMetaData = methodHandler == null ? textRouting(compositeMetadata) : null;
+        if (methodHandler == null && routingMetaData == null) {
             ReferenceCountUtil.safeRelease(payload);
             return Mono.error(new InvalidException(RsocketErrorCode.message("RST-600404")));
         }
-        if (binaryRoutingMetadata != null && routingMetaData == null) {
-            routingMetaData = GSVRoutingMetadata.from(new String(binaryRoutingMetadata.getRoutingText(), StandardCharsets.UTF_8));
-        }
         MessageMimeTypeMetadata dataEncodingMetadata = compositeMetadata.getDataEncodingMetadata();
         if (dataEncodingMetadata == null) {
             ReferenceCountUtil.safeRelease(payload);
             return Mono.error(new InvalidException(RsocketErrorCode.message("RST-700404")));
         }
         //normal fireAndForget
+        if (methodHandler != null) {
+            return localFireAndForget(methodHandler, dataEncodingMetadata, payload);
+        }
         return localFireAndForget(routingMetaData, dataEncodingMetadata, payload);
     }
 
@@ -102,40 +105,40 @@ public class RSocketResponderHandler extends RSocketResponderSupport implements
     @Override
     public Flux<Payload> requestStream(Payload payload) {
         RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(payload.metadata());
-        BinaryRoutingMetadata binaryRoutingMetadata = compositeMetadata.getBinaryRoutingMetadata();
-        GSVRoutingMetadata routingMetaData = compositeMetadata.getRoutingMetaData();
-        if (binaryRoutingMetadata == null && routingMetaData == null) {
+        ReactiveMethodHandler methodHandler = findMethodHandler(compositeMetadata);
+        GSVRoutingMetadata routingMetaData = methodHandler == null ? textRouting(compositeMetadata) : null;
+        if (methodHandler == null && routingMetaData == null) {
             ReferenceCountUtil.safeRelease(payload);
             return Flux.error(new InvalidException(RsocketErrorCode.message("RST-600404")));
         }
-        if (binaryRoutingMetadata != null && routingMetaData == null) {
-            routingMetaData = GSVRoutingMetadata.from(new String(binaryRoutingMetadata.getRoutingText(), StandardCharsets.UTF_8));
-        }
         MessageMimeTypeMetadata dataEncodingMetadata = compositeMetadata.getDataEncodingMetadata();
         if (dataEncodingMetadata == null) {
             ReferenceCountUtil.safeRelease(payload);
             return Flux.error(new InvalidException(RsocketErrorCode.message("RST-700404")));
         }
+        if (methodHandler != null) {
+            return localRequestStream(methodHandler, dataEncodingMetadata, compositeMetadata.getAcceptMimeTypesMetadata(), payload);
+        }
         return localRequestStream(routingMetaData, dataEncodingMetadata, compositeMetadata.getAcceptMimeTypesMetadata(), payload);
     }
 
     @Override
     public Flux<Payload> requestChannel(Payload signal, Publisher<Payload> payloads) {
         RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(signal.metadata());
-        BinaryRoutingMetadata binaryRoutingMetadata = compositeMetadata.getBinaryRoutingMetadata();
-        GSVRoutingMetadata routingMetaData = compositeMetadata.getRoutingMetaData();
-        if (binaryRoutingMetadata == null && routingMetaData == null) {
+        ReactiveMethodHandler methodHandler = findMethodHandler(compositeMetadata);
+        GSVRoutingMetadata routingMetaData = methodHandler == null ? textRouting(compositeMetadata) : null;
+        if (methodHandler == null && routingMetaData == null) {
             ReferenceCountUtil.safeRelease(signal);
             return Flux.error(new InvalidException(RsocketErrorCode.message("RST-600404")));
         }
-        if (binaryRoutingMetadata != null && routingMetaData == null) {
-            routingMetaData = GSVRoutingMetadata.from(new String(binaryRoutingMetadata.getRoutingText(), StandardCharsets.UTF_8));
-        }
         MessageMimeTypeMetadata dataEncodingMetadata = compositeMetadata.getDataEncodingMetadata();
         if (dataEncodingMetadata == null) {
             ReferenceCountUtil.safeRelease(signal);
             return Flux.error(new InvalidException(RsocketErrorCode.message("RST-700404")));
         }
+        if (methodHandler != null) {
+            return localRequestChannel(methodHandler, dataEncodingMetadata, compositeMetadata.getAcceptMimeTypesMetadata(), signal, Flux.from(payloads).skip(1));
+        }
         return localRequestChannel(routingMetaData, dataEncodingMetadata, compositeMetadata.getAcceptMimeTypesMetadata(), signal, Flux.from(payloads).skip(1));
     }
 
@@ -174,6 +177,40 @@ public class RSocketResponderHandler extends RSocketResponderSupport implements
         }
     }
 
+    /**
+     * find method handler by handler id in binary routing metadata, and routing text not parsed
+     *
+     * @param compositeMetadata composite metadata
+     * @return method handler, null if binary routing absent or handler id unknown
+     */
+    @Nullable
+    private ReactiveMethodHandler findMethodHandler(RSocketCompositeMetadata compositeMetadata) {
+        ByteBuf binaryRouting = compositeMetadata.getMetadata(RSocketMimeType.BinaryRouting);
+        if (binaryRouting != null && binaryRouting.readableBytes() >= 8) {
+            //service id(4) + handler id(4) + routing text
+            return localServiceCaller.getInvokeMethod(binaryRouting.getInt(binaryRouting.readerIndex() + 4));
+        }
+        return null;
+    }
+
+    /**
+     * text routing as fallback: routing metadata or routing text in binary routing metadata
+     *
+     * @param compositeMetadata composite metadata
+     * @return routing metadata
+     */
+    @Nullable
+    private GSVRoutingMetadata textRouting(RSocketCompositeMetadata compositeMetadata) {
+        GSVRoutingMetadata routingMetaData = compositeMetadata.getRoutingMetaData();
+        if (routingMetaData == null) {
+            BinaryRoutingMetadata binaryRoutingMetadata = compositeMetadata.getBinaryRoutingMetadata();
+            if (binaryRoutingMetadata != null && binaryRoutingMetadata.getRoutingText() != null) {
+                routingMetaData = GSVRoutingMetadata.from(new String(binaryRoutingMetadata.getRoutingText(), StandardCharsets.UTF_8));
+            }
+        }
+        return routingMetaData;
+    }
+
     @Override
     public Mono<Void> onClose() {
         return this.comboOnClose;
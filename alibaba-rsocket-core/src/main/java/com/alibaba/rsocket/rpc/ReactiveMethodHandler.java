@@ -1,8 +1,13 @@
 package com.alibaba.rsocket.rpc;
 
+import com.alibaba.rsocket.Blocking;
 import com.alibaba.rsocket.reactive.ReactiveAdapter;
+import com.alibaba.rsocket.reactive.ReactiveAdapterKotlin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -17,31 +22,142 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author leijuan
  */
 public class ReactiveMethodHandler {
-    List<String> REACTIVE_STREAM_CLASSES = Arrays.asList("io.reactivex.Flowable", "io.reactivex.Observable",
+    private static final List<String> REACTIVE_STREAM_CLASSES = Arrays.asList("io.reactivex.Flowable", "io.reactivex.Observable",
             "io.reactivex.rxjava3.core.Observable", "io.reactivex.rxjava3.core.Flowable", "reactor.core.publisher.Flux",
             "reactor.core.publisher.Mono", "io.reactivex.Maybe", "io.reactivex.Single", "io.reactivex.Completable", "java.util.concurrent.CompletableFuture",
-            "io.reactivex.rxjava3.core.Maybe", "io.reactivex.rxjava3.core.Single", "io.reactivex.rxjava3.core.Completable", "org.reactivestreams.Publisher");
+            "io.reactivex.rxjava3.core.Maybe", "io.reactivex.rxjava3.core.Single", "io.reactivex.rxjava3.core.Completable", "org.reactivestreams.Publisher",
+            "kotlinx.coroutines.flow.Flow");
     private static Map<Type, Class<?>> genericTypesCache = new ConcurrentHashMap<>();
-    private Object handler;
-    private Method method;
-    private int parameterCount;
+    private final String serviceName;
+    private final Object handler;
+    private final Method method;
+    /**
+     * direct invoker generated at registration
+     */
+    private final MethodInvoker invoker;
+    private final int parameterCount;
+    /**
+     * parameter types, shared array and please don't modify it
+     */
+    private final Class<?>[] parameterTypes;
+    private final Class<?>[] inferredClassesForParameters;
+    private final Class<?> inferredClassForReturn;
     private boolean asyncReturn = false;
+    /**
+     * Kotlin suspend function, and Continuation parameter is excluded from parameter types
+     */
+    private final boolean kotlinSuspend;
+    /**
+     * non-reactive return or @Blocking annotated, and invoked on blocking method executor
+     */
+    private boolean blocking;
+    /**
+     * concurrency bulkhead, null if no limit
+     */
+    @Nullable
+    private MethodBulkhead bulkhead;
     private ReactiveAdapter reactiveAdapter;
 
     public ReactiveMethodHandler(Class<?> serviceInterface, Method method, Object handler) {
+        this(serviceInterface.getCanonicalName(), serviceInterface, method, handler);
+    }
+
+    public ReactiveMethodHandler(String serviceName, Class<?> serviceInterface, Method method, Object handler) {
+        this.serviceName = serviceName;
         this.handler = handler;
         this.method = method;
         this.method.setAccessible(true);
-        this.parameterCount = method.getParameterCount();
-        Class<?> returnType = this.method.getReturnType();
-        if (REACTIVE_STREAM_CLASSES.contains(returnType.getCanonicalName())) {
+        this.kotlinSuspend = ReactiveAdapter.isKotlinSuspend(method);
+        int paramCount = method.getParameterCount();
+        Type[] genericParameterTypes = method.getGenericParameterTypes();
+        if (kotlinSuspend) {
+            paramCount = paramCount - 1;
+            genericParameterTypes = Arrays.copyOf(genericParameterTypes, paramCount);
+        }
+        this.parameterCount = paramCount;
+        this.parameterTypes = Arrays.copyOf(method.getParameterTypes(), paramCount);
+        this.inferredClassesForParameters = new Class<?>[genericParameterTypes.length];
+        for (int i = 0; i < genericParameterTypes.length; i++) {
+            this.inferredClassesForParameters[i] = getInferredClassForGeneric(genericParameterTypes[i]);
+        }
+        this.invoker = createInvoker(method, handler);
+        if (kotlinSuspend) {
+            this.inferredClassForReturn = ReactiveAdapter.kotlinSuspendResultClass(method);
             this.asyncReturn = true;
+            this.reactiveAdapter = ReactiveAdapterKotlin.getInstance();
+        } else {
+            this.inferredClassForReturn = getInferredClassForGeneric(method.getGenericReturnType());
+            Class<?> returnType = this.method.getReturnType();
+            if (REACTIVE_STREAM_CLASSES.contains(returnType.getCanonicalName())) {
+                this.asyncReturn = true;
+            }
+            this.reactiveAdapter = ReactiveAdapter.findAdapter(returnType.getCanonicalName());
         }
-        this.reactiveAdapter = ReactiveAdapter.findAdapter(returnType.getCanonicalName());
+        this.blocking = !this.asyncReturn || isBlockingAnnotated(method, handler);
+    }
+
+    private static MethodInvoker createInvoker(Method method, Object handler) {
+        try {
+            return MethodInvoker.create(method, handler);
+        } catch (IllegalAccessException e) {
+            return args -> {
+                try {
+                    return method.invoke(handler, args);
+                } catch (InvocationTargetException invocationTargetException) {
+                    throw invocationTargetException.getTargetException();
+                }
+            };
+        }
+    }
+
+    private static boolean isBlockingAnnotated(Method method, Object handler) {
+        return handler.getClass().isAnnotationPresent(Blocking.class) || findAnnotation(method, handler, Blocking.class) != null;
+    }
+
+    /**
+     * find annotation on interface method or implementation method
+     *
+     * @param method          interface method
+     * @param handler         handler
+     * @param annotationClass annotation class
+     * @param <A>             annotation type
+     * @return annotation
+     */
+    @Nullable
+    static <A extends Annotation> A findAnnotation(Method method, Object handler, Class<A> annotationClass) {
+        A annotation = method.getAnnotation(annotationClass);
+        if (annotation == null) {
+            try {
+                annotation = handler.getClass().getMethod(method.getName(), method.getParameterTypes()).getAnnotation(annotationClass);
+            } catch (NoSuchMethodException ignore) {
+            }
+        }
+        return annotation;
     }
 
     public Object invoke(Object... args) throws Exception {
-        return method.invoke(this.handler, args);
+        if (kotlinSuspend) {
+            Object[] suspendArgs = Arrays.copyOf(args, args.length + 1);
+            return ReactiveAdapterKotlin.getInstance().invokeSuspend(continuation -> {
+                suspendArgs[suspendArgs.length - 1] = continuation;
+                return invoker.invoke(suspendArgs);
+            });
+        }
+        try {
+            return invoker.invoke(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public Method getMethod() {
+        return method;
     }
 
     @NotNull
@@ -54,15 +170,15 @@ public class ReactiveMethodHandler {
     }
 
     public Class<?>[] getParameterTypes() {
-        return method.getParameterTypes();
+        return parameterTypes;
     }
 
     public Class<?> getInferredClassForReturn() {
-        return getInferredClassForGeneric(method.getGenericReturnType());
+        return inferredClassForReturn;
     }
 
     public Class<?> getInferredClassForParameter(int paramIndex) {
-        return getInferredClassForGeneric(method.getGenericParameterTypes()[paramIndex]);
+        return inferredClassesForParameters[paramIndex];
     }
 
     /**
@@ -94,7 +210,24 @@ public class ReactiveMethodHandler {
         return genericTypesCache.get(genericType);
     }
 
+    public boolean isKotlinSuspend() {
+        return kotlinSuspend;
+    }
+
     public boolean isAsyncReturn() {
         return asyncReturn;
     }
+
+    public boolean isBlocking() {
+        return blocking;
+    }
+
+    @Nullable
+    public MethodBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(@Nullable MethodBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
 }
@@ -80,6 +80,9 @@ public enum WellKnownMimeType {
     MESSAGE_RSOCKET_COMPOSITE_METADATA_JSON("message/x.rsocket.composite-metadata.v0+json", (byte) 0x56),
     MESSAGE_RSOCKET_MESSAGE_TAGS("message/x.rsocket.message.tags", (byte) 0x57),
     MESSAGE_RSOCKET_MESSAGE_ORIGIN("message/x.rsocket.message.origin", (byte) 0x58),
+    MESSAGE_RSOCKET_MESSAGE_HOPS("message/x.rsocket.message.hops", (byte) 0x59),
+    MESSAGE_RSOCKET_MESSAGE_BATCH("message/x.rsocket.message.batch", (byte) 0x5A),
+    MESSAGE_RSOCKET_COMPRESSION("message/x.rsocket.compression", (byte) 0x5B),
 
     // ... reserved for future use ...
     MESSAGE_RSOCKET_MIMETYPE("message/x.rsocket.mime-type.v0", (byte) 0x7A),
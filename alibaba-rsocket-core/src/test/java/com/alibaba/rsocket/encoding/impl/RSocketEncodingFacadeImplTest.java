@@ -1,12 +1,16 @@
 package com.alibaba.rsocket.encoding.impl;
 
+import com.alibaba.rsocket.encoding.EncodingException;
 import com.alibaba.rsocket.metadata.RSocketMimeType;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,4 +38,56 @@ public class RSocketEncodingFacadeImplTest {
             System.out.println(result.getName());
         }
     }
+
+    @Test
+    public void testCompression() {
+        List<TempAccount> accounts = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            accounts.add(new TempAccount(i, "leijuan" + i, new Date()));
+        }
+        for (RSocketMimeType mimeType : new RSocketMimeType[]{RSocketMimeType.Json, RSocketMimeType.Hessian}) {
+            ByteBuf data = encodingFacade.encodingResult(accounts, mimeType);
+            int length = data.readableBytes();
+            long start = System.nanoTime();
+            ByteBuf compressed = encodingFacade.compress(data);
+            long compressNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            ByteBuf decompressed = encodingFacade.decompress(compressed, length);
+            long decompressNanos = System.nanoTime() - start;
+            Assertions.assertEquals(data, decompressed);
+            System.out.println(mimeType.getName() + ": " + length + " -> " + compressed.readableBytes() + " bytes, compress "
+                    + compressNanos / 1000 + "us, decompress " + decompressNanos / 1000 + "us");
+        }
+    }
+
+    @Test
+    public void testMalformedCompression() {
+        ByteBuf data = Unpooled.wrappedBuffer(new byte[4096]);
+        ByteBuf compressed = encodingFacade.compress(data);
+        //declared length larger than max, smaller or larger than inflated data
+        Assertions.assertThrows(EncodingException.class, () -> encodingFacade.decompress(compressed, Integer.MAX_VALUE));
+        Assertions.assertThrows(EncodingException.class, () -> encodingFacade.decompress(compressed, -1));
+        Assertions.assertThrows(EncodingException.class, () -> encodingFacade.decompress(compressed, 4095));
+        Assertions.assertThrows(EncodingException.class, () -> encodingFacade.decompress(compressed, 4097));
+        //truncated data
+        ByteBuf truncated = compressed.slice(0, compressed.readableBytes() - 4);
+        Assertions.assertThrows(EncodingException.class, () -> encodingFacade.decompress(truncated, 4096));
+        Assertions.assertEquals(data, encodingFacade.decompress(compressed, 4096));
+        compressed.release();
+    }
+
+    @Test
+    public void testRawBinary() {
+        ByteBuf data = Unpooled.wrappedBuffer(new byte[]{1, 2, 3, 4});
+        Assertions.assertSame(data, encodingFacade.encodingResult(data, RSocketMimeType.Hessian));
+        Assertions.assertSame(data, encodingFacade.encodingParams(new Object[]{data}, RSocketMimeType.Hessian));
+        ByteBuf result = (ByteBuf) encodingFacade.decodeResult(RSocketMimeType.Hessian, data, ByteBuf.class);
+        Assertions.assertEquals(data, result);
+        Assertions.assertEquals(2, data.refCnt());
+        result.release();
+        ByteBuf param = (ByteBuf) encodingFacade.decodeParams(RSocketMimeType.Hessian, data, ByteBuf.class);
+        Assertions.assertEquals(data, param);
+        param.release();
+        Assertions.assertEquals(1, data.refCnt());
+    }
 }
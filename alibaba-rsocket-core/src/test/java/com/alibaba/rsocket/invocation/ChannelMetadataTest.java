@@ -0,0 +1,122 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.alibaba.rsocket.rpc.LocalReactiveServiceCallerImpl;
+import com.alibaba.rsocket.rpc.RSocketResponderHandler;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import io.rsocket.util.RSocketProxy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * request channel test: bidirectional channel with small messages through requester proxy and local responder,
+ * metadata on every frame or on first frame only
+ *
+ * @author leijuan
+ */
+public class ChannelMetadataTest {
+    private static final AtomicLong sentBytes = new AtomicLong();
+    private static Disposable server;
+    private static RSocket rsocket;
+
+    @BeforeAll
+    public static void setUp() {
+        LocalReactiveServiceCallerImpl serviceCaller = new LocalReactiveServiceCallerImpl();
+        serviceCaller.addProvider("", EchoService.class.getCanonicalName(), "", EchoService.class, new EchoServiceImpl());
+        server = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> Mono.just(new RSocketResponderHandler(serviceCaller, null, sendingSocket)))
+                .transport(LocalServerTransport.create("channel-metadata"))
+                .start()
+                .block();
+        rsocket = RSocketFactory.connect()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .transport(LocalClientTransport.create("channel-metadata"))
+                .start()
+                .block();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        rsocket.dispose();
+        server.dispose();
+    }
+
+    @Test
+    public void testChannel() {
+        int count = 200_000;
+        for (int round = 0; round < 2; round++) {
+            for (boolean metadataOnFirstFrame : new boolean[]{false, true}) {
+                EchoService echoService = echoService(metadataOnFirstFrame);
+                sentBytes.set(0);
+                long start = System.nanoTime();
+                Integer last = echoService.echo(Flux.range(0, count)).last().block();
+                Assertions.assertEquals(count - 1, last);
+                System.out.println("Metadata on first frame " + metadataOnFirstFrame + ": " + (System.nanoTime() - start) / 1_000_000 + "ms, "
+                        + sentBytes.get() / count + " bytes per message");
+            }
+        }
+    }
+
+    @Test
+    public void testMetadataOnFirstFrame() {
+        EchoService echoService = echoService(true);
+        //first param from the initial frame, and later frames without routing metadata
+        Assertions.assertEquals("leijuan:3", echoService.join("leijuan", Flux.just(1, 2, 3)).last().block());
+    }
+
+    private EchoService echoService(boolean metadataOnFirstFrame) {
+        RSocketRequesterRpcProxy rpcProxy = new RSocketRequesterRpcProxy(new ByteCountingRSocket(rsocket), "", EchoService.class, null, "",
+                RSocketMimeType.Hessian, null, Duration.ofSeconds(3), null);
+        rpcProxy.setChannelMetadataOnFirstFrame(metadataOnFirstFrame);
+        return (EchoService) Proxy.newProxyInstance(EchoService.class.getClassLoader(), new Class[]{EchoService.class}, rpcProxy);
+    }
+
+    public interface EchoService {
+        Flux<Integer> echo(Flux<Integer> numbers);
+
+        Flux<String> join(String name, Flux<Integer> numbers);
+    }
+
+    public static class EchoServiceImpl implements EchoService {
+        @Override
+        public Flux<Integer> echo(Flux<Integer> numbers) {
+            return numbers;
+        }
+
+        @Override
+        public Flux<String> join(String name, Flux<Integer> numbers) {
+            return numbers.map(number -> name + ":" + number);
+        }
+    }
+
+    /**
+     * count bytes of sent channel frames
+     */
+    private static class ByteCountingRSocket extends RSocketProxy {
+        ByteCountingRSocket(RSocket source) {
+            super(source);
+        }
+
+        @Override
+        public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+            return super.requestChannel(Flux.from(payloads)
+                    .doOnNext(payload -> sentBytes.addAndGet(payload.data().readableBytes() + payload.metadata().readableBytes())));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.metadata.MessageBatchMetadata;
+import com.alibaba.rsocket.metadata.MessageMimeTypeMetadata;
+import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.exceptions.ConnectionCloseException;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import io.rsocket.util.ByteBufPayload;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * fire-and-forget batcher test: throughput of tiny fire-and-forget calls with and without batch
+ *
+ * @author leijuan
+ */
+public class FireAndForgetBatcherTest {
+    private static final AtomicLong received = new AtomicLong();
+    private static Disposable server;
+    private static RSocket rsocket;
+    private static ByteBuf compositeMetadata;
+
+    @BeforeAll
+    public static void setUp() {
+        server = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> Mono.just(new AbstractRSocket() {
+                    @Override
+                    public Mono<Void> fireAndForget(Payload payload) {
+                        int count = MessageBatchMetadata.count(payload.metadata());
+                        received.addAndGet(count > 0 ? count : 1);
+                        payload.release();
+                        return Mono.empty();
+                    }
+                }))
+                .transport(LocalServerTransport.create("fnf-batch"))
+                .start()
+                .block();
+        rsocket = RSocketFactory.connect()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .transport(LocalClientTransport.create("fnf-batch"))
+                .start()
+                .block();
+        compositeMetadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(RSocketMimeType.Hessian)).getContent();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        rsocket.dispose();
+        server.dispose();
+    }
+
+    @Test
+    public void testBatchCount() throws Exception {
+        received.set(0);
+        FireAndForgetBatcher batcher = new FireAndForgetBatcher(rsocket, compositeMetadata, 10, Duration.ofMillis(20), 64 * 1024);
+        for (int i = 0; i < 25; i++) {
+            batcher.add(tinyBody());
+        }
+        //last 5 calls sent after linger
+        Thread.sleep(200);
+        Assertions.assertEquals(25, received.get());
+    }
+
+    @Test
+    public void testCloseWithUpstream() throws Exception {
+        received.set(0);
+        RSocket upstream = RSocketFactory.connect()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .transport(LocalClientTransport.create("fnf-batch"))
+                .start()
+                .block();
+        RSocketRequesterRpcProxy rpcProxy = new RSocketRequesterRpcProxy(upstream, "", LogService.class, null, "",
+                RSocketMimeType.Hessian, null, Duration.ofSeconds(3), null);
+        rpcProxy.enableFireAndForgetBatch(10, Duration.ofSeconds(10), 64 * 1024);
+        LogService logService = (LogService) Proxy.newProxyInstance(LogService.class.getClassLoader(), new Class[]{LogService.class}, rpcProxy);
+        for (int i = 0; i < 3; i++) {
+            //completed when queued
+            logService.log("event" + i).block();
+        }
+        //noinspection ConstantConditions
+        upstream.dispose();
+        Thread.sleep(100);
+        //pending calls dropped, and later calls refused
+        Assertions.assertEquals(0, received.get());
+        Assertions.assertThrows(ConnectionCloseException.class, () -> logService.log("closed").block());
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        int count = 500_000;
+        for (int round = 0; round < 2; round++) {
+            received.set(0);
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                rsocket.fireAndForget(ByteBufPayload.create(tinyBody(), compositeMetadata.retainedDuplicate())).subscribe();
+            }
+            waitReceived(count);
+            System.out.println("Without batch calls per second: " + count * 1_000_000_000L / (System.nanoTime() - start));
+            received.set(0);
+            FireAndForgetBatcher batcher = new FireAndForgetBatcher(rsocket, compositeMetadata, 128, Duration.ofMillis(5), 16 * 1024);
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                batcher.add(tinyBody());
+            }
+            batcher.flush();
+            waitReceived(count);
+            System.out.println("With batch calls per second: " + count * 1_000_000_000L / (System.nanoTime() - start));
+        }
+    }
+
+    private void waitReceived(int count) throws Exception {
+        for (int i = 0; i < 1000 && received.get() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private ByteBuf tinyBody() {
+        return Unpooled.wrappedBuffer(new byte[64]);
+    }
+
+    public interface LogService {
+        Mono<Void> log(String event);
+    }
+}
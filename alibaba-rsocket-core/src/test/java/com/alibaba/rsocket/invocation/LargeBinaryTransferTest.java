@@ -0,0 +1,100 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.alibaba.rsocket.rpc.LocalReactiveServiceCallerImpl;
+import com.alibaba.rsocket.rpc.RSocketResponderHandler;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * large binary transfer test: 1M chunks as Flux&lt;ByteBuf&gt; through requester proxy with fragmentation,
+ * and pooled direct memory bounded by request-n instead of stream size
+ *
+ * @author leijuan
+ */
+public class LargeBinaryTransferTest {
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final int MTU = 64 * 1024;
+    private static Disposable server;
+    private static RSocket rsocket;
+
+    @BeforeAll
+    public static void setUp() {
+        LocalReactiveServiceCallerImpl serviceCaller = new LocalReactiveServiceCallerImpl();
+        serviceCaller.addProvider("", FileService.class.getCanonicalName(), "", FileService.class, new FileServiceImpl());
+        server = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .fragment(MTU)
+                .acceptor((setup, sendingSocket) -> Mono.just(new RSocketResponderHandler(serviceCaller, null, sendingSocket)))
+                .transport(LocalServerTransport.create("large-binary"))
+                .start()
+                .block();
+        rsocket = RSocketFactory.connect()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .fragment(MTU)
+                .transport(LocalClientTransport.create("large-binary"))
+                .start()
+                .block();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        rsocket.dispose();
+        server.dispose();
+    }
+
+    @Test
+    public void testStreamTransfer() {
+        int chunks = 512;
+        RSocketRequesterRpcProxy rpcProxy = new RSocketRequesterRpcProxy(rsocket, "", FileService.class, null, "",
+                RSocketMimeType.Hessian, null, Duration.ofSeconds(30), null);
+        FileService fileService = (FileService) Proxy.newProxyInstance(FileService.class.getClassLoader(), new Class[]{FileService.class}, rpcProxy);
+        AtomicLong received = new AtomicLong();
+        AtomicLong maxUsedDirectMemory = new AtomicLong();
+        long start = System.nanoTime();
+        fileService.download(chunks)
+                .limitRate(4)
+                .doOnNext(chunk -> {
+                    received.addAndGet(chunk.readableBytes());
+                    chunk.release();
+                    maxUsedDirectMemory.accumulateAndGet(PooledByteBufAllocator.DEFAULT.metric().usedDirectMemory(), Math::max);
+                })
+                .blockLast();
+        Assertions.assertEquals((long) chunks * CHUNK_SIZE, received.get());
+        System.out.println("Transferred " + received.get() / CHUNK_SIZE + "MB in " + (System.nanoTime() - start) / 1_000_000 + "ms, max pooled direct memory "
+                + maxUsedDirectMemory.get() / CHUNK_SIZE + "MB");
+        //chunks in flight are bounded by request-n, not by stream size
+        Assertions.assertTrue(maxUsedDirectMemory.get() < (long) chunks * CHUNK_SIZE / 4);
+    }
+
+    public interface FileService {
+        Flux<ByteBuf> download(Integer chunks);
+    }
+
+    public static class FileServiceImpl implements FileService {
+        @Override
+        public Flux<ByteBuf> download(Integer chunks) {
+            return Flux.range(0, chunks).map(i -> {
+                ByteBuf chunk = PooledByteBufAllocator.DEFAULT.buffer(CHUNK_SIZE);
+                chunk.writerIndex(CHUNK_SIZE);
+                return chunk;
+            });
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.alibaba.rsocket.invocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * method latency tracker test
+ *
+ * @author leijuan
+ */
+public class MethodLatencyTrackerTest {
+
+    @Test
+    public void testPercentiles() {
+        MethodLatencyTracker latencyTracker = new MethodLatencyTracker();
+        for (int i = 1; i < 128; i++) {
+            latencyTracker.record(i);
+        }
+        Assertions.assertFalse(latencyTracker.isReady());
+        for (int i = 128; i <= 1000; i++) {
+            latencyTracker.record(i);
+        }
+        Assertions.assertTrue(latencyTracker.isReady());
+        System.out.println("p95: " + latencyTracker.getP95Nanos() + ", p99: " + latencyTracker.getP99Nanos());
+        Assertions.assertTrue(latencyTracker.getP99Nanos() > latencyTracker.getP95Nanos());
+        Assertions.assertTrue(latencyTracker.getP99Nanos() <= 1000);
+    }
+}
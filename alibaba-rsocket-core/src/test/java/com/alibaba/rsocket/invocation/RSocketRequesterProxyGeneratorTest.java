@@ -0,0 +1,93 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.encoding.RSocketEncodingFacade;
+import com.alibaba.rsocket.encoding.impl.TempAccount;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import io.netty.buffer.Unpooled;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.ByteBufPayload;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * RSocket requester proxy generator test: call overhead of generated proxy class and JDK dynamic proxy
+ *
+ * @author leijuan
+ */
+public class RSocketRequesterProxyGeneratorTest {
+    private static RSocketRequesterRpcProxy rpcProxy;
+
+    @BeforeAll
+    public static void setUp() {
+        RSocket rsocket = new AbstractRSocket() {
+            @Override
+            public Mono<Payload> requestResponse(Payload payload) {
+                payload.release();
+                TempAccount account = new TempAccount(1L, "leijuan", new Date());
+                return Mono.just(ByteBufPayload.create(RSocketEncodingFacade.getInstance().encodingResult(account, RSocketMimeType.Hessian), Unpooled.EMPTY_BUFFER));
+            }
+        };
+        rpcProxy = new RSocketRequesterRpcProxy(rsocket, null, AccountService.class, null, "",
+                RSocketMimeType.Hessian, null, Duration.ofMillis(3000), null);
+    }
+
+    @Test
+    public void testGeneratedProxy() throws Exception {
+        AccountService accountService = RSocketRequesterProxyGenerator.generate(AccountService.class, rpcProxy);
+        TempAccount account = accountService.findById(1).block();
+        Assertions.assertNotNull(account);
+        Assertions.assertEquals("leijuan", account.getName());
+        //default method and methods from Object
+        Assertions.assertEquals("leijuan", accountService.findNameById(1).block());
+        Assertions.assertNotNull(accountService.toString());
+    }
+
+    @Test
+    public void testJdkProxyObjectMethods() {
+        AccountService jdkProxy = (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(),
+                new Class[]{AccountService.class}, rpcProxy);
+        AccountService otherProxy = (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(),
+                new Class[]{AccountService.class}, rpcProxy);
+        //identity of the proxy, not the shared handler
+        Assertions.assertEquals(jdkProxy, jdkProxy);
+        Assertions.assertNotEquals(jdkProxy, otherProxy);
+        Assertions.assertEquals(System.identityHashCode(jdkProxy), jdkProxy.hashCode());
+        Assertions.assertTrue(jdkProxy.toString().startsWith(AccountService.class.getName()));
+    }
+
+    @Test
+    public void testCallOverhead() throws Exception {
+        AccountService generatedProxy = RSocketRequesterProxyGenerator.generate(AccountService.class, rpcProxy);
+        AccountService jdkProxy = (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(),
+                new Class[]{AccountService.class}, rpcProxy);
+        int count = 200_000;
+        for (int round = 0; round < 3; round++) {
+            System.out.println("JDK proxy ns/call: " + callCost(jdkProxy, count));
+            System.out.println("Generated proxy ns/call: " + callCost(generatedProxy, count));
+        }
+    }
+
+    private long callCost(AccountService accountService, int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            accountService.findById(i).block();
+        }
+        return (System.nanoTime() - start) / count;
+    }
+
+    public interface AccountService {
+        Mono<TempAccount> findById(int id);
+
+        default Mono<String> findNameById(int id) {
+            return findById(id).map(TempAccount::getName);
+        }
+    }
+}
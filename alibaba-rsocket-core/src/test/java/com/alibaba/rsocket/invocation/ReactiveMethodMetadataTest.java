@@ -1,6 +1,9 @@
 package com.alibaba.rsocket.invocation;
 
 import com.alibaba.rsocket.metadata.RSocketMimeType;
+import io.rsocket.frame.FrameType;
+import kotlin.coroutines.Continuation;
+import kotlinx.coroutines.flow.Flow;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
@@ -23,7 +26,38 @@ public class ReactiveMethodMetadataTest {
         Assertions.assertThat(methodMetadata.getInferredClassForReturn()).isEqualTo(ByteBuffer.class);
     }
 
+    @Test
+    public void testKotlinSuspend() throws Exception {
+        Method suspendMethod = this.getClass().getMethod("findNickById", Integer.class, Continuation.class);
+        ReactiveMethodMetadata methodMetadata = new ReactiveMethodMetadata(null, "com.alibaba.user.UserService", "",
+                suspendMethod, RSocketMimeType.Hessian, new RSocketMimeType[]{}, null);
+        Assertions.assertThat(methodMetadata.isKotlinSuspend()).isTrue();
+        Assertions.assertThat(methodMetadata.getParamCount()).isEqualTo(1);
+        Assertions.assertThat(methodMetadata.getInferredClassForReturn()).isEqualTo(String.class);
+        Assertions.assertThat(methodMetadata.getRsocketFrameType()).isEqualTo(FrameType.REQUEST_RESPONSE);
+    }
+
+    @Test
+    public void testKotlinFlow() throws Exception {
+        Method flowMethod = this.getClass().getMethod("findNicks", Integer.class);
+        ReactiveMethodMetadata methodMetadata = new ReactiveMethodMetadata(null, "com.alibaba.user.UserService", "",
+                flowMethod, RSocketMimeType.Hessian, new RSocketMimeType[]{}, null);
+        Assertions.assertThat(methodMetadata.getInferredClassForReturn()).isEqualTo(String.class);
+        Assertions.assertThat(methodMetadata.getRsocketFrameType()).isEqualTo(FrameType.REQUEST_STREAM);
+    }
+
     public Mono<ByteBuffer> findById(Integer id) {
         return Mono.empty();
     }
+
+    /**
+     * compiled form of Kotlin "suspend fun findNickById(id: Int): String"
+     */
+    public Object findNickById(Integer id, Continuation<? super String> continuation) {
+        return "nick";
+    }
+
+    public Flow<String> findNicks(Integer count) {
+        return null;
+    }
 }
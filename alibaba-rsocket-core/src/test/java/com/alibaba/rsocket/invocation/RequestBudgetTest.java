@@ -0,0 +1,33 @@
+package com.alibaba.rsocket.invocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * request budget test
+ *
+ * @author leijuan
+ */
+public class RequestBudgetTest {
+
+    @Test
+    public void testBudget() {
+        RequestBudget budget = new RequestBudget(0.1, 2);
+        //full at beginning
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertFalse(budget.tryWithdraw());
+        Assertions.assertEquals(1, budget.getExhaustedCount());
+        //10 normal requests for 1 extra request
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertFalse(budget.tryWithdraw());
+        //capped by max tokens
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+        }
+        Assertions.assertEquals(2.0, budget.getTokens());
+    }
+}
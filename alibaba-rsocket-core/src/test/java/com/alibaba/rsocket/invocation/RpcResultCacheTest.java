@@ -0,0 +1,149 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.encoding.RSocketEncodingFacade;
+import com.alibaba.rsocket.encoding.impl.TempAccount;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.ByteBufPayload;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.cache.annotation.CacheResult;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RPC result cache test
+ *
+ * @author leijuan
+ */
+public class RpcResultCacheTest {
+
+    @Test
+    public void testStructuralKey() {
+        RpcCacheKey key1 = new RpcCacheKey("UserService.find", new Object[]{1, "nick", new int[]{1, 2}});
+        RpcCacheKey key2 = new RpcCacheKey("UserService.find", new Object[]{1, "nick", new int[]{1, 2}});
+        RpcCacheKey key3 = new RpcCacheKey("UserService.find", new Object[]{2, "nick", new int[]{1, 2}});
+        Assertions.assertEquals(key1, key2);
+        Assertions.assertNotEquals(key1, key3);
+        Assertions.assertEquals(new RpcCacheKey("UserService.find", null), new RpcCacheKey("UserService.find", new Object[]{}));
+        //same arguments for different methods
+        Assertions.assertNotEquals(key1, new RpcCacheKey("UserService.findNick", new Object[]{1, "nick", new int[]{1, 2}}));
+    }
+
+    @Test
+    public void testOnHeap() {
+        RpcResultCache.configure("user-heap", 100, Duration.ofMinutes(1), false);
+        RpcResultCache resultCache = RpcResultCache.getOrCreate("user-heap");
+        RpcCacheKey key = new RpcCacheKey("UserService.find", new Object[]{1});
+        Assertions.assertNull(resultCache.getIfPresent(key));
+        resultCache.put(key, RSocketMimeType.Json, Unpooled.EMPTY_BUFFER, "nick");
+        for (int i = 0; i < 9; i++) {
+            Assertions.assertEquals("nick", resultCache.getIfPresent(new RpcCacheKey("UserService.find", new Object[]{1})));
+        }
+        System.out.println("Hit rate: " + resultCache.hitRate());
+        Assertions.assertEquals(0.9, resultCache.hitRate(), 0.001);
+    }
+
+    @Test
+    public void testOffHeap() {
+        RpcResultCache.configure("user-off-heap", 100, Duration.ofMinutes(1), true);
+        RpcResultCache resultCache = RpcResultCache.getOrCreate("user-off-heap");
+        RpcCacheKey key = new RpcCacheKey("UserService.find", new Object[]{1});
+        ByteBuf data = Unpooled.copiedBuffer("\"nick\"", StandardCharsets.UTF_8);
+        resultCache.put(key, RSocketMimeType.Json, data, "nick");
+        data.release();
+        Object cached = resultCache.getIfPresent(key);
+        Assertions.assertTrue(cached instanceof RpcResultCache.EncodedResult);
+        RpcResultCache.EncodedResult encodedResult = (RpcResultCache.EncodedResult) cached;
+        ByteBuffer buffer = encodedResult.getData();
+        Assertions.assertTrue(buffer.isDirect());
+        Assertions.assertEquals("\"nick\"", StandardCharsets.UTF_8.decode(buffer).toString());
+        //read only duplicated buffer every time
+        Assertions.assertEquals(6, encodedResult.getData().remaining());
+    }
+
+    @Test
+    public void testOffHeapThroughProxy() {
+        RpcResultCache.configure("account-off-heap", 100, Duration.ofMinutes(1), true);
+        AtomicInteger remoteCalls = new AtomicInteger();
+        RSocket rsocket = new AbstractRSocket() {
+            @Override
+            public Mono<Payload> requestResponse(Payload payload) {
+                payload.release();
+                remoteCalls.incrementAndGet();
+                TempAccount account = new TempAccount(1L, "leijuan", new Date());
+                return Mono.just(ByteBufPayload.create(RSocketEncodingFacade.getInstance().encodingResult(account, RSocketMimeType.Hessian), Unpooled.EMPTY_BUFFER));
+            }
+        };
+        RSocketRequesterRpcProxy rpcProxy = new RSocketRequesterRpcProxy(rsocket, "", AccountService.class, null, "",
+                RSocketMimeType.Hessian, null, Duration.ofSeconds(3), null);
+        AccountService accountService = (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(), new Class[]{AccountService.class}, rpcProxy);
+        Assertions.assertEquals("leijuan", accountService.findById(1).block().getName());
+        //cache hit decoded from off heap bytes
+        TempAccount cached = accountService.findById(1).block();
+        Assertions.assertNotNull(cached);
+        Assertions.assertEquals("leijuan", cached.getName());
+        Assertions.assertEquals(1, remoteCalls.get());
+    }
+
+    @Test
+    public void testInvalidate() {
+        RpcResultCache resultCache = RpcResultCache.getOrCreate("user-invalidate");
+        RpcCacheKey key = new RpcCacheKey("UserService.find", new Object[]{1});
+        resultCache.put(key, RSocketMimeType.Json, Unpooled.EMPTY_BUFFER, "nick");
+        RpcCacheKey otherMethodKey = new RpcCacheKey("UserService.findNick", new Object[]{1});
+        RpcCacheKey otherArgsKey = new RpcCacheKey("UserService.find", new Object[]{2});
+        resultCache.put(otherMethodKey, RSocketMimeType.Json, Unpooled.EMPTY_BUFFER, "leijuan");
+        resultCache.put(otherArgsKey, RSocketMimeType.Json, Unpooled.EMPTY_BUFFER, "jacky");
+        RSocketRequesterRpcProxy.invalidateCache("user-invalidate:" + RSocketRequesterRpcProxy.generateCacheKey(1));
+        Assertions.assertNull(resultCache.getIfPresent(key));
+        Assertions.assertNull(resultCache.getIfPresent(otherMethodKey));
+        Assertions.assertEquals("jacky", resultCache.getIfPresent(otherArgsKey));
+    }
+
+    @Test
+    public void testSingleFlight() {
+        RpcResultCache resultCache = RpcResultCache.getOrCreate("config-single-flight");
+        AtomicInteger remoteCalls = new AtomicInteger();
+        Mono<Object> remoteCall = Mono.fromCallable(() -> {
+            remoteCalls.incrementAndGet();
+            return (Object) "config";
+        }).delayElement(Duration.ofMillis(100));
+        List<Object> results = Flux.range(0, 200)
+                .flatMap(i -> resultCache.singleFlight(new RpcCacheKey("UserService.find", new Object[]{"app"}), remoteCall))
+                .collectList()
+                .block();
+        Assertions.assertEquals(200, results.size());
+        System.out.println("Remote calls: " + remoteCalls.get());
+        Assertions.assertEquals(1, remoteCalls.get());
+    }
+
+    @Test
+    public void testSingleFlightError() {
+        RpcResultCache resultCache = RpcResultCache.getOrCreate("config-single-flight-error");
+        AtomicInteger remoteCalls = new AtomicInteger();
+        Mono<Object> remoteCall = Mono.defer(() -> remoteCalls.incrementAndGet() == 1 ? Mono.error(new Exception("timeout")) : Mono.<Object>just("config"));
+        RpcCacheKey key = new RpcCacheKey("UserService.find", new Object[]{"app"});
+        Assertions.assertThrows(Exception.class, () -> resultCache.singleFlight(key, remoteCall).block());
+        Assertions.assertEquals("config", resultCache.singleFlight(key, remoteCall).block());
+        Assertions.assertEquals(2, remoteCalls.get());
+    }
+
+    public interface AccountService {
+        @CacheResult(cacheName = "account-off-heap")
+        Mono<TempAccount> findById(Integer id);
+    }
+}
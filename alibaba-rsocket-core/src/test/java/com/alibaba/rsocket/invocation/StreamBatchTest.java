@@ -0,0 +1,133 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.alibaba.rsocket.rpc.LocalReactiveServiceCallerImpl;
+import com.alibaba.rsocket.rpc.RSocketResponderHandler;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import io.rsocket.util.RSocketProxy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * stream batch test: elements packed per frame by responder and unpacked by requester proxy transparently
+ *
+ * @author leijuan
+ */
+public class StreamBatchTest {
+    private static final AtomicInteger streamFrames = new AtomicInteger();
+    private static Disposable server;
+    private static RSocket rsocket;
+
+    @BeforeAll
+    public static void setUp() {
+        LocalReactiveServiceCallerImpl serviceCaller = new LocalReactiveServiceCallerImpl();
+        serviceCaller.addProvider("", TickService.class.getCanonicalName(), "", TickService.class, new TickServiceImpl());
+        server = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> Mono.just(new RSocketResponderHandler(serviceCaller, null, sendingSocket)))
+                .transport(LocalServerTransport.create("stream-batch"))
+                .start()
+                .block();
+        rsocket = RSocketFactory.connect()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .transport(LocalClientTransport.create("stream-batch"))
+                .start()
+                .block();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        rsocket.dispose();
+        server.dispose();
+    }
+
+    @Test
+    public void testStreamBatch() {
+        int count = 100_000;
+        for (int round = 0; round < 2; round++) {
+            for (boolean streamBatch : new boolean[]{false, true}) {
+                TickService tickService = tickService(streamBatch);
+                streamFrames.set(0);
+                long start = System.nanoTime();
+                List<Integer> ticks = tickService.ticks(count).collectList().block();
+                Assertions.assertEquals(count, ticks.size());
+                Assertions.assertEquals(count - 1, ticks.get(count - 1));
+                System.out.println((streamBatch ? "Batched" : "Unbatched") + " stream: " + count + " elements in "
+                        + (System.nanoTime() - start) / 1_000_000 + "ms, " + streamFrames.get() + " frames");
+            }
+        }
+    }
+
+    @Test
+    public void testBackpressure() {
+        TickService tickService = tickService(true);
+        List<Integer> ticks = tickService.ticks(1000).limitRate(3).take(10).collectList().block();
+        Assertions.assertEquals(10, ticks.size());
+        Assertions.assertEquals(9, ticks.get(9));
+    }
+
+    @Test
+    public void testLingerFlush() {
+        TickService tickService = tickService(true);
+        //partial batch sent after linger, not at the end of the stream
+        Integer first = tickService.slowTicks(3).blockFirst(Duration.ofMillis(500));
+        Assertions.assertEquals(0, first);
+    }
+
+    private TickService tickService(boolean streamBatch) {
+        RSocket countingSocket = new FrameCountingRSocket(rsocket);
+        RSocketRequesterRpcProxy rpcProxy = new RSocketRequesterRpcProxy(countingSocket, "", TickService.class, null, "",
+                RSocketMimeType.Hessian, null, Duration.ofSeconds(3), null);
+        if (streamBatch) {
+            rpcProxy.enableStreamBatch();
+        }
+        return (TickService) Proxy.newProxyInstance(TickService.class.getClassLoader(), new Class[]{TickService.class}, rpcProxy);
+    }
+
+    public interface TickService {
+        Flux<Integer> ticks(Integer count);
+
+        Flux<Integer> slowTicks(Integer count);
+    }
+
+    public static class TickServiceImpl implements TickService {
+        @Override
+        public Flux<Integer> ticks(Integer count) {
+            return Flux.range(0, count);
+        }
+
+        @Override
+        public Flux<Integer> slowTicks(Integer count) {
+            return Flux.range(0, count).concatWith(Flux.never());
+        }
+    }
+
+    /**
+     * count received stream frames
+     */
+    private static class FrameCountingRSocket extends RSocketProxy {
+        FrameCountingRSocket(RSocket source) {
+            super(source);
+        }
+
+        @Override
+        public Flux<Payload> requestStream(Payload payload) {
+            return super.requestStream(payload).doOnNext(frame -> streamFrames.incrementAndGet());
+        }
+    }
+}
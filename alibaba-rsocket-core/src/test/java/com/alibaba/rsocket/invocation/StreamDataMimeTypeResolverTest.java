@@ -0,0 +1,144 @@
+package com.alibaba.rsocket.invocation;
+
+import com.alibaba.rsocket.encoding.RSocketEncodingFacade;
+import com.alibaba.rsocket.encoding.impl.TempAccount;
+import com.alibaba.rsocket.metadata.MessageMimeTypeMetadata;
+import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import com.alibaba.rsocket.rpc.LocalReactiveServiceCallerImpl;
+import com.alibaba.rsocket.rpc.RSocketResponderHandler;
+import io.netty.buffer.ByteBuf;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import io.rsocket.util.ByteBufPayload;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * stream data mime type resolver test: 1M elements stream decoded by requester proxy from local responder,
+ * and data encoding changed in the middle of a stream
+ *
+ * @author leijuan
+ */
+public class StreamDataMimeTypeResolverTest {
+    private static final RSocketEncodingFacade encodingFacade = RSocketEncodingFacade.getInstance();
+    private static Disposable server;
+    private static RSocket rsocket;
+    private static Disposable mixedServer;
+    private static RSocket mixedRSocket;
+
+    @BeforeAll
+    public static void setUp() {
+        LocalReactiveServiceCallerImpl serviceCaller = new LocalReactiveServiceCallerImpl();
+        serviceCaller.addProvider("", AccountService.class.getCanonicalName(), "", AccountService.class, new AccountServiceImpl());
+        server = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> Mono.just(new RSocketResponderHandler(serviceCaller, null, sendingSocket)))
+                .transport(LocalServerTransport.create("stream-mime-type"))
+                .start()
+                .block();
+        rsocket = RSocketFactory.connect()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .transport(LocalClientTransport.create("stream-mime-type"))
+                .start()
+                .block();
+        //responder switches data encoding from JSON to Hessian in the middle of the stream
+        mixedServer = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> Mono.just(new AbstractRSocket() {
+                    @Override
+                    public Flux<Payload> requestStream(Payload payload) {
+                        payload.release();
+                        return Flux.range(0, 4).map(i -> {
+                            RSocketMimeType mimeType = i < 2 ? RSocketMimeType.Json : RSocketMimeType.Hessian;
+                            ByteBuf data = encodingFacade.encodingResult(new TempAccount((long) i, "nick" + i, new Date()), mimeType);
+                            return ByteBufPayload.create(data, RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(mimeType)).getContent());
+                        });
+                    }
+                }))
+                .transport(LocalServerTransport.create("stream-mime-type-mixed"))
+                .start()
+                .block();
+        mixedRSocket = RSocketFactory.connect()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .transport(LocalClientTransport.create("stream-mime-type-mixed"))
+                .start()
+                .block();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        rsocket.dispose();
+        server.dispose();
+        mixedRSocket.dispose();
+        mixedServer.dispose();
+    }
+
+    @Test
+    public void testResolve() {
+        StreamDataMimeTypeResolver resolver = new StreamDataMimeTypeResolver(RSocketMimeType.Hessian);
+        ByteBuf jsonMetadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(RSocketMimeType.Json)).getContent();
+        ByteBuf protobufMetadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(RSocketMimeType.Protobuf)).getContent();
+        Assertions.assertEquals(RSocketMimeType.Json, resolver.resolve(jsonMetadata));
+        Assertions.assertEquals(RSocketMimeType.Json, resolver.resolve(jsonMetadata));
+        Assertions.assertEquals(RSocketMimeType.Protobuf, resolver.resolve(protobufMetadata));
+        Assertions.assertEquals(RSocketMimeType.Hessian, new StreamDataMimeTypeResolver(RSocketMimeType.Hessian).resolve(RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(RSocketMimeType.Hessian)).getContent()));
+    }
+
+    @Test
+    public void testStreamDecode() {
+        AccountService accountService = accountService(rsocket);
+        int count = 1_000_000;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            TempAccount last = accountService.findAll(count).last().block();
+            Assertions.assertNotNull(last);
+            Assertions.assertEquals(count - 1, last.getId().longValue());
+            System.out.println("Stream with " + count + " elements decoded in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        }
+    }
+
+    @Test
+    public void testEncodingChanged() {
+        List<String> names = accountService(mixedRSocket).findAll(4)
+                .map(TempAccount::getName)
+                .collectList()
+                .block();
+        Assertions.assertEquals(IntStream.range(0, 4).mapToObj(i -> "nick" + i).collect(Collectors.toList()), names);
+    }
+
+    private AccountService accountService(RSocket rsocket) {
+        RSocketRequesterRpcProxy rpcProxy = new RSocketRequesterRpcProxy(rsocket, "", AccountService.class, null, "",
+                RSocketMimeType.Json, null, Duration.ofSeconds(3), null);
+        return (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(), new Class[]{AccountService.class}, rpcProxy);
+    }
+
+    public interface AccountService {
+        Flux<TempAccount> findAll(Integer count);
+    }
+
+    public static class AccountServiceImpl implements AccountService {
+        @Override
+        public Flux<TempAccount> findAll(Integer count) {
+            Date birth = new Date();
+            return Flux.range(0, count).map(i -> new TempAccount((long) i, "leijuan", birth));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.alibaba.rsocket.loadbalance;
+
+import com.alibaba.rsocket.RSocketRequesterSupport;
+import com.alibaba.rsocket.ServiceLocator;
+import com.alibaba.rsocket.events.ServicesExposedEvent;
+import com.alibaba.rsocket.metadata.AppMetadata;
+import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
+import io.cloudevents.v1.CloudEventImpl;
+import io.netty.buffer.Unpooled;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.SocketAcceptor;
+import io.rsocket.plugins.RSocketInterceptor;
+import io.rsocket.util.DefaultPayload;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * demo requester support for load balance tests: app metadata with fixed uuid and no exposed services
+ *
+ * @author leijuan
+ */
+public class DemoRequesterSupport implements RSocketRequesterSupport {
+    private final String uuid = UUID.randomUUID().toString();
+    private final int connectionsPerUri;
+
+    public DemoRequesterSupport(int connectionsPerUri) {
+        this.connectionsPerUri = connectionsPerUri;
+    }
+
+    @Override
+    public Supplier<Payload> setupPayload() {
+        return () -> {
+            AppMetadata appMetadata = new AppMetadata();
+            appMetadata.setUuid(uuid);
+            appMetadata.setName("demo-app");
+            return DefaultPayload.create(Unpooled.EMPTY_BUFFER, RSocketCompositeMetadata.from(appMetadata).getContent());
+        };
+    }
+
+    @Override
+    public Supplier<Set<ServiceLocator>> exposedServices() {
+        return Collections::emptySet;
+    }
+
+    @Override
+    public Supplier<Set<ServiceLocator>> subscribedServices() {
+        return Collections::emptySet;
+    }
+
+    @Override
+    public Supplier<CloudEventImpl<ServicesExposedEvent>> servicesExposedEvent() {
+        return () -> null;
+    }
+
+    @Override
+    public SocketAcceptor socketAcceptor() {
+        return (setup, sendingSocket) -> Mono.just(new AbstractRSocket() {
+        });
+    }
+
+    @Override
+    public List<RSocketInterceptor> responderInterceptors() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<RSocketInterceptor> requestInterceptors() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int connectionsPerUri() {
+        return connectionsPerUri;
+    }
+}
@@ -0,0 +1,55 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.util.DefaultPayload;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * hedged request test: duplicated request only sent to another rsocket
+ *
+ * @author leijuan
+ */
+public class HedgedRequestTest {
+
+    @Test
+    public void testSingleUpstream() {
+        LoadBalancedRSocket loadBalancedRSocket = new LoadBalancedRSocket("Demo", Flux.never(), new DemoRequesterSupport(1));
+        SlowRSocket slow = new SlowRSocket();
+        loadBalancedRSocket.onRSocketReconnected("fake://slow", new WeightedRSocket(slow, Duration.ZERO));
+        Payload response = loadBalancedRSocket.requestResponse(DefaultPayload.create("ping"), Duration.ofMillis(10), () -> true).block();
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals(1, slow.requests.get());
+        loadBalancedRSocket.dispose();
+    }
+
+    @Test
+    public void testHedged() {
+        LoadBalancedRSocket loadBalancedRSocket = new LoadBalancedRSocket("Demo", Flux.never(), new DemoRequesterSupport(1));
+        SlowRSocket first = new SlowRSocket();
+        SlowRSocket second = new SlowRSocket();
+        loadBalancedRSocket.onRSocketReconnected("fake://first", new WeightedRSocket(first, Duration.ZERO));
+        loadBalancedRSocket.onRSocketReconnected("fake://second", new WeightedRSocket(second, Duration.ZERO));
+        Payload response = loadBalancedRSocket.requestResponse(DefaultPayload.create("ping"), Duration.ofMillis(10), () -> true).block();
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals(1, first.requests.get());
+        Assertions.assertEquals(1, second.requests.get());
+        loadBalancedRSocket.dispose();
+    }
+
+    private static class SlowRSocket extends AbstractRSocket {
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public Mono<Payload> requestResponse(Payload payload) {
+            requests.incrementAndGet();
+            return Mono.just(DefaultPayload.create("pong")).delayElement(Duration.ofMillis(100));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.AbstractRSocket;
+import io.rsocket.RSocket;
+import io.rsocket.RSocketFactory;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * keepalive health test: RTT measured by KEEPALIVE frames echoed by peer, and degraded by RTT or missed acks
+ *
+ * @author leijuan
+ */
+public class KeepAliveHealthTest {
+    private static Disposable server;
+
+    @BeforeAll
+    public static void setUp() {
+        server = RSocketFactory.receive()
+                .acceptor((setup, sendingSocket) -> Mono.just(new AbstractRSocket() {
+                }))
+                .transport(LocalServerTransport.create("keepalive-health"))
+                .start()
+                .block();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        server.dispose();
+    }
+
+    @Test
+    public void testRtt() throws Exception {
+        KeepAliveHealth keepAliveHealth = new KeepAliveHealth();
+        RSocket rsocket = connect(keepAliveHealth);
+        long start = System.nanoTime();
+        keepAliveHealth.probe();
+        waitForAck(keepAliveHealth);
+        System.out.println("keepalive RTT: " + keepAliveHealth.getRttMillis() + "ms, waited " + (System.nanoTime() - start) / 1000 + "us");
+        Assertions.assertTrue(keepAliveHealth.getRttMillis() > 0);
+        Assertions.assertEquals(0, keepAliveHealth.getMissed());
+        Assertions.assertFalse(keepAliveHealth.isDegraded());
+        rsocket.dispose();
+        Assertions.assertTrue(keepAliveHealth.isDisposed());
+    }
+
+    @Test
+    public void testDegraded() throws Exception {
+        KeepAliveHealth keepAliveHealth = new KeepAliveHealth();
+        keepAliveHealth.setMissedThreshold(0);
+        RSocket rsocket = connect(keepAliveHealth);
+        WeightedRSocket weightedRSocket = new WeightedRSocket(rsocket, Duration.ZERO, keepAliveHealth);
+        double healthyCost = weightedRSocket.cost();
+        keepAliveHealth.probe();
+        waitForAck(keepAliveHealth);
+        Assertions.assertFalse(weightedRSocket.isDegraded());
+        //RTT threshold crossed
+        keepAliveHealth.setRttThreshold(Duration.ZERO);
+        Assertions.assertTrue(weightedRSocket.isDegraded());
+        Assertions.assertTrue(weightedRSocket.cost() > healthyCost * 5);
+        rsocket.dispose();
+    }
+
+    @Test
+    public void testProbeInterval() throws Exception {
+        KeepAliveHealth keepAliveHealth = new KeepAliveHealth();
+        keepAliveHealth.setInterval(Duration.ofMillis(200), Duration.ZERO);
+        RSocket rsocket = connect(keepAliveHealth);
+        Assertions.assertFalse(keepAliveHealth.probeIfDue());
+        Thread.sleep(250);
+        Assertions.assertTrue(keepAliveHealth.probeIfDue());
+        waitForAck(keepAliveHealth);
+        //no probe after connection closed, so no missed ack
+        rsocket.dispose();
+        keepAliveHealth.probe();
+        Assertions.assertEquals(0, keepAliveHealth.getMissed());
+    }
+
+    private RSocket connect(KeepAliveHealth keepAliveHealth) {
+        return RSocketFactory.connect()
+                .addConnectionPlugin(keepAliveHealth)
+                .transport(LocalClientTransport.create("keepalive-health"))
+                .start()
+                .block();
+    }
+
+    private void waitForAck(KeepAliveHealth keepAliveHealth) throws InterruptedException {
+        for (int i = 0; i < 100 && keepAliveHealth.getLastAckAt() == 0; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(keepAliveHealth.getLastAckAt() > 0);
+    }
+}
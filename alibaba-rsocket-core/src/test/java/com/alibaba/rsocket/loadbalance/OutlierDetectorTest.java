@@ -0,0 +1,120 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.exceptions.RejectedException;
+import io.rsocket.util.DefaultPayload;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * outlier detector test: consecutive failures, failure rate, latency deviation and exponential ejection
+ *
+ * @author leijuan
+ */
+public class OutlierDetectorTest {
+    private final OutlierDetector outlierDetector = new OutlierDetector();
+
+    @Test
+    public void testConsecutiveFailures() {
+        WeightedRSocket rsocket = new WeightedRSocket(new FailingRSocket(new RejectedException("busy")), Duration.ZERO);
+        for (int i = 0; i < 5; i++) {
+            request(rsocket);
+        }
+        Assertions.assertEquals(5, rsocket.getConsecutiveFailures());
+        Assertions.assertNotNull(outlierDetector.detect(rsocket, 0));
+    }
+
+    @Test
+    public void testApplicationErrorIgnored() {
+        WeightedRSocket rsocket = new WeightedRSocket(new FailingRSocket(new ApplicationErrorException("user not found")), Duration.ZERO);
+        for (int i = 0; i < 30; i++) {
+            request(rsocket);
+        }
+        Assertions.assertEquals(0, rsocket.getConsecutiveFailures());
+        Assertions.assertEquals(30, rsocket.getIntervalRequests());
+        Assertions.assertNull(outlierDetector.detect(rsocket, 0));
+    }
+
+    @Test
+    public void testFailureRate() {
+        WeightedRSocket rsocket = new WeightedRSocket(new FailingRSocket(new RejectedException("busy")), Duration.ZERO);
+        for (int i = 0; i < 30; i++) {
+            rsocket.recordFailure(new RejectedException("busy"));
+            rsocket.recordSuccess();
+        }
+        Assertions.assertEquals(0, rsocket.getConsecutiveFailures());
+        Assertions.assertNotNull(outlierDetector.detect(rsocket, 0));
+        rsocket.resetIntervalStats();
+        Assertions.assertNull(outlierDetector.detect(rsocket, 0));
+    }
+
+    @Test
+    public void testLatencyDeviation() {
+        WeightedRSocket fast1 = latency(Duration.ofMillis(5));
+        WeightedRSocket fast2 = latency(Duration.ofMillis(6));
+        WeightedRSocket slow = latency(Duration.ofMillis(100));
+        double median = OutlierDetector.medianLatencyMillis(Arrays.asList(fast1, fast2, slow));
+        Assertions.assertEquals(6, median, 0.5);
+        Assertions.assertNull(outlierDetector.detect(fast1, median));
+        Assertions.assertNotNull(outlierDetector.detect(slow, median));
+    }
+
+    @Test
+    public void testEjection() {
+        WeightedRSocket rsocket = new WeightedRSocket(new FailingRSocket(new RejectedException("busy")), Duration.ZERO);
+        Duration base = Duration.ofSeconds(30);
+        Duration max = Duration.ofMinutes(5);
+        Assertions.assertEquals(Duration.ofSeconds(30), rsocket.eject(base, max, "test"));
+        Assertions.assertTrue(rsocket.isEjected());
+        Assertions.assertFalse(rsocket.startProbe());
+        Assertions.assertEquals(Duration.ofSeconds(60), rsocket.eject(base, max, "probe failed"));
+        Assertions.assertEquals(Duration.ofSeconds(120), rsocket.eject(base, max, "probe failed"));
+        Assertions.assertEquals(Duration.ofSeconds(240), rsocket.eject(base, max, "probe failed"));
+        Assertions.assertEquals(max, rsocket.eject(base, max, "probe failed"));
+        rsocket.reinstate();
+        Assertions.assertFalse(rsocket.isEjected());
+        Assertions.assertEquals(0, rsocket.eject(Duration.ZERO, max, "test").toMillis());
+        Assertions.assertTrue(rsocket.startProbe());
+        Assertions.assertFalse(rsocket.startProbe());
+    }
+
+    @Test
+    public void testMaxEjected() {
+        Assertions.assertEquals(0, outlierDetector.maxEjected(1));
+        Assertions.assertEquals(1, outlierDetector.maxEjected(2));
+        Assertions.assertEquals(1, outlierDetector.maxEjected(3));
+        Assertions.assertEquals(5, outlierDetector.maxEjected(10));
+    }
+
+    private WeightedRSocket latency(Duration latency) {
+        WeightedRSocket rsocket = new WeightedRSocket(new FailingRSocket(null), Duration.ZERO);
+        for (int i = 0; i < 20; i++) {
+            rsocket.recordSuccess();
+        }
+        rsocket.observe(latency.toNanos());
+        return rsocket;
+    }
+
+    private void request(WeightedRSocket rsocket) {
+        rsocket.requestResponse(DefaultPayload.create("ping")).onErrorResume(error -> Mono.empty()).block();
+    }
+
+    private static class FailingRSocket extends AbstractRSocket {
+        private final Throwable error;
+
+        FailingRSocket(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public Mono<Payload> requestResponse(Payload payload) {
+            return error == null ? Mono.just(payload) : Mono.error(error);
+        }
+    }
+}
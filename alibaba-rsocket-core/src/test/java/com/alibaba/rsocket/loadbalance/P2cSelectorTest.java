@@ -0,0 +1,70 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.util.DefaultPayload;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * power of two choices selector test: slow or new connected rsocket gets less requests
+ *
+ * @author leijuan
+ */
+public class P2cSelectorTest {
+
+    @Test
+    public void testDrainFromSlowRSocket() {
+        CountingRSocket fast = new CountingRSocket(Duration.ofMillis(1));
+        CountingRSocket slow = new CountingRSocket(Duration.ofMillis(50));
+        P2cSelector selector = new P2cSelector("Demo", Arrays.asList(new WeightedRSocket(fast, Duration.ZERO), new WeightedRSocket(slow, Duration.ZERO)));
+        Flux.range(0, 1000)
+                .flatMap(i -> selector.get().flatMap(rsocket -> rsocket.requestResponse(DefaultPayload.create("ping"))), 16)
+                .blockLast();
+        System.out.println("fast: " + fast.requests.get() + ", slow: " + slow.requests.get());
+        Assertions.assertTrue(fast.requests.get() > slow.requests.get() * 5);
+    }
+
+    @Test
+    public void testSlowStart() {
+        WeightedRSocket established = new WeightedRSocket(new CountingRSocket(Duration.ZERO), Duration.ZERO);
+        WeightedRSocket connected = new WeightedRSocket(new CountingRSocket(Duration.ZERO), Duration.ofMinutes(1));
+        Assertions.assertEquals(1.0, established.slowStartWeight());
+        Assertions.assertTrue(connected.slowStartWeight() < 0.2);
+        Assertions.assertTrue(connected.cost() > established.cost() * 5);
+        P2cSelector selector = new P2cSelector("Demo", Arrays.asList(established, connected));
+        Assertions.assertSame(established, selector.next());
+        Assertions.assertSame(connected, selector.nextExcluding(established));
+    }
+
+    @Test
+    public void testSingleAndEmpty() {
+        WeightedRSocket rsocket = new WeightedRSocket(new CountingRSocket(Duration.ZERO), Duration.ZERO);
+        Assertions.assertSame(rsocket, new P2cSelector("Demo", Collections.singletonList(rsocket)).next());
+        Assertions.assertSame(rsocket, new P2cSelector("Demo", Collections.singletonList(rsocket)).nextExcluding(rsocket));
+        Assertions.assertNull(new P2cSelector("Demo", Collections.emptyList()).next());
+        Assertions.assertThrows(NoAvailableConnectionException.class, () -> new P2cSelector("Demo", Collections.emptyList()).get().block());
+    }
+
+    private static class CountingRSocket extends AbstractRSocket {
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Duration latency;
+
+        CountingRSocket(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public Mono<Payload> requestResponse(Payload payload) {
+            requests.incrementAndGet();
+            return Mono.delay(latency).map(tick -> payload);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.alibaba.rsocket.loadbalance;
+
+import com.alibaba.rsocket.metadata.AppMetadata;
+import com.alibaba.rsocket.metadata.RSocketCompositeMetadata;
+import com.alibaba.rsocket.metadata.RSocketMimeType;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocketFactory;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import io.rsocket.util.DefaultPayload;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * pooled RSocket test: least in-flight selection, and single client throughput with 1, 2, 4 and 8 connections per uri
+ *
+ * @author leijuan
+ */
+public class PooledRSocketTest {
+    private static final Set<String> connectedUuids = ConcurrentHashMap.newKeySet();
+    private static CloseableChannel server;
+    private static String uri;
+
+    @BeforeAll
+    public static void setUp() {
+        server = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> {
+                    RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(setup.sliceMetadata());
+                    connectedUuids.add(AppMetadata.from(compositeMetadata.getMetadata(RSocketMimeType.Application)).getUuid());
+                    return Mono.just(new AbstractRSocket() {
+                        @Override
+                        public Mono<Payload> requestResponse(Payload payload) {
+                            return Mono.just(payload);
+                        }
+                    });
+                })
+                .transport(TcpServerTransport.create("127.0.0.1", 0))
+                .start()
+                .block();
+        uri = "tcp://127.0.0.1:" + server.address().getPort();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        server.dispose();
+    }
+
+    @Test
+    public void testLeastInFlight() {
+        PooledRSocket pooledRSocket = new PooledRSocket(Arrays.asList(new NeverRSocket(), new NeverRSocket(), new NeverRSocket()));
+        for (int i = 0; i < 3; i++) {
+            pooledRSocket.requestResponse(DefaultPayload.create("ping")).subscribe();
+        }
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(1, pooledRSocket.getInFlight(i));
+        }
+        pooledRSocket.dispose();
+        Assertions.assertTrue(pooledRSocket.isDisposed());
+    }
+
+    @Test
+    public void testClosedWithConnection() {
+        NeverRSocket connection = new NeverRSocket();
+        PooledRSocket pooledRSocket = new PooledRSocket(Arrays.asList(new NeverRSocket(), connection));
+        connection.dispose();
+        Assertions.assertTrue(pooledRSocket.isDisposed());
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        int requests = 200_000;
+        for (int connections : new int[]{1, 2, 4, 8}) {
+            connectedUuids.clear();
+            LoadBalancedRSocket loadBalancedRSocket = new LoadBalancedRSocket("Demo", Flux.just(Collections.singletonList(uri)), new DemoRequesterSupport(connections));
+            while (loadBalancedRSocket.getActiveSockets().isEmpty()) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(connections, connectedUuids.size());
+            for (int round = 0; round < 2; round++) {
+                long start = System.nanoTime();
+                Flux.range(0, requests)
+                        .flatMap(i -> loadBalancedRSocket.requestResponse(DefaultPayload.create("ping")), 256)
+                        .blockLast();
+                long elapsed = System.nanoTime() - start;
+                System.out.println(connections + " connections: " + requests + " requests in " + elapsed / 1_000_000 + "ms, "
+                        + (requests * 1_000_000_000L / elapsed) + " req/s");
+            }
+            loadBalancedRSocket.dispose();
+        }
+    }
+
+    private static class NeverRSocket extends AbstractRSocket {
+        @Override
+        public Mono<Payload> requestResponse(Payload payload) {
+            return Mono.never();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.exceptions.RejectedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * reconnect backoff test: exponential ceiling with full jitter, and warmup before reconnected rsocket joins load balance
+ *
+ * @author leijuan
+ */
+public class ReconnectBackoffTest {
+    private final ReconnectBackoff backoff = new ReconnectBackoff(Duration.ofSeconds(1), Duration.ofSeconds(60));
+
+    @Test
+    public void testCeiling() {
+        Assertions.assertEquals(1000, backoff.ceilingMillis(1));
+        Assertions.assertEquals(2000, backoff.ceilingMillis(2));
+        Assertions.assertEquals(32000, backoff.ceilingMillis(6));
+        Assertions.assertEquals(60000, backoff.ceilingMillis(7));
+        Assertions.assertEquals(60000, backoff.ceilingMillis(1000));
+    }
+
+    @Test
+    public void testFullJitter() {
+        Set<Long> delays = new HashSet<>();
+        long total = 0;
+        for (int i = 0; i < 1000; i++) {
+            long delay = backoff.delay(5).toMillis();
+            Assertions.assertTrue(delay >= 0 && delay <= 16000);
+            delays.add(delay);
+            total += delay;
+        }
+        System.out.println("distinct delays: " + delays.size() + ", average: " + total / 1000 + "ms");
+        //clients disconnected at the same time spread reconnect over the window
+        Assertions.assertTrue(delays.size() > 500);
+    }
+
+    @Test
+    public void testWarmup() {
+        LoadBalancedRSocket loadBalancedRSocket = new LoadBalancedRSocket("Demo", Flux.never(), new DemoRequesterSupport(1));
+        ProbeRSocket healthy = new ProbeRSocket(null);
+        Assertions.assertSame(healthy, loadBalancedRSocket.warmup(healthy).block());
+        Assertions.assertEquals(3, healthy.probes.get());
+        ProbeRSocket noHealthService = new ProbeRSocket(new ApplicationErrorException("service not found"));
+        Assertions.assertSame(noHealthService, loadBalancedRSocket.warmup(noHealthService).block());
+        ProbeRSocket rejected = new ProbeRSocket(new RejectedException("busy"));
+        Assertions.assertThrows(RejectedException.class, () -> loadBalancedRSocket.warmup(rejected).block());
+        Assertions.assertEquals(1, rejected.probes.get());
+        Assertions.assertTrue(rejected.isDisposed());
+        loadBalancedRSocket.dispose();
+    }
+
+    private static class ProbeRSocket extends AbstractRSocket {
+        private final AtomicInteger probes = new AtomicInteger();
+        private final RuntimeException error;
+
+        ProbeRSocket(RuntimeException error) {
+            this.error = error;
+        }
+
+        @Override
+        public Mono<Payload> requestResponse(Payload payload) {
+            probes.incrementAndGet();
+            return error == null ? Mono.just(payload) : Mono.error(error);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.alibaba.rsocket.loadbalance;
+
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocketFactory;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import io.rsocket.util.DefaultPayload;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * upstream membership test: immutable snapshot diff, and stress with concurrent refresh, close and reconnect events under load
+ *
+ * @author leijuan
+ */
+public class UpstreamMembershipTest {
+
+    @Test
+    public void testSnapshot() {
+        WeightedRSocket first = new WeightedRSocket(new EchoRSocket(), Duration.ZERO);
+        WeightedRSocket second = new WeightedRSocket(new EchoRSocket(), Duration.ZERO);
+        UpstreamMembership empty = UpstreamMembership.empty("Demo");
+        UpstreamMembership membership = empty.with("tcp://first", first).with("tcp://second", second);
+        Assertions.assertTrue(empty.isEmpty());
+        Assertions.assertEquals(2, membership.size());
+        Assertions.assertEquals(2, membership.getSelector().size());
+        Assertions.assertSame(membership, membership.with("tcp://first", first));
+        Assertions.assertSame(membership, membership.without("tcp://first", second));
+        Assertions.assertSame(membership, membership.retain(Arrays.asList("tcp://first", "tcp://second", "tcp://third")));
+        Assertions.assertEquals(Collections.singleton("tcp://second"), membership.retain(Collections.singletonList("tcp://second")).getSockets().keySet());
+        Assertions.assertFalse(membership.without("tcp://first", first).contains("tcp://first"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> membership.getSockets().remove("tcp://first"));
+        first.eject(Duration.ofSeconds(30), Duration.ofMinutes(5), "test");
+        Assertions.assertEquals(2, membership.getSelector().size());
+        Assertions.assertEquals(1, membership.reselect().getSelector().size());
+    }
+
+    @Test
+    public void testStress() throws Exception {
+        CloseableChannel server = RSocketFactory.receive()
+                .frameDecoder(PayloadDecoder.ZERO_COPY)
+                .acceptor((setup, sendingSocket) -> Mono.just(new EchoRSocket()))
+                .transport(TcpServerTransport.create("127.0.0.1", 0))
+                .start()
+                .block();
+        int port = server.address().getPort();
+        String stableUri = "tcp://127.0.0.1:" + port;
+        String flappingUri = "tcp://localhost:" + port;
+        DirectProcessor<Collection<String>> urisProcessor = DirectProcessor.create();
+        LoadBalancedRSocket loadBalancedRSocket = new LoadBalancedRSocket("Demo", urisProcessor, new DemoRequesterSupport(1));
+        urisProcessor.onNext(Arrays.asList(stableUri, flappingUri));
+        while (loadBalancedRSocket.getActiveSockets().size() < 2) {
+            Thread.sleep(10);
+        }
+        int requests = 200_000;
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong events = new AtomicLong();
+        CountDownLatch loadFinished = new CountDownLatch(1);
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> loadBalancedRSocket.requestResponse(DefaultPayload.create("ping")), 256)
+                .subscribe(payload -> succeeded.incrementAndGet(), error -> {
+                    errors.add(error);
+                    loadFinished.countDown();
+                }, loadFinished::countDown);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        //refresh: flapping uri removed and added again
+        executor.submit(() -> {
+            for (int i = 0; loadFinished.getCount() > 0 && i < 20; i++) {
+                urisProcessor.onNext(i % 2 == 0 ? Collections.singletonList(stableUri) : Arrays.asList(stableUri, flappingUri));
+                events.incrementAndGet();
+                sleep(20);
+            }
+        });
+        //reconnect and close for fake uris
+        for (int thread = 0; thread < 2; thread++) {
+            executor.submit(() -> {
+                Random random = new Random();
+                while (loadFinished.getCount() > 0) {
+                    String fakeUri = "fake://" + random.nextInt(4);
+                    WeightedRSocket current = loadBalancedRSocket.getMembership().get(fakeUri);
+                    if (current == null) {
+                        loadBalancedRSocket.onRSocketReconnected(fakeUri, new WeightedRSocket(new EchoRSocket(), Duration.ZERO));
+                    } else {
+                        loadBalancedRSocket.onRSocketClosed(fakeUri, current);
+                    }
+                    events.incrementAndGet();
+                    sleep(1);
+                }
+            });
+        }
+        Assertions.assertTrue(loadFinished.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        System.out.println(requests + " requests with " + events.get() + " membership events in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        Assertions.assertTrue(errors.isEmpty(), () -> errors.get(0).toString());
+        Assertions.assertEquals(requests, succeeded.get());
+        //selector is consistent with sockets in the same snapshot
+        UpstreamMembership membership = loadBalancedRSocket.getMembership();
+        Assertions.assertTrue(membership.contains(stableUri));
+        for (WeightedRSocket rsocket : membership.getSelector().getElements()) {
+            Assertions.assertTrue(membership.getSockets().containsValue(rsocket));
+        }
+        loadBalancedRSocket.dispose();
+        server.dispose();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ignore) {
+
+        }
+    }
+
+    private static class EchoRSocket extends AbstractRSocket {
+        @Override
+        public Mono<Payload> requestResponse(Payload payload) {
+            return Mono.just(payload);
+        }
+    }
+}
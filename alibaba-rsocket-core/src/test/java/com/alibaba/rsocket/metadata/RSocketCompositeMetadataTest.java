@@ -5,6 +5,7 @@ import io.cloudevents.v1.CloudEventBuilder;
 import io.cloudevents.v1.CloudEventImpl;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.rsocket.Payload;
 import io.rsocket.metadata.WellKnownMimeType;
 import io.rsocket.util.ByteBufPayload;
@@ -94,6 +95,23 @@ public class RSocketCompositeMetadataTest {
         Assertions.assertEquals(serviceId, remoteServiceId);
     }
 
+    @Test
+    public void testCompressionMetadata() {
+        ByteBuf compositeMetadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(RSocketMimeType.Json),
+                new MessageAcceptMimeTypesMetadata(RSocketMimeType.Json, RSocketMimeType.MessageCompression)).getContent();
+        Assertions.assertNull(MessageCompressionMetadata.find(compositeMetadata));
+        ByteBuf withCompression = Unpooled.wrappedBuffer(compositeMetadata,
+                MessageCompressionMetadata.encodeEntry(UnpooledByteBufAllocator.DEFAULT, MessageCompressionMetadata.DEFLATE, 10240));
+        MessageCompressionMetadata compressionMetadata = MessageCompressionMetadata.find(withCompression);
+        Assertions.assertNotNull(compressionMetadata);
+        Assertions.assertEquals(MessageCompressionMetadata.DEFLATE, compressionMetadata.getAlgorithm());
+        Assertions.assertEquals(10240, compressionMetadata.getUncompressedLength());
+        RSocketCompositeMetadata temp = RSocketCompositeMetadata.from(withCompression);
+        MessageAcceptMimeTypesMetadata acceptMimeTypesMetadata = temp.getAcceptMimeTypesMetadata();
+        Assertions.assertTrue(acceptMimeTypesMetadata.contains(RSocketMimeType.MessageCompression));
+        Assertions.assertEquals(RSocketMimeType.Json, acceptMimeTypesMetadata.getFirstAcceptType());
+    }
+
     public static Payload cloudEventToPayload(CloudEventImpl<?> cloudEvent) {
         RSocketCompositeMetadata compositeMetadata = RSocketCompositeMetadata.from(new MessageMimeTypeMetadata(RSocketMimeType.CloudEventsJson));
         return ByteBufPayload.create(Unpooled.wrappedBuffer(Json.binaryEncode(cloudEvent)), compositeMetadata.getContent());
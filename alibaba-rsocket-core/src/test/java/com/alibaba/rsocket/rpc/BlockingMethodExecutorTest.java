@@ -0,0 +1,115 @@
+package com.alibaba.rsocket.rpc;
+
+import com.alibaba.rsocket.Blocking;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * blocking method executor test
+ *
+ * @author leijuan
+ */
+public class BlockingMethodExecutorTest {
+
+    @Test
+    public void testBlockingDetection() throws Exception {
+        UserServiceImpl handler = new UserServiceImpl();
+        Assertions.assertTrue(new ReactiveMethodHandler(UserService.class, UserService.class.getMethod("findNick", Integer.class), handler).isBlocking());
+        Assertions.assertFalse(new ReactiveMethodHandler(UserService.class, UserService.class.getMethod("findById", Integer.class), handler).isBlocking());
+        Assertions.assertTrue(new ReactiveMethodHandler(UserService.class, UserService.class.getMethod("findByJdbc", Integer.class), handler).isBlocking());
+    }
+
+    @Test
+    public void testSubmit() {
+        BlockingMethodExecutor executor = new BlockingMethodExecutor(BlockingMethodExecutor.threadPool(4, 1000));
+        long start = System.currentTimeMillis();
+        List<String> threads = Flux.range(0, 8)
+                .flatMap(i -> executor.submit(() -> {
+                    Thread.sleep(100);
+                    return Thread.currentThread().getName();
+                }))
+                .collectList()
+                .block();
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("Elapsed: " + elapsed + "ms, threads: " + threads);
+        Assertions.assertEquals(8, threads.size());
+        Assertions.assertTrue(threads.stream().allMatch(name -> name.startsWith("rsocket-blocking-")));
+        Assertions.assertEquals(0, executor.getQueueDepth());
+        Assertions.assertNull(executor.submit(() -> null).block());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        BlockingMethodExecutor executor = new BlockingMethodExecutor(BlockingMethodExecutor.threadPool(1, 10));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger invoked = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        Disposable busy = executor.submit(() -> {
+            running.countDown();
+            Thread.sleep(200);
+            return "busy";
+        }, () -> {
+            cancelled.incrementAndGet();
+            finished.countDown();
+        }).subscribe();
+        running.await();
+        //queued task cancelled before started
+        Disposable queued = executor.submit(invoked::incrementAndGet, cancelled::incrementAndGet).subscribe();
+        queued.dispose();
+        Assertions.assertEquals(1, cancelled.get());
+        //running task cancelled, and callback run after finished
+        busy.dispose();
+        Assertions.assertEquals(1, cancelled.get());
+        Assertions.assertTrue(finished.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("nick", executor.submit(() -> "nick").block());
+        Assertions.assertEquals(0, invoked.get());
+        Assertions.assertEquals(2, cancelled.get());
+    }
+
+    @Test
+    public void testRejected() {
+        Executor rejecting = command -> {
+            throw new RejectedExecutionException("queue full");
+        };
+        BlockingMethodExecutor executor = new BlockingMethodExecutor(rejecting);
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "nick").block());
+        Assertions.assertEquals(0, executor.getQueueDepth());
+    }
+
+    public interface UserService {
+        String findNick(Integer id);
+
+        Mono<String> findById(Integer id);
+
+        Mono<String> findByJdbc(Integer id);
+    }
+
+    public static class UserServiceImpl implements UserService {
+        @Override
+        public String findNick(Integer id) {
+            return "nick";
+        }
+
+        @Override
+        public Mono<String> findById(Integer id) {
+            return Mono.just("nick");
+        }
+
+        @Override
+        @Blocking
+        public Mono<String> findByJdbc(Integer id) {
+            return Mono.just("nick");
+        }
+    }
+}
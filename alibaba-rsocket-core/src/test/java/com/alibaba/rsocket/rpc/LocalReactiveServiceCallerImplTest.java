@@ -0,0 +1,70 @@
+package com.alibaba.rsocket.rpc;
+
+import com.alibaba.rsocket.metadata.GSVRoutingMetadata;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * local reactive service caller test: handler id dispatch and text routing
+ *
+ * @author leijuan
+ */
+public class LocalReactiveServiceCallerImplTest {
+    private static final String SERVICE_NAME = "com.alibaba.user.UserService";
+    private LocalReactiveServiceCallerImpl serviceCaller;
+
+    @BeforeEach
+    public void setUp() {
+        serviceCaller = new LocalReactiveServiceCallerImpl();
+        serviceCaller.addProvider("", SERVICE_NAME, "", UserService.class, new UserServiceImpl());
+    }
+
+    @Test
+    public void testHandlerIdDispatch() {
+        int handlerId = new GSVRoutingMetadata("", SERVICE_NAME, "findNickById", "").handlerId();
+        ReactiveMethodHandler methodHandler = serviceCaller.getInvokeMethod(handlerId);
+        Assertions.assertNotNull(methodHandler);
+        Assertions.assertSame(serviceCaller.getInvokeMethod(SERVICE_NAME, "findNickById"), methodHandler);
+        Assertions.assertEquals(SERVICE_NAME, methodHandler.getServiceName());
+        Assertions.assertTrue(serviceCaller.containsHandler(handlerId));
+        Assertions.assertNull(serviceCaller.getInvokeMethod(handlerId + 1));
+    }
+
+    @Test
+    public void testLookupCost() {
+        int handlerId = new GSVRoutingMetadata("", SERVICE_NAME, "findNickById", "").handlerId();
+        int count = 10_000_000;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                serviceCaller.getInvokeMethod(SERVICE_NAME, "findNickById");
+            }
+            System.out.println("Text routing: " + (System.nanoTime() - start) / count + "ns per lookup");
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                serviceCaller.getInvokeMethod(handlerId);
+            }
+            System.out.println("Handler id: " + (System.nanoTime() - start) / count + "ns per lookup");
+        }
+    }
+
+    public interface UserService {
+        Mono<String> findNickById(Integer id);
+
+        Mono<Integer> count();
+    }
+
+    public static class UserServiceImpl implements UserService {
+        @Override
+        public Mono<String> findNickById(Integer id) {
+            return Mono.just("nick");
+        }
+
+        @Override
+        public Mono<Integer> count() {
+            return Mono.just(1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.alibaba.rsocket.rpc;
+
+import io.rsocket.exceptions.RejectedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * method bulkhead test
+ *
+ * @author leijuan
+ */
+public class MethodBulkheadTest {
+
+    @Test
+    public void testLimit() {
+        MethodBulkhead bulkhead = new MethodBulkhead("com.alibaba.user.UserService", "findSlow", 2, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Mono<String> slowCall = Mono.defer(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            return Mono.just("slow").delayElement(Duration.ofMillis(100)).doFinally(signalType -> running.decrementAndGet());
+        });
+        List<String> results = Flux.range(0, 6)
+                .flatMap(i -> bulkhead.execute(slowCall, rejected::incrementAndGet)
+                        .onErrorResume(RejectedException.class, e -> Mono.just("rejected")))
+                .collectList()
+                .block();
+        System.out.println("Results: " + results);
+        Assertions.assertEquals(4, results.stream().filter("slow"::equals).count());
+        Assertions.assertEquals(2, rejected.get());
+        Assertions.assertEquals(2, maxRunning.get());
+        Assertions.assertEquals(0, bulkhead.getActive());
+        Assertions.assertEquals(0, bulkhead.getQueued());
+    }
+
+    @Test
+    public void testCancelQueued() {
+        MethodBulkhead bulkhead = new MethodBulkhead("com.alibaba.user.UserService", "findNever", 1, 1);
+        Disposable running = bulkhead.execute(Mono.never(), () -> {
+        }).subscribe();
+        AtomicInteger released = new AtomicInteger();
+        Disposable queued = bulkhead.execute(Mono.never(), released::incrementAndGet).subscribe();
+        Assertions.assertEquals(1, bulkhead.getActive());
+        Assertions.assertEquals(1, bulkhead.getQueued());
+        queued.dispose();
+        Assertions.assertEquals(0, bulkhead.getQueued());
+        //payload of cancelled queued call released
+        Assertions.assertEquals(1, released.get());
+        running.dispose();
+        Assertions.assertEquals(1, released.get());
+        Assertions.assertEquals(0, bulkhead.getActive());
+        Assertions.assertEquals("fast", bulkhead.execute(Mono.just("fast"), () -> {
+        }).block());
+    }
+
+    @Test
+    public void testStream() {
+        MethodBulkhead bulkhead = new MethodBulkhead("com.alibaba.user.UserService", "findAll", 1, 0);
+        Flux<Integer> stream = bulkhead.execute(Flux.range(0, 3).delayElements(Duration.ofMillis(50)), () -> {
+        });
+        Disposable subscription = stream.subscribe();
+        Assertions.assertThrows(RejectedException.class, () -> bulkhead.execute(Flux.just(1), () -> {
+        }).blockLast());
+        subscription.dispose();
+        Assertions.assertEquals(1, bulkhead.execute(Flux.just(1), () -> {
+        }).blockLast());
+    }
+}
@@ -0,0 +1,158 @@
+package com.alibaba.rsocket.rpc;
+
+import kotlin.coroutines.Continuation;
+import kotlinx.coroutines.flow.Flow;
+import kotlinx.coroutines.reactive.ReactiveFlowKt;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * reactive method handler test: direct invokers and dispatch cost compared with reflection
+ *
+ * @author leijuan
+ */
+public class ReactiveMethodHandlerTest {
+    private final AccountServiceImpl accountService = new AccountServiceImpl();
+
+    @Test
+    public void testInvoke() throws Exception {
+        Assertions.assertEquals("nick", ((Mono<?>) handler("findNickById").invoke(1)).block());
+        Assertions.assertEquals(3, handler("add").invoke(1, 2));
+        Assertions.assertEquals("a-b-c-d", handler("join").invoke("a", "b", "c", "d"));
+        Assertions.assertNull(handler("touch").invoke(1));
+        Assertions.assertEquals(1, accountService.touched);
+        Assertions.assertEquals("nick", ((Mono<?>) handler("findNick").invoke()).block());
+        //exception from service method is not wrapped
+        Assertions.assertThrows(IllegalArgumentException.class, () -> handler("findNickById").invoke(-1));
+    }
+
+    @Test
+    public void testInferredClasses() throws Exception {
+        ReactiveMethodHandler handler = handler("findNickById");
+        Assertions.assertEquals(String.class, handler.getInferredClassForReturn());
+        Assertions.assertEquals(Integer.class, handler.getInferredClassForParameter(0));
+        Assertions.assertSame(handler.getParameterTypes(), handler.getParameterTypes());
+        Assertions.assertEquals(Integer.class, handler("count").getInferredClassForParameter(0));
+    }
+
+    @Test
+    public void testKotlinSuspend() throws Exception {
+        ReactiveMethodHandler handler = handler("findNickSuspend");
+        Assertions.assertTrue(handler.isKotlinSuspend());
+        Assertions.assertTrue(handler.isAsyncReturn());
+        Assertions.assertEquals(1, handler.getParameterCount());
+        Assertions.assertEquals(String.class, handler.getInferredClassForReturn());
+        Assertions.assertEquals("nick-1", handler.getReactiveAdapter().toMono(handler.invoke(1)).block());
+    }
+
+    @Test
+    public void testKotlinFlow() throws Exception {
+        ReactiveMethodHandler handler = handler("ticks");
+        Assertions.assertTrue(handler.isAsyncReturn());
+        Assertions.assertEquals(Integer.class, handler.getInferredClassForReturn());
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), handler.getReactiveAdapter().toFlux(handler.invoke(3)).collectList().block());
+    }
+
+    @Test
+    public void testDispatchCost() throws Exception {
+        Method method = AccountService.class.getMethod("findNickById", Integer.class);
+        ReactiveMethodHandler handler = handler("findNickById");
+        Integer id = 1;
+        int count = 10_000_000;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                method.invoke(accountService, id);
+            }
+            System.out.println("Method.invoke: " + (System.nanoTime() - start) / count + "ns per call");
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                handler.invoke(id);
+            }
+            System.out.println("Direct invoker: " + (System.nanoTime() - start) / count + "ns per call");
+        }
+    }
+
+    private ReactiveMethodHandler handler(String methodName) {
+        for (Method method : AccountService.class.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return new ReactiveMethodHandler(AccountService.class, method, accountService);
+            }
+        }
+        throw new IllegalStateException(methodName);
+    }
+
+    public interface AccountService {
+        Mono<String> findNick();
+
+        Mono<String> findNickById(Integer id);
+
+        int add(int first, int second);
+
+        String join(String first, String second, String third, String fourth);
+
+        void touch(Integer id);
+
+        Mono<Long> count(Flux<Integer> ids);
+
+        /**
+         * compiled form of Kotlin "suspend fun findNickSuspend(id: Int): String"
+         */
+        Object findNickSuspend(Integer id, Continuation<? super String> continuation);
+
+        Flow<Integer> ticks(Integer count);
+    }
+
+    private static class AccountServiceImpl implements AccountService {
+        private final Mono<String> nick = Mono.just("nick");
+        private int touched = 0;
+
+        @Override
+        public Mono<String> findNick() {
+            return nick;
+        }
+
+        @Override
+        public Mono<String> findNickById(Integer id) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Illegal id: " + id);
+            }
+            return nick;
+        }
+
+        @Override
+        public int add(int first, int second) {
+            return first + second;
+        }
+
+        @Override
+        public String join(String first, String second, String third, String fourth) {
+            return String.join("-", first, second, third, fourth);
+        }
+
+        @Override
+        public void touch(Integer id) {
+            touched++;
+        }
+
+        @Override
+        public Mono<Long> count(Flux<Integer> ids) {
+            return ids.count();
+        }
+
+        @Override
+        public Object findNickSuspend(Integer id, Continuation<? super String> continuation) {
+            return "nick-" + id;
+        }
+
+        @Override
+        public Flow<Integer> ticks(Integer count) {
+            return ReactiveFlowKt.asFlow(Flux.range(0, count));
+        }
+    }
+}
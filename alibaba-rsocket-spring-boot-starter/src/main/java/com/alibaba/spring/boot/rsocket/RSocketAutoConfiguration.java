@@ -5,6 +5,7 @@ import com.alibaba.rsocket.health.RSocketServiceHealth;
 import com.alibaba.rsocket.listen.RSocketResponderHandlerFactory;
 import com.alibaba.rsocket.observability.MetricsService;
 import com.alibaba.rsocket.route.RoutingEndpoint;
+import com.alibaba.rsocket.rpc.BlockingMethodExecutor;
 import com.alibaba.rsocket.rpc.LocalReactiveServiceCaller;
 import com.alibaba.rsocket.rpc.RSocketResponderHandler;
 import com.alibaba.rsocket.upstream.UpstreamCluster;
@@ -69,6 +70,9 @@ public class RSocketAutoConfiguration {
     @ConditionalOnMissingBean
     public RSocketResponderHandlerFactory rsocketResponderHandlerFactory(@Autowired LocalReactiveServiceCaller serviceCaller,
                                                                          @Autowired @Qualifier("reactiveCloudEventProcessor") TopicProcessor<CloudEventImpl> eventProcessor) {
+        if (properties.getBlockingThreads() != null && properties.getBlockingThreads() > 0) {
+            BlockingMethodExecutor.configure(BlockingMethodExecutor.threadPool(properties.getBlockingThreads(), BlockingMethodExecutor.DEFAULT_QUEUE_CAPACITY));
+        }
         return (setup, requester) -> Mono.fromCallable(() -> new RSocketResponderHandler(serviceCaller, eventProcessor, requester));
     }
 
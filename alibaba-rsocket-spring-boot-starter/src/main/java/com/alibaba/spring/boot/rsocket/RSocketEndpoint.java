@@ -65,6 +65,19 @@ public class RSocketEndpoint {
                 if (!loadBalancedRSocket.getUnHealthUriSet().isEmpty()) {
                     temp.put("unHealthUris", loadBalancedRSocket.getUnHealthUriSet());
                 }
+                if (!loadBalancedRSocket.getEjectedSockets().isEmpty()) {
+                    temp.put("ejectedUris", loadBalancedRSocket.getEjectedSockets().entrySet().stream().map(entry -> {
+                        Map<String, Object> ejection = new HashMap<>();
+                        ejection.put("uri", entry.getKey());
+                        ejection.put("reason", entry.getValue().getEjectionReason());
+                        ejection.put("ejections", entry.getValue().getEjections());
+                        ejection.put("ejectedUntil", new Date(entry.getValue().getEjectedUntil()));
+                        return ejection;
+                    }).collect(Collectors.toList()));
+                }
+                if (!loadBalancedRSocket.getDegradedUris().isEmpty()) {
+                    temp.put("degradedUris", loadBalancedRSocket.getDegradedUris());
+                }
                 temp.put("lastRefreshTimeStamp", new Date(loadBalancedRSocket.getLastRefreshTimeStamp()));
                 temp.put("lastHealthCheckTimeStamp", new Date(loadBalancedRSocket.getLastHealthCheckTimeStamp()));
                 return temp;
@@ -30,6 +30,9 @@ public class RSocketListenerAutoConfiguration {
         return builder -> {
             builder.acceptor(socketAcceptor);
             builder.listen(properties.getSchema(), properties.getPort());
+            if (properties.getFragmentMtu() != null && properties.getFragmentMtu() > 0) {
+                builder.fragment(properties.getFragmentMtu());
+            }
         };
     }
 
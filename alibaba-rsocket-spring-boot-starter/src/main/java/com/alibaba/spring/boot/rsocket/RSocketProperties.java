@@ -4,6 +4,7 @@ import com.alibaba.rsocket.RSocketAppContext;
 import com.alibaba.rsocket.route.RoutingEndpoint;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -53,6 +54,22 @@ public class RSocketProperties {
      * endpoints: interface full name to endpoint url
      */
     private List<RoutingEndpoint> routes;
+    /**
+     * fragmentation mtu in bytes for large payload, and 0 means fragmentation disabled
+     */
+    private Integer fragmentMtu = 0;
+    /**
+     * connections per upstream uri, and requests are sent over the connection with least in-flight requests
+     */
+    private Integer connectionsPerUri = 1;
+    /**
+     * thread count for blocking service methods, and 0 means virtual threads on JDK 21+ or default thread pool
+     */
+    private Integer blockingThreads = 0;
+    /**
+     * method bulkheads with service.method as key, such as rsocket.bulkheads[com.alibaba.user.UserService.findById].max-concurrent=16
+     */
+    private Map<String, BulkheadProperties> bulkheads = new HashMap<>();
 
     public String getSchema() {
         return schema;
@@ -125,4 +142,63 @@ public class RSocketProperties {
     public void setTimeout(Integer timeout) {
         this.timeout = timeout;
     }
+
+    public Integer getFragmentMtu() {
+        return fragmentMtu;
+    }
+
+    public void setFragmentMtu(Integer fragmentMtu) {
+        this.fragmentMtu = fragmentMtu;
+    }
+
+    public Integer getConnectionsPerUri() {
+        return connectionsPerUri;
+    }
+
+    public void setConnectionsPerUri(Integer connectionsPerUri) {
+        this.connectionsPerUri = connectionsPerUri;
+    }
+
+    public Integer getBlockingThreads() {
+        return blockingThreads;
+    }
+
+    public void setBlockingThreads(Integer blockingThreads) {
+        this.blockingThreads = blockingThreads;
+    }
+
+    public Map<String, BulkheadProperties> getBulkheads() {
+        return bulkheads;
+    }
+
+    public void setBulkheads(Map<String, BulkheadProperties> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    public static class BulkheadProperties {
+        /**
+         * max concurrent calls, and 0 means no limit
+         */
+        private int maxConcurrent = 0;
+        /**
+         * max queued calls waiting for a permit
+         */
+        private int maxQueued = 0;
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+    }
 }
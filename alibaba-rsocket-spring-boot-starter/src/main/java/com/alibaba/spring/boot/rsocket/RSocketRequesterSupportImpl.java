@@ -190,6 +190,16 @@ public class RSocketRequesterSupportImpl implements RSocketRequesterSupport, App
         this.requestInterceptors.add(interceptor);
     }
 
+    @Override
+    public int fragmentMtu() {
+        return properties.getFragmentMtu() == null ? 0 : properties.getFragmentMtu();
+    }
+
+    @Override
+    public int connectionsPerUri() {
+        return properties.getConnectionsPerUri() == null ? 1 : properties.getConnectionsPerUri();
+    }
+
     @Override
     public void setApplicationContext(@NotNull ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
@@ -17,6 +17,14 @@ public class RSocketServiceAnnotationProcessor extends LocalReactiveServiceCalle
 
     public RSocketServiceAnnotationProcessor(RSocketProperties rSocketProperties) {
         this.rSocketProperties = rSocketProperties;
+        if (rSocketProperties.getBulkheads() != null) {
+            rSocketProperties.getBulkheads().forEach((key, bulkhead) -> {
+                int index = key.lastIndexOf('.');
+                if (index > 0) {
+                    setBulkhead(key.substring(0, index), key.substring(index + 1), bulkhead.getMaxConcurrent(), bulkhead.getMaxQueued());
+                }
+            });
+        }
     }
 
     @Override